@@ -0,0 +1,38 @@
+package vowpalWabbit.benchmarks;
+
+import vowpalWabbit.VW;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs JMH with the given arguments.  Unless a result format is given with <code>-rf</code>, the results are written
+ * as JSON to <code>jmh-result-&lt;VW version&gt;.json</code>, so that runs against different versions of the
+ * bindings end up in different files which can be compared.
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<String>(Arrays.asList(args));
+        if (!jmhArgs.contains("-rf")) {
+            jmhArgs.add("-rf");
+            jmhArgs.add("json");
+            if (!jmhArgs.contains("-rff")) {
+                jmhArgs.add("-rff");
+                jmhArgs.add("jmh-result-" + version() + ".json");
+            }
+        }
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[jmhArgs.size()]));
+    }
+
+    private static String version() {
+        try {
+            return VW.version();
+        }
+        catch (UnsatisfiedLinkError e) {
+            return "unknown";
+        }
+    }
+}
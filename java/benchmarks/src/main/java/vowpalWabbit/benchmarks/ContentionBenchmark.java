@@ -0,0 +1,132 @@
+package vowpalWabbit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import vowpalWabbit.learner.VWLearners;
+import vowpalWabbit.learner.VWPredictorPool;
+import vowpalWabbit.learner.VWScalarLearner;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures prediction throughput of a single learner shared by 1 to 32 threads, where every call takes the learner's
+ * lock, against a {@link VWPredictorPool} with one replica per thread.  The shared learner stops scaling at one
+ * thread; the gap between the two shows what the lock costs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ContentionBenchmark {
+    private static final String EXAMPLE = "| a b c d:0.5 e:2";
+
+    private VWScalarLearner shared;
+    private VWPredictorPool<VWScalarLearner> pool;
+
+    @Setup
+    public void setup() throws IOException {
+        File model = File.createTempFile("vw-benchmark", ".model");
+        model.deleteOnExit();
+        VWScalarLearner trainer = VWLearners.create("--quiet -f " + model.getAbsolutePath());
+        trainer.learn("1 | a b c");
+        trainer.learn("-1 | c d e");
+        trainer.close();
+
+        shared = VWLearners.create("--quiet -t -i " + model.getAbsolutePath());
+        pool = VWLearners.createPredictorPool("--quiet -t -i " + model.getAbsolutePath(), 32);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        shared.close();
+        pool.close();
+    }
+
+    private float sharedPredict() {
+        return shared.predict(EXAMPLE);
+    }
+
+    private float poolPredict() throws InterruptedException {
+        VWScalarLearner replica = pool.acquire();
+        try {
+            return replica.predict(EXAMPLE);
+        }
+        finally {
+            pool.release(replica);
+        }
+    }
+
+    @Benchmark @Threads(1)
+    public float shared01() {
+        return sharedPredict();
+    }
+
+    @Benchmark @Threads(2)
+    public float shared02() {
+        return sharedPredict();
+    }
+
+    @Benchmark @Threads(4)
+    public float shared04() {
+        return sharedPredict();
+    }
+
+    @Benchmark @Threads(8)
+    public float shared08() {
+        return sharedPredict();
+    }
+
+    @Benchmark @Threads(16)
+    public float shared16() {
+        return sharedPredict();
+    }
+
+    @Benchmark @Threads(32)
+    public float shared32() {
+        return sharedPredict();
+    }
+
+    @Benchmark @Threads(1)
+    public float pool01() throws InterruptedException {
+        return poolPredict();
+    }
+
+    @Benchmark @Threads(2)
+    public float pool02() throws InterruptedException {
+        return poolPredict();
+    }
+
+    @Benchmark @Threads(4)
+    public float pool04() throws InterruptedException {
+        return poolPredict();
+    }
+
+    @Benchmark @Threads(8)
+    public float pool08() throws InterruptedException {
+        return poolPredict();
+    }
+
+    @Benchmark @Threads(16)
+    public float pool16() throws InterruptedException {
+        return poolPredict();
+    }
+
+    @Benchmark @Threads(32)
+    public float pool32() throws InterruptedException {
+        return poolPredict();
+    }
+}
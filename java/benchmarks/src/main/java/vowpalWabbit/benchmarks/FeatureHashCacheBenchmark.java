@@ -0,0 +1,82 @@
+package vowpalWabbit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vowpalwabbit.spark.FeatureHashCache;
+import org.vowpalwabbit.spark.VowpalWabbitMurmur;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares hashing {@value #LOOKUPS} categorical feature names with {@link VowpalWabbitMurmur} against looking them up
+ * in a {@link FeatureHashCache} of <code>budget</code> bytes.  The names are drawn from 1,000,000 distinct values with a
+ * Zipf distribution, so a small cache already answers most lookups.  The same names are looked up on every call, which
+ * favours the larger budgets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FeatureHashCacheBenchmark {
+    static final int LOOKUPS = 4096;
+
+    private static final int DISTINCT = 1000000;
+
+    @Param({"65536", "1048576", "16777216"})
+    public long budget;
+
+    private String[] names;
+    private int[] indices;
+    private int namespaceHash;
+    private FeatureHashCache cache;
+
+    @Setup
+    public void setup() {
+        // inverse transform sampling of a Zipf distribution with exponent 1
+        double[] cdf = new double[DISTINCT];
+        double sum = 0;
+        for (int i = 0; i < DISTINCT; ++i) {
+            sum += 1.0 / (i + 1);
+            cdf[i] = sum;
+        }
+
+        Random random = new Random(0);
+        names = new String[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; ++i) {
+            int rank = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            names[i] = "value" + (rank < 0 ? -rank - 1 : rank);
+        }
+        indices = new int[LOOKUPS];
+        namespaceHash = VowpalWabbitMurmur.hash("category", 0);
+        cache = new FeatureHashCache(18, budget);
+    }
+
+    @Benchmark
+    public int[] murmur() {
+        for (int i = 0; i < LOOKUPS; ++i) {
+            indices[i] = VowpalWabbitMurmur.hash(names[i], namespaceHash) & ((1 << 18) - 1);
+        }
+        return indices;
+    }
+
+    @Benchmark
+    public int[] cached() {
+        for (int i = 0; i < LOOKUPS; ++i) {
+            indices[i] = cache.getIndex(namespaceHash, names[i]);
+        }
+        return indices;
+    }
+}
@@ -0,0 +1,66 @@
+package vowpalWabbit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import vowpalWabbit.learner.VWLearners;
+import vowpalWabbit.learner.VWScalarLearner;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures saving a model and loading it into a new learner for weight tables of 2^<code>bits</code> entries.
+ * Loading includes creating and closing the learner, which is what a model refresh costs.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelIOBenchmark {
+    @Param({"18", "22", "24"})
+    public int bits;
+
+    private VWScalarLearner learner;
+    private File model;
+
+    @Setup
+    public void setup() throws IOException {
+        model = File.createTempFile("vw-benchmark", ".model");
+        model.deleteOnExit();
+        learner = VWLearners.create("--quiet -b " + bits);
+        for (int i = 0; i < 1000; ++i) {
+            learner.learn((i % 2 == 0 ? "1" : "-1") + " | a_" + i + " b_" + (i % 10) + " c:" + i);
+        }
+        learner.saveModel(model);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        learner.close();
+        model.delete();
+    }
+
+    @Benchmark
+    public void save() {
+        learner.saveModel(model);
+    }
+
+    @Benchmark
+    public void load() throws IOException {
+        VWScalarLearner loaded = VWLearners.create("--quiet -t -i " + model.getAbsolutePath());
+        loaded.close();
+    }
+}
@@ -0,0 +1,100 @@
+package vowpalWabbit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vowpalwabbit.spark.VowpalWabbitMurmur;
+
+import java.nio.charset.Charset;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Java port of murmur hash with a JNI call to the native implementation for feature names of
+ * <code>length</code> characters.  Both produce the same hashes, the difference is the cost of crossing into native
+ * code versus running the hash in the JVM.  Strings are hashed encoding UTF-8 on the fly and, for comparison, through
+ * <code>getBytes</code>.  The batch cases hash {@value #BATCH} names per call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MurmurBenchmark {
+    static final int BATCH = 1024;
+
+    @Param({"8", "64", "512"})
+    public int length;
+
+    private String feature;
+    private byte[] bytes;
+    private String[] features;
+    private byte[] batchBytes;
+    private int[] offsets;
+    private int[] hashes;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; ++i) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        feature = sb.toString();
+        bytes = feature.getBytes(Charset.forName("UTF-8"));
+
+        features = new String[BATCH];
+        batchBytes = new byte[BATCH * bytes.length];
+        offsets = new int[BATCH + 1];
+        hashes = new int[BATCH];
+        for (int i = 0; i < BATCH; ++i) {
+            // vary the names without changing their length
+            features[i] = feature.substring(i % length) + feature.substring(0, i % length);
+            byte[] b = features[i].getBytes(Charset.forName("UTF-8"));
+            System.arraycopy(b, 0, batchBytes, i * bytes.length, b.length);
+            offsets[i + 1] = (i + 1) * bytes.length;
+        }
+    }
+
+    @Benchmark
+    public int hashString() {
+        return VowpalWabbitMurmur.hash(feature, 0);
+    }
+
+    @Benchmark
+    public int hashStringGetBytes() {
+        byte[] d = feature.getBytes(Charset.forName("UTF-8"));
+        return VowpalWabbitMurmur.hash(d, 0, d.length, 0);
+    }
+
+    @Benchmark
+    public int hashBytes() {
+        return VowpalWabbitMurmur.hash(bytes, 0, bytes.length, 0);
+    }
+
+    @Benchmark
+    public int hashNative() {
+        return VowpalWabbitMurmur.hashNative(bytes, 0, bytes.length, 0);
+    }
+
+    @Benchmark
+    public int[] hashAll() {
+        VowpalWabbitMurmur.hashAll(features, 0, hashes);
+        return hashes;
+    }
+
+    @Benchmark
+    public int[] hashNativeBatch() {
+        VowpalWabbitMurmur.hashNative(batchBytes, offsets, 0, hashes);
+        return hashes;
+    }
+}
@@ -0,0 +1,91 @@
+package vowpalWabbit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import vowpalWabbit.learner.VWActionScoresLearner;
+import vowpalWabbit.learner.VWLearners;
+import vowpalWabbit.responses.ActionScores;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways a CB-ADF decision can be handed to the native code: one string per line, one newline delimited
+ * string and one newline delimited direct buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class PackedMultilineBenchmark {
+    @Param({"10", "100", "1000"})
+    public int actions;
+
+    private VWActionScoresLearner learner;
+    private String[] lines;
+    private String packed;
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        lines = new String[actions + 1];
+        lines[0] = "shared |s user_" + random.nextInt(100) + " age:" + random.nextFloat();
+        for (int i = 1; i < lines.length; ++i) {
+            lines[i] = "|a item_" + random.nextInt(10000) + " price:" + random.nextFloat() + " rank:" + i;
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines) {
+            sb.append(line).append('\n');
+        }
+        packed = sb.toString();
+
+        byte[] bytes = packed.getBytes(Charset.forName("UTF-8"));
+        buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes);
+        buffer.flip();
+
+        learner = VWLearners.create("--quiet --cb_adf --rank_all");
+        String[] train = lines.clone();
+        train[1] = "0:1.0:0.5 " + train[1];
+        for (int i = 0; i < 10; ++i) {
+            learner.learn(train);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        learner.close();
+    }
+
+    @Benchmark
+    public ActionScores stringArray() {
+        return learner.predict(lines);
+    }
+
+    @Benchmark
+    public ActionScores packedString() {
+        return learner.predictPacked(packed);
+    }
+
+    @Benchmark
+    public ActionScores packedDirectBuffer() {
+        return learner.predictPacked(buffer);
+    }
+}
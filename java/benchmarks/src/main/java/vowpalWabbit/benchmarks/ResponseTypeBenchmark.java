@@ -0,0 +1,94 @@
+package vowpalWabbit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import vowpalWabbit.learner.VWActionScoresLearner;
+import vowpalWabbit.learner.VWLearners;
+import vowpalWabbit.learner.VWMultilabelsLearner;
+import vowpalWabbit.responses.ActionScores;
+import vowpalWabbit.responses.Multilabels;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of a single prediction for the learners which build a Java object graph on every call.  These
+ * are the calls that used to look up the response classes and constructors on every prediction, so comparing the
+ * results of this benchmark before and after the JNI class/method ID cache shows the per call saving.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ResponseTypeBenchmark {
+    private static final String[] CB_ADF_TRAIN = new String[]{
+            "shared | s_1 s_2",
+            "0:1.0:0.5 | a:1 b:1 c:1",
+            "| a:0.5 b:2 c:1",
+            "| a:2 b:0.5 c:0.25"
+    };
+
+    private static final String[] CB_ADF_TEST = new String[]{
+            "shared | s_1 s_2",
+            "| a:1 b:1 c:1",
+            "| a:0.5 b:2 c:1",
+            "| a:2 b:0.5 c:0.25"
+    };
+
+    private static final String[] MULTILABEL_TRAIN = new String[]{
+            "1 | a",
+            "2 | a b",
+            "3 | a c",
+            "2 | a b",
+            "3 | b c",
+            "1 | a c",
+            "2 | d"
+    };
+
+    private static final String MULTILABEL_TEST = "| a b c d";
+
+    private VWActionScoresLearner actionScores;
+    private VWMultilabelsLearner multilabels;
+
+    @Setup
+    public void setup() {
+        actionScores = VWLearners.create("--quiet --cb_adf --rank_all");
+        for (int i = 0; i < 10; ++i) {
+            actionScores.learn(CB_ADF_TRAIN);
+        }
+
+        multilabels = VWLearners.create("--quiet --multilabel_oaa 4");
+        for (int i = 0; i < 10; ++i) {
+            for (String example : MULTILABEL_TRAIN) {
+                multilabels.learn(example);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        actionScores.close();
+        multilabels.close();
+    }
+
+    @Benchmark
+    public ActionScores actionScoresPredict() {
+        return actionScores.predict(CB_ADF_TEST);
+    }
+
+    @Benchmark
+    public Multilabels multilabelsPredict() {
+        return multilabels.predict(MULTILABEL_TEST);
+    }
+}
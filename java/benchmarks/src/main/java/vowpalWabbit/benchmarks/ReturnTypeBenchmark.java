@@ -0,0 +1,157 @@
+package vowpalWabbit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import vowpalWabbit.learner.VWActionProbsLearner;
+import vowpalWabbit.learner.VWActionScoresLearner;
+import vowpalWabbit.learner.VWLearners;
+import vowpalWabbit.learner.VWMulticlassLearner;
+import vowpalWabbit.learner.VWMultilabelsLearner;
+import vowpalWabbit.learner.VWProbLearner;
+import vowpalWabbit.learner.VWScalarLearner;
+import vowpalWabbit.learner.VWScalarsLearner;
+import vowpalWabbit.responses.ActionProbs;
+import vowpalWabbit.responses.ActionScores;
+import vowpalWabbit.responses.Multilabels;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a single learn or predict call for every type returned by {@link VWLearners}, on single line examples
+ * and, for the reductions that take them, on multiline examples.  The cost is dominated by parsing, the learner and
+ * the conversion of the prediction into its Java type, which differs per return type.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ReturnTypeBenchmark {
+    private static final String SINGLE_LINE = "1 | a b c d:0.5 e:2";
+    private static final String SINGLE_LINE_CB = "1:1.0:0.5 | a b c d:0.5 e:2";
+    private static final String SINGLE_LINE_MULTILABEL = "1,3 | a b c d:0.5 e:2";
+
+    private static final String[] MULTILINE_CB = new String[]{
+            "shared | s_1 s_2",
+            "0:1.0:0.5 | a:1 b:1 c:1",
+            "| a:0.5 b:2 c:1",
+            "| a:2 b:0.5 c:0.25"
+    };
+
+    private static final String[] MULTILINE_CSOAA = new String[]{
+            "1:1.0 | a_1 b_1 c_1",
+            "2:0.0 | a_2 b_2 c_2",
+            "3:2.0 | a_3 b_3 c_3"
+    };
+
+    /**
+     * Whether the learner is updated on each call.
+     */
+    @Param({"false", "true"})
+    public boolean learn;
+
+    private VWScalarLearner scalar;
+    private VWScalarsLearner scalars;
+    private VWMulticlassLearner multiclass;
+    private VWMultilabelsLearner multilabels;
+    private VWActionProbsLearner actionProbs;
+    private VWProbLearner probMultiline;
+    private VWMulticlassLearner multiclassMultiline;
+    private VWActionScoresLearner actionScoresMultiline;
+    private VWActionProbsLearner actionProbsMultiline;
+
+    @Setup
+    public void setup() {
+        scalar = VWLearners.create("--quiet");
+        scalars = VWLearners.create("--quiet --oaa 3 --loss_function=logistic --probabilities");
+        multiclass = VWLearners.create("--quiet --oaa 3");
+        multilabels = VWLearners.create("--quiet --multilabel_oaa 4");
+        actionProbs = VWLearners.create("--quiet --cb_explore 4");
+        probMultiline = VWLearners.create("--quiet --csoaa_ldf=mc --loss_function=logistic --probabilities");
+        multiclassMultiline = VWLearners.create("--quiet --csoaa_ldf=mc");
+        actionScoresMultiline = VWLearners.create("--quiet --cb_adf --rank_all");
+        actionProbsMultiline = VWLearners.create("--quiet --cb_explore_adf");
+
+        for (int i = 0; i < 10; ++i) {
+            scalar.learn(SINGLE_LINE);
+            scalars.learn(SINGLE_LINE);
+            multiclass.learn(SINGLE_LINE);
+            multilabels.learn(SINGLE_LINE_MULTILABEL);
+            actionProbs.learn(SINGLE_LINE_CB);
+            probMultiline.learn(MULTILINE_CSOAA);
+            multiclassMultiline.learn(MULTILINE_CSOAA);
+            actionScoresMultiline.learn(MULTILINE_CB);
+            actionProbsMultiline.learn(MULTILINE_CB);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        scalar.close();
+        scalars.close();
+        multiclass.close();
+        multilabels.close();
+        actionProbs.close();
+        probMultiline.close();
+        multiclassMultiline.close();
+        actionScoresMultiline.close();
+        actionProbsMultiline.close();
+    }
+
+    @Benchmark
+    public float scalar() {
+        return learn ? scalar.learn(SINGLE_LINE) : scalar.predict(SINGLE_LINE);
+    }
+
+    @Benchmark
+    public float[] scalars() {
+        return learn ? scalars.learn(SINGLE_LINE) : scalars.predict(SINGLE_LINE);
+    }
+
+    @Benchmark
+    public int multiclass() {
+        return learn ? multiclass.learn(SINGLE_LINE) : multiclass.predict(SINGLE_LINE);
+    }
+
+    @Benchmark
+    public Multilabels multilabels() {
+        return learn ? multilabels.learn(SINGLE_LINE_MULTILABEL) : multilabels.predict(SINGLE_LINE_MULTILABEL);
+    }
+
+    @Benchmark
+    public ActionProbs actionProbs() {
+        return learn ? actionProbs.learn(SINGLE_LINE_CB) : actionProbs.predict(SINGLE_LINE_CB);
+    }
+
+    @Benchmark
+    public float probMultiline() {
+        return learn ? probMultiline.learn(MULTILINE_CSOAA) : probMultiline.predict(MULTILINE_CSOAA);
+    }
+
+    @Benchmark
+    public int multiclassMultiline() {
+        return learn ? multiclassMultiline.learn(MULTILINE_CSOAA) : multiclassMultiline.predict(MULTILINE_CSOAA);
+    }
+
+    @Benchmark
+    public ActionScores actionScoresMultiline() {
+        return learn ? actionScoresMultiline.learn(MULTILINE_CB) : actionScoresMultiline.predict(MULTILINE_CB);
+    }
+
+    @Benchmark
+    public ActionProbs actionProbsMultiline() {
+        return learn ? actionProbsMultiline.learn(MULTILINE_CB) : actionProbsMultiline.predict(MULTILINE_CB);
+    }
+}
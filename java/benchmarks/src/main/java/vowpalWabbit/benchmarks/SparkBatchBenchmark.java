@@ -0,0 +1,121 @@
+package vowpalWabbit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.vowpalwabbit.spark.VowpalWabbitExample;
+import org.vowpalwabbit.spark.VowpalWabbitNative;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares learning and predicting a mini-batch of <code>batchSize</code> small examples one JNI call per example
+ * against a single {@link VowpalWabbitNative#learn(VowpalWabbitExample[])} or
+ * {@link VowpalWabbitNative#predictScalars(VowpalWabbitExample[], float[])} call.  Per example predictions are
+ * measured boxed ({@link VowpalWabbitExample#predict()}) and unboxed ({@link VowpalWabbitExample#predictScalar()}).
+ * VW rewrites the features of an example when learning or predicting it, so every call rebuilds the examples
+ * first, which costs the same for all variants.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SparkBatchBenchmark {
+    private static final int FEATURES = 10;
+
+    @Param({"1", "16", "128", "1024"})
+    public int batchSize;
+
+    private VowpalWabbitNative vw;
+    private VowpalWabbitExample[] examples;
+    private int[][] indices;
+    private float[][] values;
+    private float[] predictions;
+
+    @Setup
+    public void setup() {
+        vw = new VowpalWabbitNative("--quiet");
+        examples = new VowpalWabbitExample[batchSize];
+        predictions = new float[batchSize];
+
+        indices = new int[batchSize][FEATURES];
+        values = new float[batchSize][FEATURES];
+
+        Random random = new Random(0);
+        for (int i = 0; i < batchSize; ++i) {
+            for (int j = 0; j < FEATURES; ++j) {
+                indices[i][j] = random.nextInt();
+                values[i][j] = random.nextFloat();
+            }
+            examples[i] = vw.createExample();
+        }
+    }
+
+    private void build() {
+        for (int i = 0; i < batchSize; ++i) {
+            examples[i].clear();
+            examples[i].addToNamespaceSparse('a', indices[i], values[i]);
+            examples[i].setLabel(i % 2);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (VowpalWabbitExample example : examples) {
+            example.close();
+        }
+        vw.close();
+    }
+
+    @Benchmark
+    public void learnEach() {
+        build();
+        for (VowpalWabbitExample example : examples) {
+            example.learn();
+        }
+    }
+
+    @Benchmark
+    public void learnBatch() {
+        build();
+        vw.learn(examples);
+    }
+
+    @Benchmark
+    public void predictEach(Blackhole blackhole) {
+        build();
+        for (VowpalWabbitExample example : examples) {
+            blackhole.consume(example.predict());
+        }
+    }
+
+    @Benchmark
+    public float predictEachScalar() {
+        build();
+        float sum = 0;
+        for (VowpalWabbitExample example : examples) {
+            sum += example.predictScalar();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float[] predictBatch() {
+        build();
+        vw.predictScalars(examples, predictions);
+        return predictions;
+    }
+}
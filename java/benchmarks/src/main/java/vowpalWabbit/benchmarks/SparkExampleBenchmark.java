@@ -0,0 +1,165 @@
+package vowpalWabbit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vowpalwabbit.spark.VowpalWabbitExample;
+import org.vowpalwabbit.spark.VowpalWabbitExamplePool;
+import org.vowpalwabbit.spark.VowpalWabbitMurmur;
+import org.vowpalwabbit.spark.VowpalWabbitNative;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures learning from pre-hashed features through {@link VowpalWabbitExample}, the path used by the Spark
+ * integration, which skips the text parser altogether.  Each call clears the example, adds one namespace of
+ * <code>features</code> dense or sparse values, sets the label and learns.  The values are passed as
+ * <code>double[]</code>, <code>float[]</code> or direct buffers, <code>denseWidened</code> widens float values to a
+ * new <code>double[]</code> first.  Creating and closing an example per call is
+ * compared with taking it from a {@link VowpalWabbitExamplePool}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class SparkExampleBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int features;
+
+    private VowpalWabbitNative vw;
+    private VowpalWabbitExample example;
+    private VowpalWabbitExamplePool pool;
+    private int baseIndex;
+    private int[] indices;
+    private double[] values;
+    private float[] floatValues;
+    private FloatBuffer floatBuffer;
+    private IntBuffer indexBuffer;
+
+    @Setup
+    public void setup() {
+        vw = new VowpalWabbitNative("--quiet");
+        example = vw.createExample();
+        pool = vw.createExamplePool(1);
+        baseIndex = VowpalWabbitMurmur.hash("a", 0);
+
+        Random random = new Random(0);
+        indices = new int[features];
+        values = new double[features];
+        floatValues = new float[features];
+        for (int i = 0; i < features; ++i) {
+            indices[i] = random.nextInt();
+            values[i] = random.nextDouble();
+            floatValues[i] = (float) values[i];
+        }
+        floatBuffer = ByteBuffer.allocateDirect(4 * features).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        floatBuffer.put(floatValues).flip();
+        indexBuffer = ByteBuffer.allocateDirect(4 * features).order(ByteOrder.nativeOrder()).asIntBuffer();
+        indexBuffer.put(indices).flip();
+    }
+
+    @TearDown
+    public void tearDown() {
+        example.close();
+        pool.close();
+        vw.close();
+    }
+
+    @Benchmark
+    public void dense() {
+        example.clear();
+        example.addToNamespaceDense('a', baseIndex, values);
+        example.setLabel(1);
+        example.learn();
+    }
+
+    /**
+     * A caller holding float values that passes them as <code>double[]</code>, the only option before the float
+     * overloads.
+     */
+    @Benchmark
+    public void denseWidened() {
+        example.clear();
+        double[] widened = new double[floatValues.length];
+        for (int i = 0; i < widened.length; ++i) {
+            widened[i] = floatValues[i];
+        }
+        example.addToNamespaceDense('a', baseIndex, widened);
+        example.setLabel(1);
+        example.learn();
+    }
+
+    @Benchmark
+    public void sparse() {
+        example.clear();
+        example.addToNamespaceSparse('a', indices, values);
+        example.setLabel(1);
+        example.learn();
+    }
+
+    @Benchmark
+    public void denseFloat() {
+        example.clear();
+        example.addToNamespaceDense('a', baseIndex, floatValues);
+        example.setLabel(1);
+        example.learn();
+    }
+
+    @Benchmark
+    public void denseFloatBuffer() {
+        example.clear();
+        example.addToNamespaceDense('a', baseIndex, floatBuffer);
+        example.setLabel(1);
+        example.learn();
+    }
+
+    @Benchmark
+    public void sparseFloat() {
+        example.clear();
+        example.addToNamespaceSparse('a', indices, floatValues);
+        example.setLabel(1);
+        example.learn();
+    }
+
+    @Benchmark
+    public void sparseDirectBuffers() {
+        example.clear();
+        example.addToNamespaceSparse('a', indexBuffer, floatBuffer);
+        example.setLabel(1);
+        example.learn();
+    }
+
+    @Benchmark
+    public void sparseNewExample() {
+        VowpalWabbitExample newExample = vw.createExample();
+        newExample.addToNamespaceSparse('a', indices, floatValues);
+        newExample.setLabel(1);
+        newExample.learn();
+        newExample.close();
+    }
+
+    @Benchmark
+    public void sparsePooledExample() {
+        VowpalWabbitExample pooled = pool.acquire();
+        pooled.addToNamespaceSparse('a', indices, floatValues);
+        pooled.setLabel(1);
+        pooled.learn();
+        pool.release(pooled);
+    }
+}
@@ -1,7 +1,10 @@
 #include "vw.h"
 #include "vw_exception.h"
+#include "parse_example.h"
+#include "parser.h"
 
 #include "jni_base_learner.h"
+#include "jni_cache.h"
 
 example* read_example(JNIEnv* env, jstring example_string, vw* vwInstance)
 {
@@ -18,3 +21,121 @@ example* read_example(const char* example_string, vw* vwInstance)
 {
   return VW::read_example(*vwInstance, example_string);
 }
+
+example* read_example(const char* bytes, size_t length, size_t available, vw* vwInstance)
+{
+  // The text parser scans numbers until it finds a delimiter and can look one byte past the end of the line.  A line
+  // that is followed by a newline or NUL inside the buffer can therefore be parsed in place.  Anything else (typically
+  // the last line of a buffer) is copied once so that it is NUL terminated.
+  bool terminated = (length > 0 && bytes[length - 1] == '\n') ||
+      (length < available && (bytes[length] == '\n' || bytes[length] == '\0'));
+  if (!terminated)
+    return VW::read_example(*vwInstance, std::string(bytes, length));
+
+  example* ex = &VW::get_unused_example(vwInstance);
+  VW::read_line(*vwInstance, ex, VW::string_view(bytes, length));
+  VW::setup_example(*vwInstance, ex);
+  vwInstance->p->end_parsed_examples++;
+
+  return ex;
+}
+
+char* get_direct_buffer(JNIEnv* env, jobject buffer, jlong& capacity)
+{
+  char* address = (char*)env->GetDirectBufferAddress(buffer);
+  if (address == nullptr)
+  {
+    throw_java_exception(env, "java/lang/IllegalArgumentException", "Examples must be stored in a direct ByteBuffer.");
+    return nullptr;
+  }
+  capacity = env->GetDirectBufferCapacity(buffer);
+  return address;
+}
+
+void throw_batch_exception(JNIEnv* env, jint failed_index, jobject predictions)
+{
+  jthrowable cause = env->ExceptionOccurred();
+  env->ExceptionClear();
+  jobject batch_exception = env->NewObject(
+      JNI_CACHE.batch_exception_class, JNI_CACHE.batch_exception_ctor, failed_index, predictions, cause);
+  // if the exception can't be allocated the pending OutOfMemoryError is thrown instead
+  if (batch_exception != nullptr)
+    env->Throw((jthrowable)batch_exception);
+  env->DeleteLocalRef(cause);
+}
+
+template <typename T>
+size_t capacity_bytes(const v_array<T>& a)
+{
+  return (a.end_array - a.begin()) * sizeof(T);
+}
+
+jobject new_native_memory_stats(JNIEnv* env, vw* vwInstance)
+{
+  parameters& weights = vwInstance->weights;
+  size_t weights_bytes = 0;
+  // seeded instances share the weights of the instance they were seeded from, which accounts for them.  Sparse
+  // weights are left out: the stats are read by monitoring threads while other threads learn, and the hash map of
+  // sparse weights can't be inspected while it is being inserted into.
+  if (!weights.seeded() && !weights.sparse)
+    weights_bytes = (weights.mask() + 1) * sizeof(weight);
+
+  parser* p = vwInstance->p;
+  size_t example_pool_bytes = p->example_pool.size() * sizeof(example);
+  size_t parser_bytes = capacity_bytes(p->words) + capacity_bytes(p->parse_name);
+  if (p->input != nullptr)
+    parser_bytes += capacity_bytes(p->input->space);
+  if (p->output != nullptr)
+    parser_bytes += capacity_bytes(p->output->space);
+
+  return env->NewObject(JNI_CACHE.native_memory_stats_class, JNI_CACHE.native_memory_stats_ctor,
+      (jlong)weights_bytes, (jlong)example_pool_bytes, (jlong)parser_bytes);
+}
+
+jint copy_values(JNIEnv* env, const float* values, size_t num_values, jfloatArray out)
+{
+  jsize count = std::min((jsize)num_values, env->GetArrayLength(out));
+  env->SetFloatArrayRegion(out, 0, count, values);
+  return (jint)num_values;
+}
+
+jint copy_values(JNIEnv* env, const uint32_t* values, size_t num_values, jintArray out)
+{
+  jsize count = std::min((jsize)num_values, env->GetArrayLength(out));
+  env->SetIntArrayRegion(out, 0, count, (const jint*)values);
+  return (jint)num_values;
+}
+
+jint copy_action_scores(JNIEnv* env, const ACTION_SCORE::action_scores& a_s, jobject out)
+{
+  jsize num_values = (jsize)a_s.size();
+  jintArray j_actions = (jintArray)env->GetObjectField(out, JNI_CACHE.action_scores_buffer_actions);
+  jfloatArray j_scores = (jfloatArray)env->GetObjectField(out, JNI_CACHE.action_scores_buffer_scores);
+  if (env->GetArrayLength(j_actions) < num_values || env->GetArrayLength(j_scores) < num_values)
+  {
+    j_actions = env->NewIntArray(num_values);
+    j_scores = env->NewFloatArray(num_values);
+    if (j_actions == nullptr || j_scores == nullptr)
+      return 0;
+    env->SetObjectField(out, JNI_CACHE.action_scores_buffer_actions, j_actions);
+    env->SetObjectField(out, JNI_CACHE.action_scores_buffer_scores, j_scores);
+  }
+
+  // action_score interleaves actions and scores, split them into scratch space that is reused across calls
+  static thread_local std::vector<jint> actions;
+  static thread_local std::vector<jfloat> scores;
+  actions.resize(num_values);
+  scores.resize(num_values);
+  for (jsize i = 0; i < num_values; ++i)
+  {
+    actions[i] = a_s[i].action;
+    scores[i] = a_s[i].score;
+  }
+  env->SetIntArrayRegion(j_actions, 0, num_values, actions.data());
+  env->SetFloatArrayRegion(j_scores, 0, num_values, scores.data());
+  env->SetIntField(out, JNI_CACHE.action_scores_buffer_length, num_values);
+
+  env->DeleteLocalRef(j_actions);
+  env->DeleteLocalRef(j_scores);
+  return num_values;
+}
@@ -3,10 +3,48 @@
 
 #include <jni.h>
 #include <functional>
+#include <algorithm>
+#include <vector>
 #include "util.h"
 
 example* read_example(JNIEnv* env, jstring example_string, vw* vwInstance);
 example* read_example(const char* example_string, vw* vwInstance);
+example* read_example(const char* bytes, size_t length, size_t available, vw* vwInstance);
+
+// Returns the address of a direct buffer and its capacity in bytes.  If the buffer isn't direct an
+// IllegalArgumentException is thrown and nullptr is returned.
+char* get_direct_buffer(JNIEnv* env, jobject buffer, jlong& capacity);
+
+// Replaces the pending exception with a vowpalWabbit.learner.VWBatchException recording that example failed_index of
+// a batch failed.  predictions holds the predictions of the examples before it, which have been processed.
+void throw_batch_exception(JNIEnv* env, jint failed_index, jobject predictions);
+
+// Creates a vowpalWabbit.NativeMemoryStats describing the native memory used by vwInstance.
+jobject new_native_memory_stats(JNIEnv* env, vw* vwInstance);
+
+// Copies the actions and scores of a prediction into the int[] and float[] of an ActionScoresBuffer, replacing the
+// arrays only if they are too small.  Returns the number of actions.
+jint copy_action_scores(JNIEnv* env, const ACTION_SCORE::action_scores& a_s, jobject out);
+
+// Copies as many values as fit into a caller supplied Java array.  Returns the total number of values so that the
+// caller can tell whether the array was large enough.
+jint copy_values(JNIEnv* env, const float* values, size_t num_values, jfloatArray out);
+jint copy_values(JNIEnv* env, const uint32_t* values, size_t num_values, jintArray out);
+
+// Copies as many values as fit into the elements [position, position + length) of a caller supplied direct
+// FloatBuffer/IntBuffer in native byte order.  Returns the total number of values.
+template <typename V>
+jint copy_values(JNIEnv* env, const V* values, size_t num_values, jobject out, jint position, jint length)
+{
+  V* address = (V*)env->GetDirectBufferAddress(out);
+  if (address == nullptr)
+  {
+    throw_java_exception(env, "java/lang/IllegalArgumentException", "Output must be a direct buffer.");
+    return 0;
+  }
+  std::copy(values, values + std::min(num_values, (size_t)length), address + position);
+  return (jint)num_values;
+}
 
 // It would appear that after reading posts like
 // http://stackoverflow.com/questions/6458612/c0x-proper-way-to-receive-a-lambda-as-parameter-by-reference
@@ -46,22 +84,10 @@ T base_predict(JNIEnv* env, jstring example_string, jboolean learn, jlong vwPtr,
 }
 
 template <typename T, typename F>
-T base_predict(JNIEnv* env, jobjectArray example_strings, jboolean learn, jlong vwPtr, const F& predictor)
+T base_predict(JNIEnv* env, multi_ex& ex_coll, jboolean learn, vw* vwInstance, const F& predictor)
 {
-  vw* vwInstance = (vw*)vwPtr;
-  int example_count = env->GetArrayLength(example_strings);
-  multi_ex ex_coll;  // When doing multiline prediction the final result is stored in the FIRST example parsed.
-  example* first_example = NULL;
-  for (int i = 0; i < example_count; i++)
-  {
-    jstring example_string = (jstring)(env->GetObjectArrayElement(example_strings, i));
-    example* ex = read_example(env, example_string, vwInstance);
-    ex_coll.push_back(ex);
-    if (i == 0)
-      first_example = ex;
-  }
-  env->DeleteLocalRef(example_strings);
-
+  // When doing multiline prediction the final result is stored in the FIRST example parsed.
+  example* first_example = ex_coll.empty() ? NULL : ex_coll[0];
   try
   {
     if (learn)
@@ -79,4 +105,215 @@ T base_predict(JNIEnv* env, jobjectArray example_strings, jboolean learn, jlong
   return predictor(first_example, env);
 }
 
+template <typename T, typename F>
+T base_predict(JNIEnv* env, jobjectArray example_strings, jboolean learn, jlong vwPtr, const F& predictor)
+{
+  vw* vwInstance = (vw*)vwPtr;
+  int example_count = env->GetArrayLength(example_strings);
+  multi_ex ex_coll;
+  for (int i = 0; i < example_count; i++)
+  {
+    jstring example_string = (jstring)(env->GetObjectArrayElement(example_strings, i));
+    ex_coll.push_back(read_example(env, example_string, vwInstance));
+  }
+  env->DeleteLocalRef(example_strings);
+
+  return base_predict<T>(env, ex_coll, learn, vwInstance, predictor);
+}
+
+// Learns from or predicts the UTF-8 encoded example stored in bytes [position, position + length) of a direct
+// ByteBuffer.  The example is parsed straight out of the buffer's memory.
+template <typename T, typename F>
+T base_predict_buffer(
+    JNIEnv* env, jobject buffer, jint position, jint length, jboolean learn, jlong vwPtr, const F& predictor)
+{
+  jlong capacity;
+  char* address = get_direct_buffer(env, buffer, capacity);
+  if (address == nullptr)
+    return 0;
+
+  vw* vwInstance = (vw*)vwPtr;
+  example* ex = read_example(address + position, length, capacity - position, vwInstance);
+  return base_predict<T>(env, ex, learn, vwInstance, predictor, true);
+}
+
+// Multiline variant of base_predict_buffer.  Line i of the example is stored in bytes
+// [position + offsets[i], position + offsets[i + 1]) of the direct ByteBuffer.
+template <typename T, typename F>
+T base_predict_multiline_buffer(
+    JNIEnv* env, jobject buffer, jint position, jintArray offsets, jboolean learn, jlong vwPtr, const F& predictor)
+{
+  jlong capacity;
+  char* address = get_direct_buffer(env, buffer, capacity);
+  if (address == nullptr)
+    return 0;
+
+  std::vector<jint> bounds(env->GetArrayLength(offsets));
+  env->GetIntArrayRegion(offsets, 0, bounds.size(), bounds.data());
+
+  vw* vwInstance = (vw*)vwPtr;
+  multi_ex ex_coll;
+  for (size_t i = 0; i + 1 < bounds.size(); i++)
+  {
+    jlong start = position + bounds[i];
+    ex_coll.push_back(read_example(address + start, bounds[i + 1] - bounds[i], capacity - start, vwInstance));
+  }
+
+  return base_predict<T>(env, ex_coll, learn, vwInstance, predictor);
+}
+
+// Learns from or predicts a multiline example packed into one newline delimited run of UTF-8 bytes.  The lines are
+// split and parsed in place, empty lines are skipped.
+template <typename T, typename F>
+T base_predict_packed(JNIEnv* env, const char* bytes, size_t length, size_t available, jboolean learn,
+    vw* vwInstance, const F& predictor)
+{
+  multi_ex ex_coll;
+  const char* end = bytes + length;
+  for (const char* line = bytes; line < end;)
+  {
+    const char* eol = std::find(line, end, '\n');
+    if (eol > line)
+      ex_coll.push_back(read_example(line, eol - line, available - (line - bytes), vwInstance));
+    line = eol + 1;
+  }
+
+  if (ex_coll.empty())
+  {
+    throw_java_exception(env, "java/lang/IllegalArgumentException", "The packed example doesn't contain any lines.");
+    return 0;
+  }
+  return base_predict<T>(env, ex_coll, learn, vwInstance, predictor);
+}
+
+template <typename T, typename F>
+T base_predict_packed(JNIEnv* env, jstring examples, jboolean learn, jlong vwPtr, const F& predictor)
+{
+  // the modified UTF-8 returned by the JVM is NUL terminated, which lets the last line be parsed in place as well
+  const char* utf_string = env->GetStringUTFChars(examples, NULL);
+  if (utf_string == nullptr)
+    return 0;
+
+  size_t length = env->GetStringUTFLength(examples);
+  T result = base_predict_packed<T>(env, utf_string, length, length + 1, learn, (vw*)vwPtr, predictor);
+  env->ReleaseStringUTFChars(examples, utf_string);
+  return result;
+}
+
+template <typename T, typename F>
+T base_predict_packed_buffer(
+    JNIEnv* env, jobject buffer, jint position, jint length, jboolean learn, jlong vwPtr, const F& predictor)
+{
+  jlong capacity;
+  char* address = get_direct_buffer(env, buffer, capacity);
+  if (address == nullptr)
+    return 0;
+
+  return base_predict_packed<T>(env, address + position, length, capacity - position, learn, (vw*)vwPtr, predictor);
+}
+
+// Learns from or predicts a batch of single line examples within one JNI call.  The prediction of example i is
+// stored in results[i].  Processing stops at the first failure so that the pending Java exception isn't masked.
+// Returns the number of examples processed before the failure, the size of the batch if there was none.
+template <typename T, typename F>
+jsize base_predict_batch(JNIEnv* env, jobjectArray example_strings, jboolean learn, jlong vwPtr, const F& predictor,
+    T* results)
+{
+  vw* vwInstance = (vw*)vwPtr;
+  jsize example_count = env->GetArrayLength(example_strings);
+  for (jsize i = 0; i < example_count; i++)
+  {
+    jstring example_string = (jstring)(env->GetObjectArrayElement(example_strings, i));
+    example* ex = read_example(env, example_string, vwInstance);
+    results[i] = base_predict<T>(env, ex, learn, vwInstance, predictor, true);
+    if (env->ExceptionCheck())
+      return i;
+  }
+  return example_count;
+}
+
+template <typename F>
+jfloatArray base_predict_float_batch(
+    JNIEnv* env, jobjectArray example_strings, jboolean learn, jlong vwPtr, const F& predictor)
+{
+  std::vector<jfloat> results(env->GetArrayLength(example_strings));
+  jsize processed = base_predict_batch(env, example_strings, learn, vwPtr, predictor, results.data());
+  if (processed < (jsize)results.size())
+  {
+    // the Java array can only be allocated once the exception is cleared
+    jthrowable cause = env->ExceptionOccurred();
+    env->ExceptionClear();
+    jfloatArray j_results = env->NewFloatArray(results.size());
+    if (j_results == nullptr)
+      return nullptr;  // OutOfMemoryError pending
+    env->SetFloatArrayRegion(j_results, 0, processed, results.data());
+    env->Throw(cause);
+    throw_batch_exception(env, processed, j_results);
+    return nullptr;
+  }
+
+  jfloatArray j_results = env->NewFloatArray(results.size());
+  if (j_results != nullptr)
+    env->SetFloatArrayRegion(j_results, 0, results.size(), results.data());
+  return j_results;
+}
+
+template <typename F>
+jintArray base_predict_int_batch(
+    JNIEnv* env, jobjectArray example_strings, jboolean learn, jlong vwPtr, const F& predictor)
+{
+  std::vector<jint> results(env->GetArrayLength(example_strings));
+  jsize processed = base_predict_batch(env, example_strings, learn, vwPtr, predictor, results.data());
+  if (processed < (jsize)results.size())
+  {
+    // the Java array can only be allocated once the exception is cleared
+    jthrowable cause = env->ExceptionOccurred();
+    env->ExceptionClear();
+    jintArray j_results = env->NewIntArray(results.size());
+    if (j_results == nullptr)
+      return nullptr;  // OutOfMemoryError pending
+    env->SetIntArrayRegion(j_results, 0, processed, results.data());
+    env->Throw(cause);
+    throw_batch_exception(env, processed, j_results);
+    return nullptr;
+  }
+
+  jintArray j_results = env->NewIntArray(results.size());
+  if (j_results != nullptr)
+    env->SetIntArrayRegion(j_results, 0, results.size(), results.data());
+  return j_results;
+}
+
+template <typename F>
+jobjectArray base_predict_object_batch(JNIEnv* env, jobjectArray example_strings, jboolean learn, jlong vwPtr,
+    const F& predictor, jclass result_class)
+{
+  vw* vwInstance = (vw*)vwPtr;
+  int example_count = env->GetArrayLength(example_strings);
+  jobjectArray j_results = env->NewObjectArray(example_count, result_class, nullptr);
+  if (j_results == nullptr)
+    return nullptr;
+
+  for (int i = 0; i < example_count; i++)
+  {
+    // predictors create several local references per call which would otherwise pile up over the whole batch
+    if (env->PushLocalFrame(16) != 0)
+      return nullptr;
+
+    jstring example_string = (jstring)(env->GetObjectArrayElement(example_strings, i));
+    example* ex = read_example(env, example_string, vwInstance);
+    jobject result = base_predict<jobject>(env, ex, learn, vwInstance, predictor, true);
+    if (!env->ExceptionCheck())
+      env->SetObjectArrayElement(j_results, i, result);
+
+    env->PopLocalFrame(nullptr);
+    if (env->ExceptionCheck())
+    {
+      throw_batch_exception(env, i, j_results);
+      return nullptr;
+    }
+  }
+  return j_results;
+}
+
 #endif  // VW_BASE_LEARNER_H
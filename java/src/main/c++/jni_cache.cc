@@ -0,0 +1,114 @@
+#include "jni_cache.h"
+
+jni_cache JNI_CACHE;
+
+namespace
+{
+// Resolves a class and promotes it to a global reference so it can be used across calls and threads.
+bool find_class(JNIEnv* env, const char* name, jclass& clazz)
+{
+  jclass local = env->FindClass(name);
+  if (local == nullptr)
+    return false;
+
+  clazz = (jclass)env->NewGlobalRef(local);
+  env->DeleteLocalRef(local);
+  return clazz != nullptr;
+}
+
+bool find_class(JNIEnv* env, const char* name, jclass& clazz, const char* ctor_signature, jmethodID& ctor)
+{
+  if (!find_class(env, name, clazz))
+    return false;
+
+  ctor = env->GetMethodID(clazz, "<init>", ctor_signature);
+  return ctor != nullptr;
+}
+
+// Field IDs stay valid as long as the class is loaded, no global reference is needed for the class itself.
+bool find_field(JNIEnv* env, const char* name, const char* field_name, const char* signature, jfieldID& field)
+{
+  jclass local = env->FindClass(name);
+  if (local == nullptr)
+    return false;
+
+  field = env->GetFieldID(local, field_name, signature);
+  env->DeleteLocalRef(local);
+  return field != nullptr;
+}
+
+#define RETURN_TYPE_INSTANCE "LvowpalWabbit/learner/VWLearners$VWReturnType;"
+
+bool find_return_type(JNIEnv* env, const char* name, jfieldID& field)
+{
+  field = env->GetStaticFieldID(JNI_CACHE.return_type_class, name, RETURN_TYPE_INSTANCE);
+  return field != nullptr;
+}
+
+bool init_cache(JNIEnv* env)
+{
+  jni_cache& c = JNI_CACHE;
+  return find_class(env, "vowpalWabbit/NativeMemoryStats", c.native_memory_stats_class, "(JJJ)V",
+             c.native_memory_stats_ctor) &&
+      find_class(env, "vowpalWabbit/responses/ActionScore", c.action_score_class, "(IF)V", c.action_score_ctor) &&
+      find_class(env, "vowpalWabbit/responses/ActionScores", c.action_scores_class,
+          "([LvowpalWabbit/responses/ActionScore;)V", c.action_scores_ctor) &&
+      find_class(env, "vowpalWabbit/responses/ActionProb", c.action_prob_class, "(IF)V", c.action_prob_ctor) &&
+      find_class(env, "vowpalWabbit/responses/ActionProbs", c.action_probs_class,
+          "([LvowpalWabbit/responses/ActionProb;)V", c.action_probs_ctor) &&
+      find_class(env, "vowpalWabbit/responses/Multilabels", c.multilabels_class, "([I)V", c.multilabels_ctor) &&
+      find_class(env, "[F", c.float_array_class) &&
+      find_field(env, "vowpalWabbit/responses/ActionScoresBuffer", "actions", "[I", c.action_scores_buffer_actions) &&
+      find_field(env, "vowpalWabbit/responses/ActionScoresBuffer", "scores", "[F", c.action_scores_buffer_scores) &&
+      find_field(env, "vowpalWabbit/responses/ActionScoresBuffer", "length", "I", c.action_scores_buffer_length) &&
+      find_class(env, "vowpalWabbit/learner/VWBatchException", c.batch_exception_class,
+          "(ILjava/lang/Object;Ljava/lang/Throwable;)V", c.batch_exception_ctor) &&
+      find_class(env, "vowpalWabbit/learner/VWLearners$VWReturnType", c.return_type_class) &&
+      find_return_type(env, "Unknown", c.return_type_unknown) &&
+      find_return_type(env, "ActionProbs", c.return_type_action_probs) &&
+      find_return_type(env, "ActionScores", c.return_type_action_scores) &&
+      find_return_type(env, "Multiclass", c.return_type_multiclass) &&
+      find_return_type(env, "Multilabels", c.return_type_multilabels) &&
+      find_return_type(env, "Prob", c.return_type_prob) && find_return_type(env, "Scalar", c.return_type_scalar) &&
+      find_return_type(env, "Scalars", c.return_type_scalars) &&
+      find_class(env, "org/vowpalwabbit/spark/VowpalWabbitArguments", c.arguments_class, "(IILjava/lang/String;DD)V",
+          c.arguments_ctor) &&
+      find_class(env, "org/vowpalwabbit/spark/VowpalWabbitPerformanceStatistics", c.performance_statistics_class,
+          "(JDDDFFJ)V", c.performance_statistics_ctor) &&
+      find_class(env, "org/vowpalwabbit/spark/prediction/ScalarPrediction", c.scalar_prediction_class, "(FF)V",
+          c.scalar_prediction_ctor) &&
+      find_class(env, "java/lang/Float", c.float_class, "(F)V", c.float_ctor) &&
+      find_class(env, "java/lang/Integer", c.integer_class, "(I)V", c.integer_ctor) &&
+      find_field(env, "org/vowpalwabbit/spark/VowpalWabbitExample", "nativePointer", "J", c.example_native_pointer);
+}
+}  // namespace
+
+JNIEXPORT jint JNICALL JNI_OnLoad(JavaVM* vm, void* reserved)
+{
+  JNIEnv* env;
+  if (vm->GetEnv((void**)&env, JNI_VERSION_1_6) != JNI_OK)
+    return JNI_ERR;
+
+  // a pending NoClassDefFoundError/NoSuchMethodError fails the library load
+  if (!init_cache(env))
+    return JNI_ERR;
+
+  return JNI_VERSION_1_6;
+}
+
+JNIEXPORT void JNICALL JNI_OnUnload(JavaVM* vm, void* reserved)
+{
+  JNIEnv* env;
+  if (vm->GetEnv((void**)&env, JNI_VERSION_1_6) != JNI_OK)
+    return;
+
+  jni_cache& c = JNI_CACHE;
+  jclass classes[] = {c.native_memory_stats_class, c.action_score_class, c.action_scores_class, c.action_prob_class, c.action_probs_class,
+      c.multilabels_class, c.float_array_class, c.batch_exception_class, c.return_type_class, c.arguments_class,
+      c.performance_statistics_class, c.scalar_prediction_class, c.float_class, c.integer_class};
+  for (jclass clazz : classes)
+    if (clazz != nullptr)
+      env->DeleteGlobalRef(clazz);
+
+  c = jni_cache();
+}
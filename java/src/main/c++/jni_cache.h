@@ -0,0 +1,64 @@
+#ifndef VW_JNI_CACHE_H
+#define VW_JNI_CACHE_H
+
+#include <jni.h>
+
+// Global class references and method/field IDs used on the prediction path.  FindClass and GetMethodID are far
+// from free, so they are resolved exactly once when the library is loaded (see JNI_OnLoad) instead of on every call.
+struct jni_cache
+{
+  // vowpalWabbit
+  jclass native_memory_stats_class;
+  jmethodID native_memory_stats_ctor;
+
+  // vowpalWabbit.responses
+  jclass action_score_class;
+  jmethodID action_score_ctor;
+  jclass action_scores_class;
+  jmethodID action_scores_ctor;
+  jclass action_prob_class;
+  jmethodID action_prob_ctor;
+  jclass action_probs_class;
+  jmethodID action_probs_ctor;
+  jclass multilabels_class;
+  jmethodID multilabels_ctor;
+  jclass float_array_class;
+  jfieldID action_scores_buffer_actions;
+  jfieldID action_scores_buffer_scores;
+  jfieldID action_scores_buffer_length;
+
+  // vowpalWabbit.learner
+  jclass batch_exception_class;
+  jmethodID batch_exception_ctor;
+
+  // vowpalWabbit.learner.VWLearners$VWReturnType
+  jclass return_type_class;
+  jfieldID return_type_unknown;
+  jfieldID return_type_action_probs;
+  jfieldID return_type_action_scores;
+  jfieldID return_type_multiclass;
+  jfieldID return_type_multilabels;
+  jfieldID return_type_prob;
+  jfieldID return_type_scalar;
+  jfieldID return_type_scalars;
+
+  // org.vowpalwabbit.spark
+  jclass arguments_class;
+  jmethodID arguments_ctor;
+  jclass performance_statistics_class;
+  jmethodID performance_statistics_ctor;
+  jclass scalar_prediction_class;
+  jmethodID scalar_prediction_ctor;
+  jfieldID example_native_pointer;
+
+  // java.lang
+  jclass float_class;
+  jmethodID float_ctor;
+  jclass integer_class;
+  jmethodID integer_ctor;
+};
+
+// Only valid once the library has been loaded by the JVM.
+extern jni_cache JNI_CACHE;
+
+#endif  // VW_JNI_CACHE_H
@@ -2,9 +2,12 @@
 #include "vw_exception.h"
 #include "best_constant.h"
 #include "util.h"
+#include "jni_cache.h"
+#include "jni_base_learner.h"
 #include "options_serializer_boost_po.h"
 #include <algorithm>
 #include <exception>
+#include <vector>
 
 // Java JNI exception check (if another JNI function is invoked it segfauls)
 #define CHECK_JNI_EXCEPTION(ret) \
@@ -145,13 +148,7 @@ JNIEXPORT jobject JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_getArgu
   jstring args = env->NewStringUTF(serializer.str().c_str());
   CHECK_JNI_EXCEPTION(nullptr);
 
-  jclass clazz = env->FindClass("org/vowpalwabbit/spark/VowpalWabbitArguments");
-  CHECK_JNI_EXCEPTION(nullptr);
-
-  jmethodID ctor = env->GetMethodID(clazz, "<init>", "(IILjava/lang/String;DD)V");
-  CHECK_JNI_EXCEPTION(nullptr);
-
-  return env->NewObject(clazz, ctor, all->num_bits, all->hash_seed, args, all->eta, all->power_t);
+  return env->NewObject(JNI_CACHE.arguments_class, JNI_CACHE.arguments_ctor, all->num_bits, all->hash_seed, args, all->eta, all->power_t);
 }
 
 JNIEXPORT jobject JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_getPerformanceStatistics(
@@ -188,16 +185,25 @@ JNIEXPORT jobject JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_getPerf
   get_best_constant(*all, bestConstant, bestConstantLoss);
   totalNumberOfFeatures = all->sd->total_features;
 
-  jclass clazz = env->FindClass("org/vowpalwabbit/spark/VowpalWabbitPerformanceStatistics");
-  CHECK_JNI_EXCEPTION(nullptr);
-
-  jmethodID ctor = env->GetMethodID(clazz, "<init>", "(JDDDFFJ)V");
-  CHECK_JNI_EXCEPTION(nullptr);
-
-  return env->NewObject(clazz, ctor, numberOfExamplesPerPass, weightedExampleSum, weightedLabelSum, averageLoss,
+  return env->NewObject(JNI_CACHE.performance_statistics_class, JNI_CACHE.performance_statistics_ctor,
+      numberOfExamplesPerPass, weightedExampleSum, weightedLabelSum, averageLoss,
       bestConstant, bestConstantLoss, totalNumberOfFeatures);
 }
 
+JNIEXPORT jobject JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_nativeMemoryStats(
+    JNIEnv* env, jclass, jlong vwPtr)
+{
+  try
+  {
+    return new_native_memory_stats(env, (vw*)vwPtr);
+  }
+  catch (...)
+  {
+    rethrow_cpp_exception_as_java_exception(env);
+    return nullptr;
+  }
+}
+
 JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_endPass(JNIEnv* env, jobject vwObj)
 {
   auto all = (vw*)get_native_pointer(env, vwObj);
@@ -220,9 +226,9 @@ JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_endPass(JN
   }
 }
 
-JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_finish(JNIEnv* env, jobject vwObj)
+JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_finish(JNIEnv* env, jclass, jlong vwPtr)
 {
-  auto all = (vw*)get_native_pointer(env, vwObj);
+  auto all = (vw*)vwPtr;
 
   try
   {
@@ -235,6 +241,104 @@ JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_finish(JNI
   }
 }
 
+// Returns the native example behind examples[i], or nullptr with a pending IllegalArgumentException if the element
+// is null, closed or was created by another VW instance.
+example* get_batch_example(JNIEnv* env, vw* all, jobjectArray examples, jsize i)
+{
+  jobject exampleObj = env->GetObjectArrayElement(examples, i);
+  if (exampleObj == nullptr)
+  {
+    throw_java_exception(env, "java/lang/IllegalArgumentException", "examples must not contain null.");
+    return nullptr;
+  }
+
+  auto exWrapper = (VowpalWabbitExampleWrapper*)env->GetLongField(exampleObj, JNI_CACHE.example_native_pointer);
+  env->DeleteLocalRef(exampleObj);
+  if (exWrapper == nullptr)
+  {
+    throw_java_exception(env, "java/lang/IllegalArgumentException", "examples must not be closed.");
+    return nullptr;
+  }
+  if (exWrapper->_all != all)
+  {
+    throw_java_exception(
+        env, "java/lang/IllegalArgumentException", "examples must be created by the VW instance they are used with.");
+    return nullptr;
+  }
+  return exWrapper->_example;
+}
+
+JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_learnBatch(
+    JNIEnv* env, jclass, jlong vwPtr, jobjectArray examples)
+{
+  auto all = (vw*)vwPtr;
+  jsize size = env->GetArrayLength(examples);
+
+  try
+  {
+    for (jsize i = 0; i < size; ++i)
+    {
+      example* ex = get_batch_example(env, all, examples, i);
+      if (ex == nullptr)
+        return;
+
+      VW::setup_example(*all, ex);
+      all->learn(*ex);
+
+      // as this is not a ring-based example it is not free'd
+      VW::LEARNER::as_singleline(all->l)->finish_example(*all, *ex);
+    }
+  }
+  catch (...)
+  {
+    rethrow_cpp_exception_as_java_exception(env);
+  }
+}
+
+JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_predictScalarsBatch(
+    JNIEnv* env, jclass, jlong vwPtr, jobjectArray examples, jfloatArray out)
+{
+  auto all = (vw*)vwPtr;
+  if (all->l->pred_type != prediction_type_t::scalar && all->l->pred_type != prediction_type_t::prob)
+  {
+    throw_java_exception(env, "java/lang/IllegalStateException",
+        (std::string("predictScalars requires a scalar or prob prediction type, found ") +
+            to_string(all->l->pred_type))
+            .c_str());
+    return;
+  }
+
+  jsize size = env->GetArrayLength(examples);
+
+  // scratch space that is reused across calls, copied into out with a single JNI call
+  static thread_local std::vector<jfloat> predictions;
+  predictions.resize(size);
+
+  try
+  {
+    for (jsize i = 0; i < size; ++i)
+    {
+      example* ex = get_batch_example(env, all, examples, i);
+      if (ex == nullptr)
+        return;
+
+      VW::setup_example(*all, ex);
+      all->predict(*ex);
+      predictions[i] = all->l->pred_type == prediction_type_t::prob ? ex->pred.prob : ex->pred.scalar;
+
+      // as this is not a ring-based example it is not free'd
+      VW::LEARNER::as_singleline(all->l)->finish_example(*all, *ex);
+    }
+  }
+  catch (...)
+  {
+    rethrow_cpp_exception_as_java_exception(env);
+    return;
+  }
+
+  env->SetFloatArrayRegion(out, 0, size, predictions.data());
+}
+
 JNIEXPORT jint JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_hash(
     JNIEnv* env, jclass, jbyteArray data, jint offset, jint len, jint seed)
 {
@@ -244,10 +348,35 @@ JNIEXPORT jint JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_hash(
   return (jint)uniform_hash(values0 + offset, len, seed);
 }
 
+JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_hashBatch(
+    JNIEnv* env, jclass, jbyteArray data, jintArray offsets, jint seed, jintArray out)
+{
+  jsize count = env->GetArrayLength(offsets) - 1;
+  if (count <= 0)
+    return;
+
+  // scratch space that is reused across calls, no JNI calls are allowed while data is pinned
+  static thread_local std::vector<jint> bounds;
+  static thread_local std::vector<jint> hashes;
+  bounds.resize(count + 1);
+  hashes.resize(count);
+  env->GetIntArrayRegion(offsets, 0, count + 1, bounds.data());
+
+  {
+    CriticalArrayGuard dataGuard(env, data);
+    const char* values0 = (const char*)dataGuard.data();
+
+    for (jsize i = 0; i < count; ++i)
+      hashes[i] = (jint)uniform_hash(values0 + bounds[i], bounds[i + 1] - bounds[i], seed);
+  }
+
+  env->SetIntArrayRegion(out, 0, count, hashes.data());
+}
+
 // VW Example
-#define INIT_VARS                                                                    \
-  auto exWrapper = (VowpalWabbitExampleWrapper*)get_native_pointer(env, exampleObj); \
-  vw* all = exWrapper->_all;                                                         \
+#define INIT_VARS                                                                                                \
+  auto exWrapper = (VowpalWabbitExampleWrapper*)env->GetLongField(exampleObj, JNI_CACHE.example_native_pointer); \
+  vw* all = exWrapper->_all;                                                                                     \
   example* ex = exWrapper->_example;
 
 JNIEXPORT jlong JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_initialize(
@@ -276,14 +405,17 @@ JNIEXPORT jlong JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_initiali
   }
 }
 
-JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_finish(JNIEnv* env, jobject exampleObj)
+JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_finish(JNIEnv* env, jclass, jlong exPtr)
 {
-  INIT_VARS
+  auto exWrapper = (VowpalWabbitExampleWrapper*)exPtr;
+  vw* all = exWrapper->_all;
+  example* ex = exWrapper->_example;
 
   try
   {
     VW::dealloc_example(all->p->lp.delete_label, *ex);
     ::free_it(ex);
+    delete exWrapper;
   }
   catch (...)
   {
@@ -314,6 +446,72 @@ void addNamespaceIfNotExists(vw* all, example* ex, char ns)
   }
 }
 
+// Makes room for count more elements.  v_array::resize reallocates whenever the capacity differs from the requested
+// length, shrinking as well as growing, so only grow, and geometrically, to let a cleared example keep its buffers
+// across rows with different feature counts.
+template <typename T>
+void reserve_more(v_array<T>& v, size_t count)
+{
+  size_t needed = v.size() + count;
+  size_t capacity = v.end_array - v.begin();
+  if (capacity < needed)
+    v.resize(std::max(needed, 2 * capacity));
+}
+
+// Appends the non-zero values to the namespace, V is the element type of the Java side (double or float).
+template <typename V>
+void addDense(vw* all, example* ex, char ns, jint weight_index_base, const V* values, int size)
+{
+  addNamespaceIfNotExists(all, ex, ns);
+
+  auto features = ex->feature_space.data() + (namespace_index)ns;
+  int mask = (1 << all->num_bits) - 1;
+
+  // pre-allocate
+  reserve_more(features->values, size);
+  reserve_more(features->indicies, size);
+
+  const V* values_itr = values;
+  const V* values_end = values + size;
+  for (; values_itr != values_end; ++values_itr, ++weight_index_base)
+  {
+    float x = (float)*values_itr;
+    if (x != 0)
+    {
+      features->values.push_back_unchecked(x);
+      features->indicies.push_back_unchecked(weight_index_base & mask);
+      features->sum_feat_sq += x * x;
+    }
+  }
+}
+
+template <typename V>
+void addSparse(vw* all, example* ex, char ns, const jint* indices, const V* values, int size)
+{
+  addNamespaceIfNotExists(all, ex, ns);
+
+  auto features = ex->feature_space.data() + (namespace_index)ns;
+  int mask = (1 << all->num_bits) - 1;
+
+  // pre-allocate
+  reserve_more(features->values, size);
+  reserve_more(features->indicies, size);
+
+  const jint* indices_itr = indices;
+  const jint* indices_end = indices + size;
+  const V* values_itr = values;
+  for (; indices_itr != indices_end; ++indices_itr, ++values_itr)
+  {
+    float x = (float)*values_itr;
+    if (x != 0)
+    {
+      features->values.push_back_unchecked(x);
+      features->indicies.push_back_unchecked(*indices_itr & mask);
+      features->sum_feat_sq += x * x;
+    }
+  }
+}
+
 JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_addToNamespaceDense(
     JNIEnv* env, jobject exampleObj, jchar ns, jint weight_index_base, jdoubleArray values)
 {
@@ -321,31 +519,64 @@ JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_addToName
 
   try
   {
-    addNamespaceIfNotExists(all, ex, ns);
+    int size = env->GetArrayLength(values);
 
-    auto features = ex->feature_space.data() + ns;
+    CriticalArrayGuard valuesGuard(env, values);
+    addDense(all, ex, ns, weight_index_base, (jdouble*)valuesGuard.data(), size);
+  }
+  catch (...)
+  {
+    rethrow_cpp_exception_as_java_exception(env);
+  }
+}
+
+JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_addToNamespaceSparse(
+    JNIEnv* env, jobject exampleObj, jchar ns, jintArray indices, jdoubleArray values)
+{
+  INIT_VARS
 
+  try
+  {
+    int size = env->GetArrayLength(indices);
+
+    CriticalArrayGuard indicesGuard(env, indices);
     CriticalArrayGuard valuesGuard(env, values);
-    double* values0 = (double*)valuesGuard.data();
+    addSparse(all, ex, ns, (jint*)indicesGuard.data(), (jdouble*)valuesGuard.data(), size);
+  }
+  catch (...)
+  {
+    rethrow_cpp_exception_as_java_exception(env);
+  }
+}
 
-    int size = env->GetArrayLength(values);
-    int mask = (1 << all->num_bits) - 1;
+JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_addToNamespaceDenseFloats(
+    JNIEnv* env, jobject exampleObj, jchar ns, jint weight_index_base, jfloatArray values, jint offset, jint length)
+{
+  INIT_VARS
 
-    // pre-allocate
-    features->values.resize(features->values.end() - features->values.begin() + size);
-    features->indicies.resize(features->indicies.end() - features->indicies.begin() + size);
+  try
+  {
+    CriticalArrayGuard valuesGuard(env, values);
+    addDense(all, ex, ns, weight_index_base, (jfloat*)valuesGuard.data() + offset, length);
+  }
+  catch (...)
+  {
+    rethrow_cpp_exception_as_java_exception(env);
+  }
+}
 
-    double* values_itr = values0;
-    double* values_end = values0 + size;
-    for (; values_itr != values_end; ++values_itr, ++weight_index_base)
-    {
-      float x = *values_itr;
-      if (x != 0)
-      {
-        features->values.push_back_unchecked(x);
-        features->indicies.push_back_unchecked(weight_index_base & mask);
-      }
-    }
+JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_addToNamespaceSparseFloats(
+    JNIEnv* env, jobject exampleObj, jchar ns, jintArray indices, jfloatArray values)
+{
+  INIT_VARS
+
+  try
+  {
+    int size = env->GetArrayLength(indices);
+
+    CriticalArrayGuard indicesGuard(env, indices);
+    CriticalArrayGuard valuesGuard(env, values);
+    addSparse(all, ex, ns, (jint*)indicesGuard.data(), (jfloat*)valuesGuard.data(), size);
   }
   catch (...)
   {
@@ -353,16 +584,59 @@ JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_addToName
   }
 }
 
-JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_addToNamespaceSparse(
-    JNIEnv* env, jobject exampleObj, jchar ns, jintArray indices, jdoubleArray values)
+JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_addToNamespaceDenseBuffer(
+    JNIEnv* env, jobject exampleObj, jchar ns, jint weight_index_base, jobject values, jint position, jint length)
 {
   INIT_VARS
 
   try
   {
-    addNamespaceIfNotExists(all, ex, ns);
+    // the buffer is checked to be direct and in native byte order on the Java side
+    jfloat* values0 = (jfloat*)env->GetDirectBufferAddress(values);
+    addDense(all, ex, ns, weight_index_base, values0 + position, length);
+  }
+  catch (...)
+  {
+    rethrow_cpp_exception_as_java_exception(env);
+  }
+}
 
-    auto features = ex->feature_space.data() + ns;
+JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_addToNamespaceSparseBuffer(JNIEnv* env,
+    jobject exampleObj, jchar ns, jobject indices, jint indices_position, jobject values, jint values_position,
+    jint length)
+{
+  INIT_VARS
+
+  try
+  {
+    // the buffers are checked to be direct and in native byte order on the Java side, unlike arrays they are read
+    // without entering a critical region so the GC is never blocked
+    jint* indices0 = (jint*)env->GetDirectBufferAddress(indices);
+    jfloat* values0 = (jfloat*)env->GetDirectBufferAddress(values);
+    addSparse(all, ex, ns, indices0 + indices_position, values0 + values_position, length);
+  }
+  catch (...)
+  {
+    rethrow_cpp_exception_as_java_exception(env);
+  }
+}
+
+JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_addToNamespacesSparse(
+    JNIEnv* env, jobject exampleObj, jcharArray namespaces, jintArray offsets, jintArray indices, jdoubleArray values)
+{
+  INIT_VARS
+
+  try
+  {
+    // the arrays are validated on the Java side
+    int num_namespaces = env->GetArrayLength(namespaces);
+    int mask = (1 << all->num_bits) - 1;
+
+    CriticalArrayGuard namespacesGuard(env, namespaces);
+    jchar* namespaces0 = (jchar*)namespacesGuard.data();
+
+    CriticalArrayGuard offsetsGuard(env, offsets);
+    int* offsets0 = (int*)offsetsGuard.data();
 
     CriticalArrayGuard indicesGuard(env, indices);
     int* indices0 = (int*)indicesGuard.data();
@@ -370,23 +644,37 @@ JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_addToName
     CriticalArrayGuard valuesGuard(env, values);
     double* values0 = (double*)valuesGuard.data();
 
-    int size = env->GetArrayLength(indices);
-    int mask = (1 << all->num_bits) - 1;
+    // a namespace may appear several times, size every namespace for all of its features up front so that it is
+    // grown at most once
+    std::array<size_t, NUM_NAMESPACES> reserve{};
+    for (int i = 0; i < num_namespaces; ++i) reserve[(namespace_index)namespaces0[i]] += offsets0[i + 1] - offsets0[i];
 
-    // pre-allocate
-    features->values.resize(features->values.end() - features->values.begin() + size);
-    features->indicies.resize(features->indicies.end() - features->indicies.begin() + size);
+    for (int i = 0; i < num_namespaces; ++i)
+    {
+      namespace_index ns = (namespace_index)namespaces0[i];
+      if (reserve[ns] == 0)
+        continue;
+
+      addNamespaceIfNotExists(all, ex, ns);
+      auto features = ex->feature_space.data() + ns;
+      reserve_more(features->values, reserve[ns]);
+      reserve_more(features->indicies, reserve[ns]);
+      reserve[ns] = 0;
+    }
 
-    int* indices_itr = indices0;
-    int* indices_end = indices0 + size;
-    double* values_itr = values0;
-    for (; indices_itr != indices_end; ++indices_itr, ++values_itr)
+    for (int i = 0; i < num_namespaces; ++i)
     {
-      float x = *values_itr;
-      if (x != 0)
+      auto features = ex->feature_space.data() + (namespace_index)namespaces0[i];
+
+      for (int j = offsets0[i]; j < offsets0[i + 1]; ++j)
       {
-        features->values.push_back_unchecked(x);
-        features->indicies.push_back_unchecked(*indices_itr & mask);
+        float x = values0[j];
+        if (x != 0)
+        {
+          features->values.push_back_unchecked(x);
+          features->indicies.push_back_unchecked(indices0[j] & mask);
+          features->sum_feat_sq += x * x;
+        }
       }
     }
   }
@@ -415,46 +703,145 @@ JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_setLabel(
   }
 }
 
+// The label union is interpreted by the label parser of the reduction stack, writing a label of another type would
+// corrupt the example. Returns false with a pending IllegalStateException on a mismatch.
+bool check_label_parser(JNIEnv* env, vw* all, const label_parser& expected, const char* msg)
+{
+  if (all->p->lp.parse_label == expected.parse_label)
+    return true;
+
+  throw_java_exception(env, "java/lang/IllegalStateException", msg);
+  return false;
+}
+
+JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_setMulticlass(
+    JNIEnv* env, jobject exampleObj, jfloat weight, jint label)
+{
+  INIT_VARS
+
+  if (!check_label_parser(
+          env, all, MULTICLASS::mc_label, "Multiclass labels require a multiclass reduction (e.g. --oaa)."))
+    return;
+
+  try
+  {
+    MULTICLASS::label_t* ld = &ex->l.multi;
+    ld->label = (uint32_t)label;
+    ld->weight = weight;
+  }
+  catch (...)
+  {
+    rethrow_cpp_exception_as_java_exception(env);
+  }
+}
+
+JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_setCostSensitive(
+    JNIEnv* env, jobject exampleObj, jintArray classes, jfloatArray costs)
+{
+  INIT_VARS
+
+  if (!check_label_parser(
+          env, all, COST_SENSITIVE::cs_label, "Cost-sensitive labels require a cost-sensitive reduction (e.g. --csoaa)."))
+    return;
+
+  try
+  {
+    int size = env->GetArrayLength(classes);
+    CriticalArrayGuard classesGuard(env, classes);
+    CriticalArrayGuard costsGuard(env, costs);
+    auto classes0 = (const jint*)classesGuard.data();
+    auto costs0 = (const jfloat*)costsGuard.data();
+
+    COST_SENSITIVE::label* ld = &ex->l.cs;
+    ld->costs.clear();
+    for (int i = 0; i < size; ++i)
+    {
+      COST_SENSITIVE::wclass f = {costs0[i], (uint32_t)classes0[i], 0., 0.};
+      ld->costs.push_back(f);
+    }
+  }
+  catch (...)
+  {
+    rethrow_cpp_exception_as_java_exception(env);
+  }
+}
+
+JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_setContextualBandit(
+    JNIEnv* env, jobject exampleObj, jint action, jfloat cost, jfloat probability)
+{
+  INIT_VARS
+
+  if (!check_label_parser(
+          env, all, CB::cb_label, "Contextual bandit labels require a contextual bandit reduction (e.g. --cb)."))
+    return;
+
+  try
+  {
+    CB::label* ld = &ex->l.cb;
+    ld->costs.clear();
+    ld->weight = 1.f;
+
+    CB::cb_class f;
+    f.partial_prediction = 0.;
+    f.action = (uint32_t)action;
+    f.cost = cost;
+    f.probability = probability;
+    ld->costs.push_back(f);
+  }
+  catch (...)
+  {
+    rethrow_cpp_exception_as_java_exception(env);
+  }
+}
+
+JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_setSharedLabel(JNIEnv* env, jobject exampleObj)
+{
+  INIT_VARS
+
+  if (!check_label_parser(
+          env, all, CB::cb_label, "Shared labels require a contextual bandit reduction (e.g. --cb_adf)."))
+    return;
+
+  try
+  {
+    CB::label* ld = &ex->l.cb;
+    ld->costs.clear();
+    ld->weight = 1.f;
+
+    // same as the text label "shared"
+    CB::cb_class f;
+    f.partial_prediction = 0.;
+    f.action = (uint32_t)hashstring("shared", 6, 0);
+    f.cost = FLT_MAX;
+    f.probability = -1.f;
+    ld->costs.push_back(f);
+  }
+  catch (...)
+  {
+    rethrow_cpp_exception_as_java_exception(env);
+  }
+}
+
 // re-use prediction conversation methods
 jobject multilabel_predictor(example* vec, JNIEnv* env);
 jfloatArray scalars_predictor(example* vec, JNIEnv* env);
 jobject action_scores_prediction(example* vec, JNIEnv* env);
 jobject action_probs_prediction(example* vec, JNIEnv* env);
 
-JNIEXPORT jobject JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_getPrediction(JNIEnv* env, jobject exampleObj)
+// Converts the prediction stored in ex, for multiline examples the first one, to its Java representation.
+jobject get_prediction(JNIEnv* env, vw* all, example* ex)
 {
-  INIT_VARS
-
-  jclass predClass;
-  jmethodID ctr;
   switch (all->l->pred_type)
   {
     case prediction_type_t::scalar:
-      predClass = env->FindClass("org/vowpalwabbit/spark/prediction/ScalarPrediction");
-      CHECK_JNI_EXCEPTION(nullptr);
-
-      ctr = env->GetMethodID(predClass, "<init>", "(FF)V");
-      CHECK_JNI_EXCEPTION(nullptr);
-
-      return env->NewObject(predClass, ctr, VW::get_prediction(ex), ex->confidence);
+      return env->NewObject(JNI_CACHE.scalar_prediction_class, JNI_CACHE.scalar_prediction_ctor,
+          VW::get_prediction(ex), ex->confidence);
 
     case prediction_type_t::prob:
-      predClass = env->FindClass("java/lang/Float");
-      CHECK_JNI_EXCEPTION(nullptr);
-
-      ctr = env->GetMethodID(predClass, "<init>", "(F)V");
-      CHECK_JNI_EXCEPTION(nullptr);
-
-      return env->NewObject(predClass, ctr, ex->pred.prob);
+      return env->NewObject(JNI_CACHE.float_class, JNI_CACHE.float_ctor, ex->pred.prob);
 
     case prediction_type_t::multiclass:
-      predClass = env->FindClass("java/lang/Integer");
-      CHECK_JNI_EXCEPTION(nullptr);
-
-      ctr = env->GetMethodID(predClass, "<init>", "(I)V");
-      CHECK_JNI_EXCEPTION(nullptr);
-
-      return env->NewObject(predClass, ctr, ex->pred.multiclass);
+      return env->NewObject(JNI_CACHE.integer_class, JNI_CACHE.integer_ctor, ex->pred.multiclass);
 
     case prediction_type_t::scalars:
       return scalars_predictor(ex, env);
@@ -473,6 +860,13 @@ JNIEXPORT jobject JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_getPre
   }
 }
 
+JNIEXPORT jobject JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_getPrediction(JNIEnv* env, jobject exampleObj)
+{
+  INIT_VARS
+
+  return get_prediction(env, all, ex);
+}
+
 JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_learn(JNIEnv* env, jobject exampleObj)
 {
   INIT_VARS
@@ -512,3 +906,157 @@ JNIEXPORT jobject JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_predic
     rethrow_cpp_exception_as_java_exception(env);
   }
 }
+
+// Collects the examples of a multiline example. A trailing empty example, as created by createEmptyExample(), only
+// marks the end of a multiline example and is skipped. Returns false with a pending Java exception on error.
+bool get_multiline_examples(JNIEnv* env, vw* all, jobjectArray examples, multi_ex& ex_coll)
+{
+  jsize size = env->GetArrayLength(examples);
+  for (jsize i = 0; i < size; ++i)
+  {
+    example* ex = get_batch_example(env, all, examples, i);
+    if (ex == nullptr)
+      return false;
+
+    if (i == size - 1 && i > 0 && example_is_newline(*ex))
+      break;
+
+    VW::setup_example(*all, ex);
+    ex_coll.push_back(ex);
+  }
+
+  if (ex_coll.empty())
+  {
+    throw_java_exception(
+        env, "java/lang/IllegalArgumentException", "The multiline example doesn't contain any examples.");
+    return false;
+  }
+  return true;
+}
+
+JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_multilineLearn(
+    JNIEnv* env, jclass, jlong vwPtr, jobjectArray examples)
+{
+  auto all = (vw*)vwPtr;
+
+  try
+  {
+    multi_ex ex_coll;
+    if (!get_multiline_examples(env, all, examples, ex_coll))
+      return;
+
+    all->learn(ex_coll);
+
+    // as these are not ring-based examples they are not free'd
+    VW::LEARNER::as_multiline(all->l)->finish_example(*all, ex_coll);
+  }
+  catch (...)
+  {
+    rethrow_cpp_exception_as_java_exception(env);
+  }
+}
+
+JNIEXPORT jobject JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_multilinePredict(
+    JNIEnv* env, jclass, jlong vwPtr, jobjectArray examples)
+{
+  auto all = (vw*)vwPtr;
+
+  try
+  {
+    multi_ex ex_coll;
+    if (!get_multiline_examples(env, all, examples, ex_coll))
+      return nullptr;
+
+    all->predict(ex_coll);
+
+    // as these are not ring-based examples they are not free'd
+    VW::LEARNER::as_multiline(all->l)->finish_example(*all, ex_coll);
+
+    // the prediction of a multiline example is stored in the first example
+    return get_prediction(env, all, ex_coll[0]);
+  }
+  catch (...)
+  {
+    rethrow_cpp_exception_as_java_exception(env);
+    return nullptr;
+  }
+}
+
+// Returns false with a pending IllegalStateException if the reduction stack doesn't produce predictions of type
+// expected, otherwise the prediction union would be misinterpreted.
+bool check_prediction_type(JNIEnv* env, vw* all, prediction_type_t expected, const char* method)
+{
+  if (all->l->pred_type == expected)
+    return true;
+
+  throw_java_exception(env, "java/lang/IllegalStateException",
+      (std::string(method) + " requires a " + to_string(expected) + " prediction type, found " +
+          to_string(all->l->pred_type))
+          .c_str());
+  return false;
+}
+
+// Predicts ex, returns false with a pending Java exception on error.
+bool predict_example(JNIEnv* env, vw* all, example* ex)
+{
+  try
+  {
+    VW::setup_example(*all, ex);
+
+    all->predict(*ex);
+
+    // as this is not a ring-based example it is not free'd
+    VW::LEARNER::as_singleline(all->l)->finish_example(*all, *ex);
+    return true;
+  }
+  catch (...)
+  {
+    rethrow_cpp_exception_as_java_exception(env);
+    return false;
+  }
+}
+
+JNIEXPORT jfloat JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_predictScalar(JNIEnv* env, jobject exampleObj)
+{
+  INIT_VARS
+
+  if (!check_prediction_type(env, all, prediction_type_t::scalar, "predictScalar") || !predict_example(env, all, ex))
+    return 0;
+
+  return VW::get_prediction(ex);
+}
+
+JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_predictScalarAndConfidence(
+    JNIEnv* env, jobject exampleObj, jfloatArray out)
+{
+  INIT_VARS
+
+  if (!check_prediction_type(env, all, prediction_type_t::scalar, "predictScalarWithConfidence") ||
+      !predict_example(env, all, ex))
+    return;
+
+  jfloat result[2] = {VW::get_prediction(ex), ex->confidence};
+  env->SetFloatArrayRegion(out, 0, 2, result);
+}
+
+JNIEXPORT jfloat JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_predictProb(JNIEnv* env, jobject exampleObj)
+{
+  INIT_VARS
+
+  if (!check_prediction_type(env, all, prediction_type_t::prob, "predictProb") || !predict_example(env, all, ex))
+    return 0;
+
+  return ex->pred.prob;
+}
+
+JNIEXPORT jint JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_predictMulticlass(
+    JNIEnv* env, jobject exampleObj)
+{
+  INIT_VARS
+
+  if (!check_prediction_type(env, all, prediction_type_t::multiclass, "predictMulticlass") ||
+      !predict_example(env, all, ex))
+    return 0;
+
+  return (jint)ex->pred.multiclass;
+}
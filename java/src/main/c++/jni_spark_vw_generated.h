@@ -51,6 +51,13 @@ extern "C"
    */
   JNIEXPORT jobject JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_getPerformanceStatistics(JNIEnv *, jobject);
 
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitNative
+   * Method:    nativeMemoryStats
+   * Signature: (J)LvowpalWabbit/NativeMemoryStats;
+   */
+  JNIEXPORT jobject JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_nativeMemoryStats(JNIEnv *, jclass, jlong);
+
   /*
    * Class:     org_vowpalwabbit_spark_VowpalWabbitNative
    * Method:    endPass
@@ -61,9 +68,9 @@ extern "C"
   /*
    * Class:     org_vowpalwabbit_spark_VowpalWabbitNative
    * Method:    finish
-   * Signature: ()V
+   * Signature: (J)V
    */
-  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_finish(JNIEnv *, jobject);
+  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_finish(JNIEnv *, jclass, jlong);
 
   /*
    * Class:     org_vowpalwabbit_spark_VowpalWabbitNative
@@ -73,6 +80,46 @@ extern "C"
   JNIEXPORT jint JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_hash(
       JNIEnv *, jclass, jbyteArray, jint, jint, jint);
 
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitNative
+   * Method:    hashBatch
+   * Signature: ([B[II[I)V
+   */
+  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_hashBatch(
+      JNIEnv *, jclass, jbyteArray, jintArray, jint, jintArray);
+
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitNative
+   * Method:    learnBatch
+   * Signature: (J[Lorg/vowpalwabbit/spark/VowpalWabbitExample;)V
+   */
+  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_learnBatch(
+      JNIEnv *, jclass, jlong, jobjectArray);
+
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitNative
+   * Method:    predictScalarsBatch
+   * Signature: (J[Lorg/vowpalwabbit/spark/VowpalWabbitExample;[F)V
+   */
+  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_predictScalarsBatch(
+      JNIEnv *, jclass, jlong, jobjectArray, jfloatArray);
+
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitNative
+   * Method:    multilineLearn
+   * Signature: (J[Lorg/vowpalwabbit/spark/VowpalWabbitExample;)V
+   */
+  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_multilineLearn(
+      JNIEnv *, jclass, jlong, jobjectArray);
+
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitNative
+   * Method:    multilinePredict
+   * Signature: (J[Lorg/vowpalwabbit/spark/VowpalWabbitExample;)Ljava/lang/Object;
+   */
+  JNIEXPORT jobject JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitNative_multilinePredict(
+      JNIEnv *, jclass, jlong, jobjectArray);
+
 #ifdef __cplusplus
 }
 #endif
@@ -95,9 +142,9 @@ extern "C"
   /*
    * Class:     org_vowpalwabbit_spark_VowpalWabbitExample
    * Method:    finish
-   * Signature: ()J
+   * Signature: (J)V
    */
-  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_finish(JNIEnv *, jobject);
+  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_finish(JNIEnv *, jclass, jlong);
 
   /*
    * Class:     org_vowpalwabbit_spark_VowpalWabbitExample
@@ -122,6 +169,46 @@ extern "C"
   JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_addToNamespaceSparse(
       JNIEnv *, jobject, jchar, jintArray, jdoubleArray);
 
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitExample
+   * Method:    addToNamespaceDenseFloats
+   * Signature: (CI[FII)V
+   */
+  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_addToNamespaceDenseFloats(
+      JNIEnv *, jobject, jchar, jint, jfloatArray, jint, jint);
+
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitExample
+   * Method:    addToNamespaceSparseFloats
+   * Signature: (C[I[F)V
+   */
+  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_addToNamespaceSparseFloats(
+      JNIEnv *, jobject, jchar, jintArray, jfloatArray);
+
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitExample
+   * Method:    addToNamespaceDenseBuffer
+   * Signature: (CILjava/nio/FloatBuffer;II)V
+   */
+  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_addToNamespaceDenseBuffer(
+      JNIEnv *, jobject, jchar, jint, jobject, jint, jint);
+
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitExample
+   * Method:    addToNamespaceSparseBuffer
+   * Signature: (CLjava/nio/IntBuffer;ILjava/nio/FloatBuffer;II)V
+   */
+  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_addToNamespaceSparseBuffer(
+      JNIEnv *, jobject, jchar, jobject, jint, jobject, jint, jint);
+
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitExample
+   * Method:    addToNamespacesSparse
+   * Signature: ([C[I[I[D)V
+   */
+  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_addToNamespacesSparse(
+      JNIEnv *, jobject, jcharArray, jintArray, jintArray, jdoubleArray);
+
   /*
    * Class:     org_vowpalwabbit_spark_VowpalWabbitExample
    * Method:    setLabel
@@ -129,6 +216,65 @@ extern "C"
    */
   JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_setLabel(JNIEnv *, jobject, jfloat, jfloat);
 
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitExample
+   * Method:    setMulticlass
+   * Signature: (FI)V
+   */
+  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_setMulticlass(JNIEnv *, jobject, jfloat, jint);
+
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitExample
+   * Method:    setCostSensitive
+   * Signature: ([I[F)V
+   */
+  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_setCostSensitive(
+      JNIEnv *, jobject, jintArray, jfloatArray);
+
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitExample
+   * Method:    setContextualBandit
+   * Signature: (IFF)V
+   */
+  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_setContextualBandit(
+      JNIEnv *, jobject, jint, jfloat, jfloat);
+
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitExample
+   * Method:    setSharedLabel
+   * Signature: ()V
+   */
+  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_setSharedLabel(JNIEnv *, jobject);
+
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitExample
+   * Method:    predictScalar
+   * Signature: ()F
+   */
+  JNIEXPORT jfloat JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_predictScalar(JNIEnv *, jobject);
+
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitExample
+   * Method:    predictScalarAndConfidence
+   * Signature: ([F)V
+   */
+  JNIEXPORT void JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_predictScalarAndConfidence(
+      JNIEnv *, jobject, jfloatArray);
+
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitExample
+   * Method:    predictProb
+   * Signature: ()F
+   */
+  JNIEXPORT jfloat JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_predictProb(JNIEnv *, jobject);
+
+  /*
+   * Class:     org_vowpalwabbit_spark_VowpalWabbitExample
+   * Method:    predictMulticlass
+   * Signature: ()I
+   */
+  JNIEXPORT jint JNICALL Java_org_vowpalwabbit_spark_VowpalWabbitExample_predictMulticlass(JNIEnv *, jobject);
+
   /*
    * Class:     org_vowpalwabbit_spark_VowpalWabbitExample
    * Method:    learn
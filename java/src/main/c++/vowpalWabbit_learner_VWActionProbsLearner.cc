@@ -1,29 +1,25 @@
 #include "vowpalWabbit_learner_VWActionProbsLearner.h"
 #include "vw.h"
 #include "jni_base_learner.h"
+#include "jni_cache.h"
 
 jobject action_probs_prediction(example *vec, JNIEnv *env)
 {
-  jclass action_prob_class = env->FindClass("vowpalWabbit/responses/ActionProb");
-  jmethodID action_prob_constructor = env->GetMethodID(action_prob_class, "<init>", "(IF)V");
-
   // The action_probs prediction_type_t is just a placeholder identifying when the aciton_scores
   // should be treated as probabilities or scores.  That is why this function references a_s yet returns
   // ActionProbs to the Java side.
   ACTION_SCORE::action_scores a_s = vec->pred.a_s;
   size_t num_values = a_s.size();
-  jobjectArray j_action_probs = env->NewObjectArray(num_values, action_prob_class, 0);
+  jobjectArray j_action_probs = env->NewObjectArray(num_values, JNI_CACHE.action_prob_class, 0);
 
-  jclass action_probs_class = env->FindClass("vowpalWabbit/responses/ActionProbs");
   for (uint32_t i = 0; i < num_values; ++i)
   {
     ACTION_SCORE::action_score a = a_s[i];
-    jobject j_action_prob = env->NewObject(action_prob_class, action_prob_constructor, a.action, a.score);
+    jobject j_action_prob = env->NewObject(JNI_CACHE.action_prob_class, JNI_CACHE.action_prob_ctor, a.action, a.score);
     env->SetObjectArrayElement(j_action_probs, i, j_action_prob);
+    env->DeleteLocalRef(j_action_prob);
   }
-  jmethodID action_probs_constructor =
-      env->GetMethodID(action_probs_class, "<init>", "([LvowpalWabbit/responses/ActionProb;)V");
-  return env->NewObject(action_probs_class, action_probs_constructor, j_action_probs);
+  return env->NewObject(JNI_CACHE.action_probs_class, JNI_CACHE.action_probs_ctor, j_action_probs);
 }
 
 JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionProbsLearner_predict(
@@ -37,3 +33,41 @@ JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionProbsLearner_predict
 {
   return base_predict<jobject>(env, example_strings, learn, vwPtr, action_probs_prediction);
 }
+
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWActionProbsLearner_predictMultilineIntoBuffer(
+    JNIEnv *env, jobject obj, jobjectArray example_strings, jobject out, jboolean learn, jlong vwPtr)
+{
+  auto predictor = [out](example *vec, JNIEnv *env) { return copy_action_scores(env, vec->pred.a_s, out); };
+  return base_predict<jint>(env, example_strings, learn, vwPtr, predictor);
+}
+
+JNIEXPORT jobjectArray JNICALL Java_vowpalWabbit_learner_VWActionProbsLearner_predictBatch(
+    JNIEnv *env, jobject obj, jobjectArray example_strings, jboolean learn, jlong vwPtr)
+{
+  return base_predict_object_batch(
+      env, example_strings, learn, vwPtr, action_probs_prediction, JNI_CACHE.action_probs_class);
+}
+
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionProbsLearner_predictPacked(
+    JNIEnv *env, jobject obj, jstring examples, jboolean learn, jlong vwPtr)
+{
+  return base_predict_packed<jobject>(env, examples, learn, vwPtr, action_probs_prediction);
+}
+
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionProbsLearner_predictPackedBuffer(
+    JNIEnv *env, jobject obj, jobject examples, jint position, jint length, jboolean learn, jlong vwPtr)
+{
+  return base_predict_packed_buffer<jobject>(env, examples, position, length, learn, vwPtr, action_probs_prediction);
+}
+
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionProbsLearner_predictBuffer(
+    JNIEnv *env, jobject obj, jobject example_buffer, jint position, jint length, jboolean learn, jlong vwPtr)
+{
+  return base_predict_buffer<jobject>(env, example_buffer, position, length, learn, vwPtr, action_probs_prediction);
+}
+
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionProbsLearner_predictMultilineBuffer(
+    JNIEnv *env, jobject obj, jobject example_buffer, jint position, jintArray offsets, jboolean learn, jlong vwPtr)
+{
+  return base_predict_multiline_buffer<jobject>(env, example_buffer, position, offsets, learn, vwPtr, action_probs_prediction);
+}
@@ -24,6 +24,54 @@ JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionProbsLearner_predict
 JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionProbsLearner_predictMultiline
 (JNIEnv *, jobject, jobjectArray, jboolean, jlong);
 
+/*
+ * Class:     vowpalWabbit_learner_VWActionProbsLearner
+ * Method:    predictMultilineIntoBuffer
+ * Signature: ([Ljava/lang/String;LvowpalWabbit/responses/ActionScoresBuffer;ZJ)I
+ */
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWActionProbsLearner_predictMultilineIntoBuffer
+(JNIEnv *, jobject, jobjectArray, jobject, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWActionProbsLearner
+ * Method:    predictBatch
+ * Signature: ([Ljava/lang/String;ZJ)[LvowpalWabbit/responses/ActionProbs;
+ */
+JNIEXPORT jobjectArray JNICALL Java_vowpalWabbit_learner_VWActionProbsLearner_predictBatch
+(JNIEnv *, jobject, jobjectArray, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWActionProbsLearner
+ * Method:    predictPacked
+ * Signature: (Ljava/lang/String;ZJ)LvowpalWabbit/responses/ActionProbs;
+ */
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionProbsLearner_predictPacked
+(JNIEnv *, jobject, jstring, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWActionProbsLearner
+ * Method:    predictPackedBuffer
+ * Signature: (Ljava/nio/ByteBuffer;IIZJ)LvowpalWabbit/responses/ActionProbs;
+ */
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionProbsLearner_predictPackedBuffer
+(JNIEnv *, jobject, jobject, jint, jint, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWActionProbsLearner
+ * Method:    predictBuffer
+ * Signature: (Ljava/nio/ByteBuffer;IIZJ)LvowpalWabbit/responses/ActionProbs;
+ */
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionProbsLearner_predictBuffer
+(JNIEnv *, jobject, jobject, jint, jint, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWActionProbsLearner
+ * Method:    predictMultilineBuffer
+ * Signature: (Ljava/nio/ByteBuffer;I[IZJ)LvowpalWabbit/responses/ActionProbs;
+ */
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionProbsLearner_predictMultilineBuffer
+(JNIEnv *, jobject, jobject, jint, jintArray, jboolean, jlong);
+
 #ifdef __cplusplus
 }
 #endif
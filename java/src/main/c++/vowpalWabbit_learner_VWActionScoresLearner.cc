@@ -1,26 +1,23 @@
 #include "vowpalWabbit_learner_VWActionScoresLearner.h"
 #include "vw.h"
 #include "jni_base_learner.h"
+#include "jni_cache.h"
 
 jobject action_scores_prediction(example *vec, JNIEnv *env)
 {
-  jclass action_score_class = env->FindClass("vowpalWabbit/responses/ActionScore");
-  jmethodID action_score_constructor = env->GetMethodID(action_score_class, "<init>", "(IF)V");
-
   ACTION_SCORE::action_scores a_s = vec->pred.a_s;
   size_t num_values = a_s.size();
-  jobjectArray j_action_scores = env->NewObjectArray(num_values, action_score_class, 0);
+  jobjectArray j_action_scores = env->NewObjectArray(num_values, JNI_CACHE.action_score_class, 0);
 
-  jclass action_scores_class = env->FindClass("vowpalWabbit/responses/ActionScores");
   for (uint32_t i = 0; i < num_values; ++i)
   {
     ACTION_SCORE::action_score a = a_s[i];
-    jobject j_action_score = env->NewObject(action_score_class, action_score_constructor, a.action, a.score);
+    jobject j_action_score =
+        env->NewObject(JNI_CACHE.action_score_class, JNI_CACHE.action_score_ctor, a.action, a.score);
     env->SetObjectArrayElement(j_action_scores, i, j_action_score);
+    env->DeleteLocalRef(j_action_score);
   }
-  jmethodID action_scores_constructor =
-      env->GetMethodID(action_scores_class, "<init>", "([LvowpalWabbit/responses/ActionScore;)V");
-  return env->NewObject(action_scores_class, action_scores_constructor, j_action_scores);
+  return env->NewObject(JNI_CACHE.action_scores_class, JNI_CACHE.action_scores_ctor, j_action_scores);
 }
 
 JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionScoresLearner_predict(
@@ -34,3 +31,41 @@ JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionScoresLearner_predic
 {
   return base_predict<jobject>(env, example_strings, learn, vwPtr, action_scores_prediction);
 }
+
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWActionScoresLearner_predictMultilineIntoBuffer(
+    JNIEnv *env, jobject obj, jobjectArray example_strings, jobject out, jboolean learn, jlong vwPtr)
+{
+  auto predictor = [out](example *vec, JNIEnv *env) { return copy_action_scores(env, vec->pred.a_s, out); };
+  return base_predict<jint>(env, example_strings, learn, vwPtr, predictor);
+}
+
+JNIEXPORT jobjectArray JNICALL Java_vowpalWabbit_learner_VWActionScoresLearner_predictBatch(
+    JNIEnv *env, jobject obj, jobjectArray example_strings, jboolean learn, jlong vwPtr)
+{
+  return base_predict_object_batch(
+      env, example_strings, learn, vwPtr, action_scores_prediction, JNI_CACHE.action_scores_class);
+}
+
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionScoresLearner_predictPacked(
+    JNIEnv *env, jobject obj, jstring examples, jboolean learn, jlong vwPtr)
+{
+  return base_predict_packed<jobject>(env, examples, learn, vwPtr, action_scores_prediction);
+}
+
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionScoresLearner_predictPackedBuffer(
+    JNIEnv *env, jobject obj, jobject examples, jint position, jint length, jboolean learn, jlong vwPtr)
+{
+  return base_predict_packed_buffer<jobject>(env, examples, position, length, learn, vwPtr, action_scores_prediction);
+}
+
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionScoresLearner_predictBuffer(
+    JNIEnv *env, jobject obj, jobject example_buffer, jint position, jint length, jboolean learn, jlong vwPtr)
+{
+  return base_predict_buffer<jobject>(env, example_buffer, position, length, learn, vwPtr, action_scores_prediction);
+}
+
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionScoresLearner_predictMultilineBuffer(
+    JNIEnv *env, jobject obj, jobject example_buffer, jint position, jintArray offsets, jboolean learn, jlong vwPtr)
+{
+  return base_predict_multiline_buffer<jobject>(env, example_buffer, position, offsets, learn, vwPtr, action_scores_prediction);
+}
@@ -24,6 +24,54 @@ JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionScoresLearner_predic
 JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionScoresLearner_predictMultiline
 (JNIEnv *, jobject, jobjectArray, jboolean, jlong);
 
+/*
+ * Class:     vowpalWabbit_learner_VWActionScoresLearner
+ * Method:    predictMultilineIntoBuffer
+ * Signature: ([Ljava/lang/String;LvowpalWabbit/responses/ActionScoresBuffer;ZJ)I
+ */
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWActionScoresLearner_predictMultilineIntoBuffer
+(JNIEnv *, jobject, jobjectArray, jobject, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWActionScoresLearner
+ * Method:    predictBatch
+ * Signature: ([Ljava/lang/String;ZJ)[LvowpalWabbit/responses/ActionScores;
+ */
+JNIEXPORT jobjectArray JNICALL Java_vowpalWabbit_learner_VWActionScoresLearner_predictBatch
+(JNIEnv *, jobject, jobjectArray, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWActionScoresLearner
+ * Method:    predictPacked
+ * Signature: (Ljava/lang/String;ZJ)LvowpalWabbit/responses/ActionScores;
+ */
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionScoresLearner_predictPacked
+(JNIEnv *, jobject, jstring, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWActionScoresLearner
+ * Method:    predictPackedBuffer
+ * Signature: (Ljava/nio/ByteBuffer;IIZJ)LvowpalWabbit/responses/ActionScores;
+ */
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionScoresLearner_predictPackedBuffer
+(JNIEnv *, jobject, jobject, jint, jint, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWActionScoresLearner
+ * Method:    predictBuffer
+ * Signature: (Ljava/nio/ByteBuffer;IIZJ)LvowpalWabbit/responses/ActionScores;
+ */
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionScoresLearner_predictBuffer
+(JNIEnv *, jobject, jobject, jint, jint, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWActionScoresLearner
+ * Method:    predictMultilineBuffer
+ * Signature: (Ljava/nio/ByteBuffer;I[IZJ)LvowpalWabbit/responses/ActionScores;
+ */
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWActionScoresLearner_predictMultilineBuffer
+(JNIEnv *, jobject, jobject, jint, jintArray, jboolean, jlong);
+
 #ifdef __cplusplus
 }
 #endif
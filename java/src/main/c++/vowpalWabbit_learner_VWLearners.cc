@@ -1,9 +1,7 @@
 #include "vowpalWabbit_learner_VWLearners.h"
 #include "vw.h"
 #include "jni_base_learner.h"
-
-#define RETURN_TYPE "vowpalWabbit/learner/VWLearners$VWReturnType"
-#define RETURN_TYPE_INSTANCE "L" RETURN_TYPE ";"
+#include "jni_cache.h"
 
 JNIEXPORT jlong JNICALL Java_vowpalWabbit_learner_VWLearners_initialize(JNIEnv* env, jclass obj, jstring command)
 {
@@ -20,6 +18,36 @@ JNIEXPORT jlong JNICALL Java_vowpalWabbit_learner_VWLearners_initialize(JNIEnv*
   return vwPtr;
 }
 
+JNIEXPORT jlong JNICALL Java_vowpalWabbit_learner_VWLearners_seedModel(
+    JNIEnv* env, jclass obj, jlong vwPtr, jstring extraArgs)
+{
+  jlong seededPtr = 0;
+  try
+  {
+    const char* utf_string = env->GetStringUTFChars(extraArgs, NULL);
+    std::string extraArgsCpp(utf_string);
+    env->ReleaseStringUTFChars(extraArgs, utf_string);
+
+    // the seeded instance shares the weights of vwPtr, VW::finish won't free them
+    vw* seededInstance = VW::seed_vw_model((vw*)vwPtr, extraArgsCpp);
+
+    // seed_vw_model shares the shared data as well, whose counters and label range are written by every prediction.
+    // Seeded instances predict on other threads than vwPtr, give each its own copy which closeInstance frees.  The
+    // label dictionary stays owned by vwPtr.
+    shared_data* sd = &calloc_or_throw<shared_data>();
+    memcpy(sd, seededInstance->sd, sizeof(shared_data));
+    seededInstance->sd = sd;
+    seededInstance->p->_shared_data = sd;
+
+    seededPtr = (jlong)seededInstance;
+  }
+  catch (...)
+  {
+    rethrow_cpp_exception_as_java_exception(env);
+  }
+  return seededPtr;
+}
+
 JNIEXPORT void JNICALL Java_vowpalWabbit_learner_VWLearners_performRemainingPasses(JNIEnv* env, jclass obj, jlong vwPtr)
 {
   try
@@ -42,15 +70,18 @@ JNIEXPORT void JNICALL Java_vowpalWabbit_learner_VWLearners_performRemainingPass
 
 JNIEXPORT void JNICALL Java_vowpalWabbit_learner_VWLearners_closeInstance(JNIEnv* env, jclass obj, jlong vwPtr)
 {
+  vw* vwInstance = (vw*)vwPtr;
+  // the copy of the shared data made by seedModel isn't freed by VW::finish
+  shared_data* seededSd = vwInstance->weights.seeded() ? vwInstance->sd : nullptr;
   try
   {
-    vw* vwInstance = (vw*)vwPtr;
     VW::finish(*vwInstance);
   }
   catch (...)
   {
     rethrow_cpp_exception_as_java_exception(env);
   }
+  free(seededSd);
 }
 
 JNIEXPORT void JNICALL Java_vowpalWabbit_learner_VWLearners_saveModel(
@@ -72,35 +103,48 @@ JNIEXPORT void JNICALL Java_vowpalWabbit_learner_VWLearners_saveModel(
 
 JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWLearners_getReturnType(JNIEnv* env, jclass obj, jlong vwPtr)
 {
-  jclass clVWReturnType = env->FindClass(RETURN_TYPE);
   jfieldID field;
   vw* vwInstance = (vw*)vwPtr;
   switch (vwInstance->l->pred_type)
   {
     case prediction_type_t::action_probs:
-      field = env->GetStaticFieldID(clVWReturnType, "ActionProbs", RETURN_TYPE_INSTANCE);
+      field = JNI_CACHE.return_type_action_probs;
       break;
     case prediction_type_t::action_scores:
-      field = env->GetStaticFieldID(clVWReturnType, "ActionScores", RETURN_TYPE_INSTANCE);
+      field = JNI_CACHE.return_type_action_scores;
       break;
     case prediction_type_t::multiclass:
-      field = env->GetStaticFieldID(clVWReturnType, "Multiclass", RETURN_TYPE_INSTANCE);
+      field = JNI_CACHE.return_type_multiclass;
       break;
     case prediction_type_t::multilabels:
-      field = env->GetStaticFieldID(clVWReturnType, "Multilabels", RETURN_TYPE_INSTANCE);
+      field = JNI_CACHE.return_type_multilabels;
       break;
     case prediction_type_t::prob:
-      field = env->GetStaticFieldID(clVWReturnType, "Prob", RETURN_TYPE_INSTANCE);
+      field = JNI_CACHE.return_type_prob;
       break;
     case prediction_type_t::scalar:
-      field = env->GetStaticFieldID(clVWReturnType, "Scalar", RETURN_TYPE_INSTANCE);
+      field = JNI_CACHE.return_type_scalar;
       break;
     case prediction_type_t::scalars:
-      field = env->GetStaticFieldID(clVWReturnType, "Scalars", RETURN_TYPE_INSTANCE);
+      field = JNI_CACHE.return_type_scalars;
       break;
     default:
-      field = env->GetStaticFieldID(clVWReturnType, "Unknown", RETURN_TYPE_INSTANCE);
+      field = JNI_CACHE.return_type_unknown;
   }
 
-  return env->GetStaticObjectField(clVWReturnType, field);
+  return env->GetStaticObjectField(JNI_CACHE.return_type_class, field);
+}
+
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWLearners_getNativeMemoryStats(
+    JNIEnv* env, jclass obj, jlong vwPtr)
+{
+  try
+  {
+    return new_native_memory_stats(env, (vw*)vwPtr);
+  }
+  catch (...)
+  {
+    rethrow_cpp_exception_as_java_exception(env);
+    return nullptr;
+  }
 }
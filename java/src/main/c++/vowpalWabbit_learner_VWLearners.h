@@ -23,6 +23,14 @@ JNIEXPORT jlong JNICALL Java_vowpalWabbit_learner_VWLearners_initialize
 JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWLearners_getReturnType
   (JNIEnv *, jclass, jlong);
 
+/*
+ * Class:     vowpalWabbit_learner_VWLearners
+ * Method:    seedModel
+ * Signature: (JLjava/lang/String;)J
+ */
+JNIEXPORT jlong JNICALL Java_vowpalWabbit_learner_VWLearners_seedModel
+  (JNIEnv *, jclass, jlong, jstring);
+
 /*
  * Class:     vowpalWabbit_learner_VWLearners
  * Method:    closeInstance
@@ -47,6 +55,14 @@ JNIEXPORT void JNICALL Java_vowpalWabbit_learner_VWLearners_performRemainingPass
 JNIEXPORT void JNICALL Java_vowpalWabbit_learner_VWLearners_saveModel
   (JNIEnv *, jclass, jlong, jstring);
 
+/*
+ * Class:     vowpalWabbit_learner_VWLearners
+ * Method:    getNativeMemoryStats
+ * Signature: (J)LvowpalWabbit/NativeMemoryStats;
+ */
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWLearners_getNativeMemoryStats
+  (JNIEnv *, jclass, jlong);
+
 #ifdef __cplusplus
 }
 #endif
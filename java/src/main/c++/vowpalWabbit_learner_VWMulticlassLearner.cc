@@ -14,4 +14,34 @@ JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWMulticlassLearner_predictMult
     JNIEnv *env, jobject obj, jobjectArray example_strings, jboolean learn, jlong vwPtr)
 {
   return base_predict<jint>(env, example_strings, learn, vwPtr, multiclass_predictor);
-}
\ No newline at end of file
+}
+
+JNIEXPORT jintArray JNICALL Java_vowpalWabbit_learner_VWMulticlassLearner_predictBatch(
+    JNIEnv *env, jobject obj, jobjectArray example_strings, jboolean learn, jlong vwPtr)
+{
+  return base_predict_int_batch(env, example_strings, learn, vwPtr, multiclass_predictor);
+}
+
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWMulticlassLearner_predictPacked(
+    JNIEnv *env, jobject obj, jstring examples, jboolean learn, jlong vwPtr)
+{
+  return base_predict_packed<jint>(env, examples, learn, vwPtr, multiclass_predictor);
+}
+
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWMulticlassLearner_predictPackedBuffer(
+    JNIEnv *env, jobject obj, jobject examples, jint position, jint length, jboolean learn, jlong vwPtr)
+{
+  return base_predict_packed_buffer<jint>(env, examples, position, length, learn, vwPtr, multiclass_predictor);
+}
+
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWMulticlassLearner_predictBuffer(
+    JNIEnv *env, jobject obj, jobject example_buffer, jint position, jint length, jboolean learn, jlong vwPtr)
+{
+  return base_predict_buffer<jint>(env, example_buffer, position, length, learn, vwPtr, multiclass_predictor);
+}
+
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWMulticlassLearner_predictMultilineBuffer(
+    JNIEnv *env, jobject obj, jobject example_buffer, jint position, jintArray offsets, jboolean learn, jlong vwPtr)
+{
+  return base_predict_multiline_buffer<jint>(env, example_buffer, position, offsets, learn, vwPtr, multiclass_predictor);
+}
@@ -24,6 +24,46 @@ JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWMulticlassLearner_predict
 JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWMulticlassLearner_predictMultiline
 (JNIEnv *, jobject, jobjectArray, jboolean, jlong);
 
+/*
+ * Class:     vowpalWabbit_learner_VWMulticlassLearner
+ * Method:    predictBatch
+ * Signature: ([Ljava/lang/String;ZJ)[I
+ */
+JNIEXPORT jintArray JNICALL Java_vowpalWabbit_learner_VWMulticlassLearner_predictBatch
+(JNIEnv *, jobject, jobjectArray, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWMulticlassLearner
+ * Method:    predictPacked
+ * Signature: (Ljava/lang/String;ZJ)I
+ */
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWMulticlassLearner_predictPacked
+(JNIEnv *, jobject, jstring, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWMulticlassLearner
+ * Method:    predictPackedBuffer
+ * Signature: (Ljava/nio/ByteBuffer;IIZJ)I
+ */
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWMulticlassLearner_predictPackedBuffer
+(JNIEnv *, jobject, jobject, jint, jint, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWMulticlassLearner
+ * Method:    predictBuffer
+ * Signature: (Ljava/nio/ByteBuffer;IIZJ)I
+ */
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWMulticlassLearner_predictBuffer
+(JNIEnv *, jobject, jobject, jint, jint, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWMulticlassLearner
+ * Method:    predictMultilineBuffer
+ * Signature: (Ljava/nio/ByteBuffer;I[IZJ)I
+ */
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWMulticlassLearner_predictMultilineBuffer
+(JNIEnv *, jobject, jobject, jint, jintArray, jboolean, jlong);
+
 #ifdef __cplusplus
 }
 #endif
@@ -1,6 +1,7 @@
 #include "vowpalWabbit_learner_VWMultilabelsLearner.h"
 #include "vw.h"
 #include "jni_base_learner.h"
+#include "jni_cache.h"
 
 jobject multilabel_predictor(example *vec, JNIEnv *env)
 {
@@ -9,9 +10,7 @@ jobject multilabel_predictor(example *vec, JNIEnv *env)
   jintArray j_labels = env->NewIntArray(num_values);
   env->SetIntArrayRegion(j_labels, 0, num_values, (int *)labels.begin());
 
-  jclass clazz = env->FindClass("vowpalWabbit/responses/Multilabels");
-  jmethodID constructor = env->GetMethodID(clazz, "<init>", "([I)V");
-  return env->NewObject(clazz, constructor, j_labels);
+  return env->NewObject(JNI_CACHE.multilabels_class, JNI_CACHE.multilabels_ctor, j_labels);
 }
 
 JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predict(
@@ -25,3 +24,54 @@ JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predict
 {
   return base_predict<jobject>(env, example_strings, learn, vwPtr, multilabel_predictor);
 }
+
+JNIEXPORT jobjectArray JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predictBatch(
+    JNIEnv *env, jobject obj, jobjectArray example_strings, jboolean learn, jlong vwPtr)
+{
+  return base_predict_object_batch(
+      env, example_strings, learn, vwPtr, multilabel_predictor, JNI_CACHE.multilabels_class);
+}
+
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predictPacked(
+    JNIEnv *env, jobject obj, jstring examples, jboolean learn, jlong vwPtr)
+{
+  return base_predict_packed<jobject>(env, examples, learn, vwPtr, multilabel_predictor);
+}
+
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predictPackedBuffer(
+    JNIEnv *env, jobject obj, jobject examples, jint position, jint length, jboolean learn, jlong vwPtr)
+{
+  return base_predict_packed_buffer<jobject>(env, examples, position, length, learn, vwPtr, multilabel_predictor);
+}
+
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predictBuffer(
+    JNIEnv *env, jobject obj, jobject example_buffer, jint position, jint length, jboolean learn, jlong vwPtr)
+{
+  return base_predict_buffer<jobject>(env, example_buffer, position, length, learn, vwPtr, multilabel_predictor);
+}
+
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predictMultilineBuffer(
+    JNIEnv *env, jobject obj, jobject example_buffer, jint position, jintArray offsets, jboolean learn, jlong vwPtr)
+{
+  return base_predict_multiline_buffer<jobject>(env, example_buffer, position, offsets, learn, vwPtr, multilabel_predictor);
+}
+
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predictIntoArray(
+    JNIEnv *env, jobject obj, jstring example_string, jintArray out, jboolean learn, jlong vwPtr)
+{
+  auto predictor = [out](example *vec, JNIEnv *env) {
+    auto& values = vec->pred.multilabels.label_v;
+    return copy_values(env, values.begin(), values.size(), out);
+  };
+  return base_predict<jint>(env, example_string, learn, vwPtr, predictor);
+}
+
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predictIntoBuffer(JNIEnv *env, jobject obj, jstring example_string,
+    jobject out, jint position, jint length, jboolean learn, jlong vwPtr)
+{
+  auto predictor = [out, position, length](example *vec, JNIEnv *env) {
+    auto& values = vec->pred.multilabels.label_v;
+    return copy_values(env, values.begin(), values.size(), out, position, length);
+  };
+  return base_predict<jint>(env, example_string, learn, vwPtr, predictor);
+}
@@ -24,6 +24,62 @@ JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predict
 JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predictMultiline
 (JNIEnv *, jobject, jobjectArray, jboolean, jlong);
 
+/*
+ * Class:     vowpalWabbit_learner_VWMultilabelsLearner
+ * Method:    predictBatch
+ * Signature: ([Ljava/lang/String;ZJ)[LvowpalWabbit/responses/Multilabels;
+ */
+JNIEXPORT jobjectArray JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predictBatch
+(JNIEnv *, jobject, jobjectArray, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWMultilabelsLearner
+ * Method:    predictPacked
+ * Signature: (Ljava/lang/String;ZJ)LvowpalWabbit/responses/Multilabels;
+ */
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predictPacked
+(JNIEnv *, jobject, jstring, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWMultilabelsLearner
+ * Method:    predictPackedBuffer
+ * Signature: (Ljava/nio/ByteBuffer;IIZJ)LvowpalWabbit/responses/Multilabels;
+ */
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predictPackedBuffer
+(JNIEnv *, jobject, jobject, jint, jint, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWMultilabelsLearner
+ * Method:    predictBuffer
+ * Signature: (Ljava/nio/ByteBuffer;IIZJ)LvowpalWabbit/responses/Multilabels;
+ */
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predictBuffer
+(JNIEnv *, jobject, jobject, jint, jint, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWMultilabelsLearner
+ * Method:    predictMultilineBuffer
+ * Signature: (Ljava/nio/ByteBuffer;I[IZJ)LvowpalWabbit/responses/Multilabels;
+ */
+JNIEXPORT jobject JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predictMultilineBuffer
+(JNIEnv *, jobject, jobject, jint, jintArray, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWMultilabelsLearner
+ * Method:    predictIntoArray
+ * Signature: (Ljava/lang/String;[IZJ)I
+ */
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predictIntoArray
+(JNIEnv *, jobject, jstring, jintArray, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWMultilabelsLearner
+ * Method:    predictIntoBuffer
+ * Signature: (Ljava/lang/String;Ljava/nio/IntBuffer;IIZJ)I
+ */
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWMultilabelsLearner_predictIntoBuffer
+(JNIEnv *, jobject, jstring, jobject, jint, jint, jboolean, jlong);
+
 #ifdef __cplusplus
 }
 #endif
@@ -24,6 +24,46 @@ JNIEXPORT jfloat JNICALL Java_vowpalWabbit_learner_VWProbLearner_predict
 JNIEXPORT jfloat JNICALL Java_vowpalWabbit_learner_VWProbLearner_predictMultiline
 (JNIEnv *, jobject, jobjectArray, jboolean, jlong);
 
+/*
+ * Class:     vowpalWabbit_learner_VWProbLearner
+ * Method:    predictBatch
+ * Signature: ([Ljava/lang/String;ZJ)[F
+ */
+JNIEXPORT jfloatArray JNICALL Java_vowpalWabbit_learner_VWProbLearner_predictBatch
+(JNIEnv *, jobject, jobjectArray, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWProbLearner
+ * Method:    predictPacked
+ * Signature: (Ljava/lang/String;ZJ)F
+ */
+JNIEXPORT jfloat JNICALL Java_vowpalWabbit_learner_VWProbLearner_predictPacked
+(JNIEnv *, jobject, jstring, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWProbLearner
+ * Method:    predictPackedBuffer
+ * Signature: (Ljava/nio/ByteBuffer;IIZJ)F
+ */
+JNIEXPORT jfloat JNICALL Java_vowpalWabbit_learner_VWProbLearner_predictPackedBuffer
+(JNIEnv *, jobject, jobject, jint, jint, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWProbLearner
+ * Method:    predictBuffer
+ * Signature: (Ljava/nio/ByteBuffer;IIZJ)F
+ */
+JNIEXPORT jfloat JNICALL Java_vowpalWabbit_learner_VWProbLearner_predictBuffer
+(JNIEnv *, jobject, jobject, jint, jint, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWProbLearner
+ * Method:    predictMultilineBuffer
+ * Signature: (Ljava/nio/ByteBuffer;I[IZJ)F
+ */
+JNIEXPORT jfloat JNICALL Java_vowpalWabbit_learner_VWProbLearner_predictMultilineBuffer
+(JNIEnv *, jobject, jobject, jint, jintArray, jboolean, jlong);
+
 #ifdef __cplusplus
 }
 #endif
@@ -14,4 +14,34 @@ JNIEXPORT jfloat JNICALL Java_vowpalWabbit_learner_VWScalarLearner_predictMultil
     JNIEnv *env, jobject obj, jobjectArray example_strings, jboolean learn, jlong vwPtr)
 {
   return base_predict<jfloat>(env, example_strings, learn, vwPtr, scalar_predictor);
-}
\ No newline at end of file
+}
+
+JNIEXPORT jfloatArray JNICALL Java_vowpalWabbit_learner_VWScalarLearner_predictBatch(
+    JNIEnv *env, jobject obj, jobjectArray example_strings, jboolean learn, jlong vwPtr)
+{
+  return base_predict_float_batch(env, example_strings, learn, vwPtr, scalar_predictor);
+}
+
+JNIEXPORT jfloat JNICALL Java_vowpalWabbit_learner_VWScalarLearner_predictPacked(
+    JNIEnv *env, jobject obj, jstring examples, jboolean learn, jlong vwPtr)
+{
+  return base_predict_packed<jfloat>(env, examples, learn, vwPtr, scalar_predictor);
+}
+
+JNIEXPORT jfloat JNICALL Java_vowpalWabbit_learner_VWScalarLearner_predictPackedBuffer(
+    JNIEnv *env, jobject obj, jobject examples, jint position, jint length, jboolean learn, jlong vwPtr)
+{
+  return base_predict_packed_buffer<jfloat>(env, examples, position, length, learn, vwPtr, scalar_predictor);
+}
+
+JNIEXPORT jfloat JNICALL Java_vowpalWabbit_learner_VWScalarLearner_predictBuffer(
+    JNIEnv *env, jobject obj, jobject example_buffer, jint position, jint length, jboolean learn, jlong vwPtr)
+{
+  return base_predict_buffer<jfloat>(env, example_buffer, position, length, learn, vwPtr, scalar_predictor);
+}
+
+JNIEXPORT jfloat JNICALL Java_vowpalWabbit_learner_VWScalarLearner_predictMultilineBuffer(
+    JNIEnv *env, jobject obj, jobject example_buffer, jint position, jintArray offsets, jboolean learn, jlong vwPtr)
+{
+  return base_predict_multiline_buffer<jfloat>(env, example_buffer, position, offsets, learn, vwPtr, scalar_predictor);
+}
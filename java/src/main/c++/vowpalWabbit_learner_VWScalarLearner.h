@@ -24,6 +24,46 @@ JNIEXPORT jfloat JNICALL Java_vowpalWabbit_learner_VWScalarLearner_predict
 JNIEXPORT jfloat JNICALL Java_vowpalWabbit_learner_VWScalarLearner_predictMultiline
 (JNIEnv *, jobject, jobjectArray, jboolean, jlong);
 
+/*
+ * Class:     vowpalWabbit_learner_VWScalarLearner
+ * Method:    predictBatch
+ * Signature: ([Ljava/lang/String;ZJ)[F
+ */
+JNIEXPORT jfloatArray JNICALL Java_vowpalWabbit_learner_VWScalarLearner_predictBatch
+(JNIEnv *, jobject, jobjectArray, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWScalarLearner
+ * Method:    predictPacked
+ * Signature: (Ljava/lang/String;ZJ)F
+ */
+JNIEXPORT jfloat JNICALL Java_vowpalWabbit_learner_VWScalarLearner_predictPacked
+(JNIEnv *, jobject, jstring, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWScalarLearner
+ * Method:    predictPackedBuffer
+ * Signature: (Ljava/nio/ByteBuffer;IIZJ)F
+ */
+JNIEXPORT jfloat JNICALL Java_vowpalWabbit_learner_VWScalarLearner_predictPackedBuffer
+(JNIEnv *, jobject, jobject, jint, jint, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWScalarLearner
+ * Method:    predictBuffer
+ * Signature: (Ljava/nio/ByteBuffer;IIZJ)F
+ */
+JNIEXPORT jfloat JNICALL Java_vowpalWabbit_learner_VWScalarLearner_predictBuffer
+(JNIEnv *, jobject, jobject, jint, jint, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWScalarLearner
+ * Method:    predictMultilineBuffer
+ * Signature: (Ljava/nio/ByteBuffer;I[IZJ)F
+ */
+JNIEXPORT jfloat JNICALL Java_vowpalWabbit_learner_VWScalarLearner_predictMultilineBuffer
+(JNIEnv *, jobject, jobject, jint, jintArray, jboolean, jlong);
+
 #ifdef __cplusplus
 }
 #endif
@@ -1,6 +1,7 @@
 #include "vowpalWabbit_learner_VWScalarsLearner.h"
 #include "vw.h"
 #include "jni_base_learner.h"
+#include "jni_cache.h"
 
 jfloatArray scalars_predictor(example *vec, JNIEnv *env)
 {
@@ -22,3 +23,53 @@ JNIEXPORT jfloatArray JNICALL Java_vowpalWabbit_learner_VWScalarsLearner_predict
 {
   return base_predict<jfloatArray>(env, example_strings, learn, vwPtr, scalars_predictor);
 }
+
+JNIEXPORT jobjectArray JNICALL Java_vowpalWabbit_learner_VWScalarsLearner_predictBatch(
+    JNIEnv *env, jobject obj, jobjectArray example_strings, jboolean learn, jlong vwPtr)
+{
+  return base_predict_object_batch(env, example_strings, learn, vwPtr, scalars_predictor, JNI_CACHE.float_array_class);
+}
+
+JNIEXPORT jfloatArray JNICALL Java_vowpalWabbit_learner_VWScalarsLearner_predictPacked(
+    JNIEnv *env, jobject obj, jstring examples, jboolean learn, jlong vwPtr)
+{
+  return base_predict_packed<jfloatArray>(env, examples, learn, vwPtr, scalars_predictor);
+}
+
+JNIEXPORT jfloatArray JNICALL Java_vowpalWabbit_learner_VWScalarsLearner_predictPackedBuffer(
+    JNIEnv *env, jobject obj, jobject examples, jint position, jint length, jboolean learn, jlong vwPtr)
+{
+  return base_predict_packed_buffer<jfloatArray>(env, examples, position, length, learn, vwPtr, scalars_predictor);
+}
+
+JNIEXPORT jfloatArray JNICALL Java_vowpalWabbit_learner_VWScalarsLearner_predictBuffer(
+    JNIEnv *env, jobject obj, jobject example_buffer, jint position, jint length, jboolean learn, jlong vwPtr)
+{
+  return base_predict_buffer<jfloatArray>(env, example_buffer, position, length, learn, vwPtr, scalars_predictor);
+}
+
+JNIEXPORT jfloatArray JNICALL Java_vowpalWabbit_learner_VWScalarsLearner_predictMultilineBuffer(
+    JNIEnv *env, jobject obj, jobject example_buffer, jint position, jintArray offsets, jboolean learn, jlong vwPtr)
+{
+  return base_predict_multiline_buffer<jfloatArray>(env, example_buffer, position, offsets, learn, vwPtr, scalars_predictor);
+}
+
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWScalarsLearner_predictIntoArray(
+    JNIEnv *env, jobject obj, jstring example_string, jfloatArray out, jboolean learn, jlong vwPtr)
+{
+  auto predictor = [out](example *vec, JNIEnv *env) {
+    auto& values = vec->pred.scalars;
+    return copy_values(env, values.begin(), values.size(), out);
+  };
+  return base_predict<jint>(env, example_string, learn, vwPtr, predictor);
+}
+
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWScalarsLearner_predictIntoBuffer(JNIEnv *env, jobject obj, jstring example_string,
+    jobject out, jint position, jint length, jboolean learn, jlong vwPtr)
+{
+  auto predictor = [out, position, length](example *vec, JNIEnv *env) {
+    auto& values = vec->pred.scalars;
+    return copy_values(env, values.begin(), values.size(), out, position, length);
+  };
+  return base_predict<jint>(env, example_string, learn, vwPtr, predictor);
+}
@@ -24,6 +24,62 @@ JNIEXPORT jfloatArray JNICALL Java_vowpalWabbit_learner_VWScalarsLearner_predict
 JNIEXPORT jfloatArray JNICALL Java_vowpalWabbit_learner_VWScalarsLearner_predictMultiline
 (JNIEnv *, jobject, jobjectArray, jboolean, jlong);
 
+/*
+ * Class:     vowpalWabbit_learner_VWScalarsLearner
+ * Method:    predictBatch
+ * Signature: ([Ljava/lang/String;ZJ)[[F
+ */
+JNIEXPORT jobjectArray JNICALL Java_vowpalWabbit_learner_VWScalarsLearner_predictBatch
+(JNIEnv *, jobject, jobjectArray, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWScalarsLearner
+ * Method:    predictPacked
+ * Signature: (Ljava/lang/String;ZJ)[F
+ */
+JNIEXPORT jfloatArray JNICALL Java_vowpalWabbit_learner_VWScalarsLearner_predictPacked
+(JNIEnv *, jobject, jstring, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWScalarsLearner
+ * Method:    predictPackedBuffer
+ * Signature: (Ljava/nio/ByteBuffer;IIZJ)[F
+ */
+JNIEXPORT jfloatArray JNICALL Java_vowpalWabbit_learner_VWScalarsLearner_predictPackedBuffer
+(JNIEnv *, jobject, jobject, jint, jint, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWScalarsLearner
+ * Method:    predictBuffer
+ * Signature: (Ljava/nio/ByteBuffer;IIZJ)[F
+ */
+JNIEXPORT jfloatArray JNICALL Java_vowpalWabbit_learner_VWScalarsLearner_predictBuffer
+(JNIEnv *, jobject, jobject, jint, jint, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWScalarsLearner
+ * Method:    predictMultilineBuffer
+ * Signature: (Ljava/nio/ByteBuffer;I[IZJ)[F
+ */
+JNIEXPORT jfloatArray JNICALL Java_vowpalWabbit_learner_VWScalarsLearner_predictMultilineBuffer
+(JNIEnv *, jobject, jobject, jint, jintArray, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWScalarsLearner
+ * Method:    predictIntoArray
+ * Signature: (Ljava/lang/String;[FZJ)I
+ */
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWScalarsLearner_predictIntoArray
+(JNIEnv *, jobject, jstring, jfloatArray, jboolean, jlong);
+
+/*
+ * Class:     vowpalWabbit_learner_VWScalarsLearner
+ * Method:    predictIntoBuffer
+ * Signature: (Ljava/lang/String;Ljava/nio/FloatBuffer;IIZJ)I
+ */
+JNIEXPORT jint JNICALL Java_vowpalWabbit_learner_VWScalarsLearner_predictIntoBuffer
+(JNIEnv *, jobject, jstring, jobject, jint, jint, jboolean, jlong);
+
 #ifdef __cplusplus
 }
 #endif
@@ -0,0 +1,261 @@
+package org.vowpalwabbit.spark;
+
+/**
+ * A bounded cache of feature indices for skewed categorical features. Hashing
+ * a feature name encodes it to UTF-8 and runs murmur hash over it, for hot
+ * features which are hashed again and again the cache replaces this by a
+ * cheaper 64-bit fingerprint of the name and a lookup.
+ * 
+ * <p>
+ * The cache maps (namespace hash, feature name) to the masked VW index
+ * {@code VowpalWabbitMurmur.hash(name, namespaceHash) & ((1 << numBits) - 1)}.
+ * Entries are stored in primitive arrays, an open-addressed table of
+ * fingerprints with linear probing, so the cache adds no objects per entry
+ * for the garbage collector to trace. The table is sized to fit
+ * {@code maxBytes}, once it is full the CLOCK algorithm evicts an entry which
+ * hasn't been hit since the clock hand last passed it. New entries start out
+ * unreferenced, so a flood of one-off features doesn't push out the hot ones.
+ * </p>
+ * 
+ * <p>
+ * Names are identified by their fingerprint only. Two names with the same
+ * fingerprint share an index, which for 64-bit fingerprints is far less
+ * likely than two features colliding in the VW weight table.
+ * </p>
+ * 
+ * <p>
+ * Note: Instances are not thread-safe, use one cache per thread.
+ * </p>
+ */
+public final class FeatureHashCache {
+    private static final long EMPTY = 0L;
+
+    private static final int MIN_SLOTS = 16;
+
+    private final int mask;
+    private final int slotMask;
+    private final int maxEntries;
+
+    private final long[] fingerprints;
+    private final int[] indices;
+    private final long[] referenced;
+
+    private int size;
+    private int hand;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * @param numBits  the number of bits of the VW weight table, see
+     *                 {@link VowpalWabbitArguments#getNumBits()}.
+     * @param maxBytes the memory the cache may use, at least enough for 16
+     *                 slots (200 bytes).
+     */
+    public FeatureHashCache(int numBits, long maxBytes) {
+        if (numBits < 1 || numBits > 32) {
+            throw new IllegalArgumentException("numBits must be in [1, 32], got " + numBits + ".");
+        }
+        if (maxBytes < memoryBytes(MIN_SLOTS)) {
+            throw new IllegalArgumentException(
+                    "maxBytes must be at least " + memoryBytes(MIN_SLOTS) + ", got " + maxBytes + ".");
+        }
+
+        int slots = MIN_SLOTS;
+        while (slots < (1 << 30) && memoryBytes(2 * slots) <= maxBytes) {
+            slots *= 2;
+        }
+
+        this.mask = numBits == 32 ? -1 : (1 << numBits) - 1;
+        this.slotMask = slots - 1;
+        // linear probing degrades quickly beyond a load factor of 3/4
+        this.maxEntries = slots / 4 * 3;
+        this.fingerprints = new long[slots];
+        this.indices = new int[slots];
+        this.referenced = new long[slots / 64 + 1];
+    }
+
+    /**
+     * @return the bytes used by a table of {@code slots} fingerprints, indices and
+     *         reference bits.
+     */
+    private static long memoryBytes(int slots) {
+        return 8L * slots + 4L * slots + 8L * (slots / 64 + 1);
+    }
+
+    /**
+     * Returns the masked VW index of {@code name} in the namespace with the
+     * given hash, computing and caching it on a miss.
+     * 
+     * @param namespaceHash the hash of the namespace, used as the seed.
+     * @param name          the feature name.
+     * @return {@code VowpalWabbitMurmur.hash(name, namespaceHash) & ((1 << numBits) - 1)}.
+     */
+    public int getIndex(int namespaceHash, CharSequence name) {
+        long fingerprint = fingerprint(namespaceHash, name);
+        int slot = (int) fingerprint & this.slotMask;
+        for (long f; (f = this.fingerprints[slot]) != EMPTY; slot = (slot + 1) & this.slotMask) {
+            if (f == fingerprint) {
+                this.hits++;
+                this.referenced[slot >>> 6] |= 1L << slot;
+                return this.indices[slot];
+            }
+        }
+
+        this.misses++;
+        int index = VowpalWabbitMurmur.hash(name, namespaceHash) & this.mask;
+
+        if (this.size == this.maxEntries) {
+            evict();
+            // the eviction may have shifted entries into the probe sequence
+            slot = (int) fingerprint & this.slotMask;
+            while (this.fingerprints[slot] != EMPTY) {
+                slot = (slot + 1) & this.slotMask;
+            }
+        }
+
+        this.fingerprints[slot] = fingerprint;
+        this.indices[slot] = index;
+        this.size++;
+        return index;
+    }
+
+    /**
+     * Advances the clock hand to the first entry which hasn't been hit since the
+     * hand last passed it and removes it. Entries passed on the way lose their
+     * reference.
+     */
+    private void evict() {
+        while (true) {
+            this.hand = (this.hand + 1) & this.slotMask;
+            if (this.fingerprints[this.hand] == EMPTY) {
+                continue;
+            }
+            long bit = 1L << this.hand;
+            if ((this.referenced[this.hand >>> 6] & bit) != 0) {
+                this.referenced[this.hand >>> 6] &= ~bit;
+                continue;
+            }
+            remove(this.hand);
+            this.evictions++;
+            return;
+        }
+    }
+
+    /**
+     * Removes the entry in {@code slot}, shifting later entries of the same probe
+     * sequences back so that lookups don't stop at the hole.
+     */
+    private void remove(int slot) {
+        int hole = slot;
+        for (int i = (slot + 1) & this.slotMask; this.fingerprints[i] != EMPTY; i = (i + 1) & this.slotMask) {
+            int home = (int) this.fingerprints[i] & this.slotMask;
+            // the entry may move if the hole lies between its home slot and its current slot
+            if (((i - home) & this.slotMask) >= ((i - hole) & this.slotMask)) {
+                this.fingerprints[hole] = this.fingerprints[i];
+                this.indices[hole] = this.indices[i];
+                setReferenced(hole, (this.referenced[i >>> 6] & (1L << i)) != 0);
+                hole = i;
+            }
+        }
+        this.fingerprints[hole] = EMPTY;
+        setReferenced(hole, false);
+        this.size--;
+    }
+
+    private void setReferenced(int slot, boolean value) {
+        if (value) {
+            this.referenced[slot >>> 6] |= 1L << slot;
+        } else {
+            this.referenced[slot >>> 6] &= ~(1L << slot);
+        }
+    }
+
+    /**
+     * FNV-1a over the namespace hash and the UTF-16 code units of the name,
+     * followed by the murmur3 64-bit finalizer so that the low bits can be used
+     * as the slot.
+     */
+    private static long fingerprint(int namespaceHash, CharSequence name) {
+        long h = 0xcbf29ce484222325L ^ namespaceHash;
+        h *= 0x100000001b3L;
+        for (int i = 0, n = name.length(); i < n; i++) {
+            h ^= name.charAt(i);
+            h *= 0x100000001b3L;
+        }
+
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == EMPTY ? 1L : h;
+    }
+
+    /**
+     * @return the number of cached entries.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return the number of entries the cache holds before it starts evicting.
+     */
+    public int capacity() {
+        return this.maxEntries;
+    }
+
+    /**
+     * @return the memory used by the cache's arrays.
+     */
+    public long getMemoryBytes() {
+        return memoryBytes(this.fingerprints.length);
+    }
+
+    /**
+     * @return the number of lookups answered from the cache.
+     */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * @return the number of lookups which had to hash the name.
+     */
+    public long getMisses() {
+        return this.misses;
+    }
+
+    /**
+     * @return the number of entries evicted to make room for new ones.
+     */
+    public long getEvictions() {
+        return this.evictions;
+    }
+
+    /**
+     * @return the fraction of lookups answered from the cache, 0 if there were
+     *         none.
+     */
+    public double getHitRate() {
+        long lookups = this.hits + this.misses;
+        return lookups == 0 ? 0 : (double) this.hits / lookups;
+    }
+
+    /**
+     * Resets the hit, miss and eviction counts, the cached entries are kept.
+     */
+    public void resetStatistics() {
+        this.hits = 0;
+        this.misses = 0;
+        this.evictions = 0;
+    }
+
+    @Override
+    public String toString() {
+        return "FeatureHashCache{size=" + this.size + ", capacity=" + this.maxEntries + ", hitRate="
+                + getHitRate() + ", evictions=" + this.evictions + "}";
+    }
+}
@@ -0,0 +1,371 @@
+package org.vowpalwabbit.spark;
+
+import java.util.Arrays;
+
+/**
+ * Hashes named features the way the VW text parser ({@code VW::read_example})
+ * does, so that an example built from names and values in Java learns and
+ * predicts exactly like the same example parsed from text. For example
+ *
+ * <pre>
+ * 1 |user age:0.5 US |item:2.0 1234
+ * </pre>
+ *
+ * is built by
+ *
+ * <pre>
+ * builder.namespace("user");
+ * builder.addFeature("age", 0.5f);
+ * builder.addFeature("US");
+ * builder.namespace("item", 2.0f);
+ * builder.addFeature("1234");
+ * builder.addTo(example);
+ * example.setLabel(1);
+ * </pre>
+ *
+ * <p>
+ * The following parts of the text format are reproduced:
+ * </p>
+ * <ul>
+ * <li>the namespace is identified by the first byte of the UTF-8 encoding of
+ * its name, the default namespace by a space.</li>
+ * <li>namespace and feature names are hashed with the hash function selected
+ * by {@code --hash}. {@code strings}, the default, strips leading and trailing
+ * whitespace and maps names consisting of digits only to their value plus the
+ * seed. {@code all} hashes every name.</li>
+ * <li>the default namespace is seeded by {@code --hash_seed} only, a named
+ * namespace by the hash of its name.</li>
+ * <li>features with an empty name are anonymous, they are numbered in the
+ * order they are added to the namespace.</li>
+ * <li>feature values are scaled by the namespace value, features with a value
+ * of 0 are dropped.</li>
+ * <li>{@code --chain_hash} hashes string valued features as the name chained
+ * with the value.</li>
+ * </ul>
+ *
+ * <p>
+ * The constant feature, interactions and n-grams are added natively when the
+ * example is learned or predicted and are not added by the builder.
+ * {@code --affix}, {@code --spelling}, {@code --dictionary} and
+ * {@code --redefine} rewrite features while parsing and are not supported.
+ * </p>
+ *
+ * <p>
+ * Anonymous features are masked to the weight table like all other features
+ * added through {@link VowpalWabbitExample}, the text parser keeps their
+ * unmasked index. Both select the same weights.
+ * </p>
+ *
+ * <p>
+ * Note: Instances are not thread-safe, use one builder per thread.
+ * </p>
+ */
+public final class VWFeatureBuilder {
+    private static final String[] UNSUPPORTED_OPTIONS = new String[] { "affix", "spelling", "dictionary", "redefine" };
+
+    private final int mask;
+    private final int hashSeed;
+    private final boolean hashAll;
+    private final boolean chainHash;
+
+    // the features added since the last call to addTo(), in the layout of VowpalWabbitExample.addToNamespaces()
+    private char[] namespaces = new char[8];
+    private int[] offsets = new int[9];
+    private int numNamespaces;
+
+    private int[] indices = new int[64];
+    private double[] values = new double[64];
+    private int numFeatures;
+
+    // the namespace features are currently added to
+    private int namespaceHash;
+    private float namespaceValue;
+    private int anonymous;
+
+    /**
+     * Configures hashing from the command line of a VW instance, see
+     * {@link VowpalWabbitNative#getArguments()}.
+     *
+     * @param arguments the arguments of the VW instance the examples are built
+     *                  for.
+     * @throws IllegalArgumentException if the command line contains an option
+     *                                  that rewrites features while parsing.
+     */
+    public VWFeatureBuilder(VowpalWabbitArguments arguments) {
+        this(arguments.getNumBits(), arguments.getHashSeed(), isHashAll(arguments.getArgs()),
+                hasOption(arguments.getArgs(), "chain_hash"));
+
+        for (String option : UNSUPPORTED_OPTIONS) {
+            if (hasOption(arguments.getArgs(), option)) {
+                throw new IllegalArgumentException("--" + option + " is not supported by VWFeatureBuilder.");
+            }
+        }
+    }
+
+    /**
+     * @param numBits   the number of bits of the weight table, see
+     *                  {@code -b}.
+     * @param hashSeed  the seed of the hash function, see {@code --hash_seed}.
+     * @param hashAll   true for {@code --hash all}, false for
+     *                  {@code --hash strings}.
+     * @param chainHash true for {@code --chain_hash}.
+     */
+    public VWFeatureBuilder(int numBits, int hashSeed, boolean hashAll, boolean chainHash) {
+        if (numBits < 1 || numBits > 32) {
+            throw new IllegalArgumentException("numBits must be in [1, 32], got " + numBits + ".");
+        }
+
+        this.mask = numBits == 32 ? -1 : (1 << numBits) - 1;
+        this.hashSeed = hashSeed;
+        this.hashAll = hashAll;
+        this.chainHash = chainHash;
+    }
+
+    private static boolean hasOption(String args, String name) {
+        for (String token : args.trim().split("\\s+")) {
+            if (token.equals("--" + name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isHashAll(String args) {
+        String[] tokens = args.trim().split("\\s+");
+        for (int i = 0; i + 1 < tokens.length; i++) {
+            if (tokens[i].equals("--hash")) {
+                if (tokens[i + 1].equals("all")) {
+                    return true;
+                }
+                if (!tokens[i + 1].equals("strings")) {
+                    throw new IllegalArgumentException("Unknown hash function " + tokens[i + 1] + ".");
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hashes {@code s} with the hash function selected by {@code --hash}.
+     *
+     * @param s    the name to hash.
+     * @param seed the seed, for a feature name the hash of its namespace.
+     * @return the unmasked hash.
+     */
+    public int hash(CharSequence s, int seed) {
+        if (hashAll) {
+            return VowpalWabbitMurmur.hash(s, seed);
+        }
+
+        // --hash strings ignores surrounding whitespace...
+        int start = 0;
+        int end = s.length();
+        while (start < end && s.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && s.charAt(end - 1) <= ' ') {
+            end--;
+        }
+
+        // ... and uses the value of numbers as their hash
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return VowpalWabbitMurmur.hash(s, start, end, seed);
+            }
+            value = 10 * value + (c - '0');
+        }
+        return value + seed;
+    }
+
+    /**
+     * @param namespace the name of the namespace, empty for the default
+     *                  namespace.
+     * @return the namespace the features of {@code namespace} are stored in,
+     *         the first byte of its UTF-8 encoding.
+     */
+    public static char getNamespaceIndex(CharSequence namespace) {
+        if (namespace.length() == 0) {
+            return ' ';
+        }
+
+        char c = namespace.charAt(0);
+        if (c < 0x80) {
+            return c;
+        }
+        if (c < 0x800) {
+            return (char) (0xC0 | (c >> 6));
+        }
+        if (Character.isHighSurrogate(c) && namespace.length() > 1 && Character.isLowSurrogate(namespace.charAt(1))) {
+            return (char) (0xF0 | (Character.toCodePoint(c, namespace.charAt(1)) >> 18));
+        }
+        if (Character.isSurrogate(c)) {
+            // unpaired surrogates are encoded as '?'
+            return '?';
+        }
+        return (char) (0xE0 | (c >> 12));
+    }
+
+    /**
+     * @param namespace the name of the namespace, empty for the default
+     *                  namespace.
+     * @return the seed of the feature names in {@code namespace}.
+     */
+    public int getNamespaceHash(CharSequence namespace) {
+        if (namespace.length() == 0) {
+            return hashSeed == 0 ? 0 : VowpalWabbitMurmur.hash("", hashSeed);
+        }
+        return hash(namespace, hashSeed);
+    }
+
+    /**
+     * @param namespaceHash the hash of the namespace, see
+     *                      {@link #getNamespaceHash(CharSequence)}.
+     * @param name          the name of the feature, must not be empty.
+     * @return the masked index of the feature.
+     */
+    public int getFeatureIndex(int namespaceHash, CharSequence name) {
+        if (name.length() == 0) {
+            throw new IllegalArgumentException("Anonymous features have no name to hash.");
+        }
+        return hash(name, namespaceHash) & mask;
+    }
+
+    /**
+     * @param namespaceHash the hash of the namespace, see
+     *                      {@link #getNamespaceHash(CharSequence)}.
+     * @param name          the name of the feature.
+     * @param value         the string value of the feature, must not be empty.
+     * @return the masked index of the feature {@code name:value} with
+     *         {@code --chain_hash}.
+     */
+    public int getFeatureIndex(int namespaceHash, CharSequence name, CharSequence value) {
+        if (value.length() == 0) {
+            throw new IllegalArgumentException("value must not be empty.");
+        }
+        return hash(name, hash(value, namespaceHash)) & mask;
+    }
+
+    /**
+     * Adds the following features to the namespace {@code namespace}, adding to
+     * the same namespace several times is the same as adding all of its
+     * features at once.
+     *
+     * @param namespace the name of the namespace, empty for the default
+     *                  namespace.
+     */
+    public void namespace(CharSequence namespace) {
+        namespace(namespace, 1f);
+    }
+
+    /**
+     * Adds the following features to the namespace {@code namespace}, their
+     * values are multiplied by {@code value} ({@code |namespace:value}).
+     *
+     * @param namespace the name of the namespace, empty for the default
+     *                  namespace.
+     * @param value     the factor of the feature values, NaN is read as 1.
+     */
+    public void namespace(CharSequence namespace, float value) {
+        if (numNamespaces == namespaces.length) {
+            namespaces = Arrays.copyOf(namespaces, 2 * numNamespaces);
+            offsets = Arrays.copyOf(offsets, 2 * numNamespaces + 1);
+        }
+
+        namespaces[numNamespaces] = getNamespaceIndex(namespace);
+        offsets[++numNamespaces] = numFeatures;
+
+        namespaceHash = getNamespaceHash(namespace);
+        namespaceValue = Float.isNaN(value) ? 1f : value;
+        anonymous = 0;
+    }
+
+    /**
+     * Adds the feature {@code name} with the value 1 to the current namespace.
+     *
+     * @param name the name of the feature, empty for an anonymous feature.
+     */
+    public void addFeature(CharSequence name) {
+        addFeature(name, 1f);
+    }
+
+    /**
+     * Adds the feature {@code name:value} to the current namespace.
+     *
+     * @param name  the name of the feature, empty for an anonymous feature.
+     * @param value the value of the feature, NaN is read as 0.
+     */
+    public void addFeature(CharSequence name, float value) {
+        checkNamespace();
+
+        int index;
+        if (name.length() == 0) {
+            // anonymous features are counted even if they are dropped
+            index = namespaceHash + anonymous++;
+        } else {
+            index = hash(name, namespaceHash) & mask;
+        }
+
+        float x = Float.isNaN(value) ? 0f : namespaceValue * value;
+        if (x != 0) {
+            append(index, x);
+        }
+    }
+
+    /**
+     * Adds the string valued feature {@code name:value} to the current
+     * namespace. Requires {@code --chain_hash}, the feature has the value 1
+     * regardless of the namespace value.
+     *
+     * @param name  the name of the feature.
+     * @param value the string value of the feature, must not be empty.
+     */
+    public void addFeature(CharSequence name, CharSequence value) {
+        if (!chainHash) {
+            throw new IllegalStateException("String feature values require --chain_hash.");
+        }
+        checkNamespace();
+        append(getFeatureIndex(namespaceHash, name, value), 1f);
+    }
+
+    private void checkNamespace() {
+        if (numNamespaces == 0) {
+            throw new IllegalStateException("namespace() must be called before adding features.");
+        }
+    }
+
+    private void append(int index, float value) {
+        if (numFeatures == indices.length) {
+            indices = Arrays.copyOf(indices, 2 * numFeatures);
+            values = Arrays.copyOf(values, 2 * numFeatures);
+        }
+
+        indices[numFeatures] = index;
+        values[numFeatures] = value;
+        offsets[numNamespaces] = ++numFeatures;
+    }
+
+    /**
+     * Adds the features to {@code ex} with a single native call and starts over
+     * with an empty builder.
+     *
+     * @param ex the example to add the features to.
+     */
+    public void addTo(VowpalWabbitExample ex) {
+        if (numFeatures > 0) {
+            ex.addToNamespaces(Arrays.copyOf(namespaces, numNamespaces), Arrays.copyOf(offsets, numNamespaces + 1),
+                    indices, values);
+        }
+        clear();
+    }
+
+    /**
+     * Discards the features added since the last call to
+     * {@link #addTo(VowpalWabbitExample)}.
+     */
+    public void clear() {
+        numNamespaces = 0;
+        numFeatures = 0;
+    }
+}
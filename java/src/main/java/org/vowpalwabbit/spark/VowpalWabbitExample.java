@@ -1,6 +1,11 @@
 package org.vowpalwabbit.spark;
 
 import java.io.Closeable;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+import vowpalWabbit.NativeCleaner;
 
 /**
  * A wrapper for the native example data structure.
@@ -18,8 +23,9 @@ public class VowpalWabbitExample implements Closeable {
 
     /**
      * Frees the native resources.
+     * @param nativePointer pointer to the native VowpalWabbitExampleWrapper data structure.
      */
-    private native long finish();
+    private static native void finish(long nativePointer);
 
     /**
      * Clears the features and label.
@@ -43,6 +49,136 @@ public class VowpalWabbitExample implements Closeable {
      */
     public native void addToNamespaceSparse(char ns, int[] indices, double[] values);
 
+    private native void addToNamespaceDenseFloats(char ns, int baseIndex, float[] values, int offset, int length);
+
+    private native void addToNamespaceSparseFloats(char ns, int[] indices, float[] values);
+
+    private native void addToNamespaceDenseBuffer(char ns, int baseIndex, FloatBuffer values, int position, int length);
+
+    private native void addToNamespaceSparseBuffer(char ns, IntBuffer indices, int indicesPosition, FloatBuffer values,
+            int valuesPosition, int length);
+
+    /**
+     * Adds the dense features values to the supplied namespace. VW stores feature values as floats, so this avoids
+     * widening the values to double in Java only to narrow them again natively.
+     * 
+     * @param ns the first character of the namespace.
+     * @param baseIndex the base index for each of the {@code values}.
+     * @param values the feature values.
+     */
+    public void addToNamespaceDense(char ns, int baseIndex, float[] values) {
+        addToNamespaceDenseFloats(ns, baseIndex, values, 0, values.length);
+    }
+
+    /**
+     * Adds the dense features values between the position and limit of {@code values} to the supplied namespace.
+     * The position of {@code values} is not changed. Direct buffers are read in place, without copying and without
+     * entering a JNI critical region, and must use the native byte order. Heap buffers are read from their backing
+     * array.
+     * 
+     * @param ns the first character of the namespace.
+     * @param baseIndex the base index for each of the {@code values}.
+     * @param values the feature values.
+     */
+    public void addToNamespaceDense(char ns, int baseIndex, FloatBuffer values) {
+        if (values.isDirect()) {
+            checkNativeOrder(values.order());
+            addToNamespaceDenseBuffer(ns, baseIndex, values, values.position(), values.remaining());
+        } else if (values.hasArray()) {
+            addToNamespaceDenseFloats(ns, baseIndex, values.array(), values.arrayOffset() + values.position(), values.remaining());
+        } else {
+            float[] copy = new float[values.remaining()];
+            values.duplicate().get(copy);
+            addToNamespaceDenseFloats(ns, baseIndex, copy, 0, copy.length);
+        }
+    }
+
+    /**
+     * Adds the sparse features values to the supplied namespace. VW stores feature values as floats, so this avoids
+     * widening the values to double in Java only to narrow them again natively.
+     * 
+     * @param ns the first character of the namespace.
+     * @param indices the indices of each corresponding feature value.
+     * @param values the feature values.
+     */
+    public void addToNamespaceSparse(char ns, int[] indices, float[] values) {
+        if (indices.length != values.length) {
+            throw new IllegalArgumentException("indices and values must have the same length.");
+        }
+        addToNamespaceSparseFloats(ns, indices, values);
+    }
+
+    /**
+     * Adds the sparse features values between the positions and limits of {@code indices} and {@code values} to the
+     * supplied namespace. The positions of the buffers are not changed. If both buffers are direct they are read in
+     * place, without copying and without entering a JNI critical region, and must use the native byte order.
+     * Otherwise the values are copied into arrays first.
+     * 
+     * @param ns the first character of the namespace.
+     * @param indices the indices of each corresponding feature value.
+     * @param values the feature values.
+     */
+    public void addToNamespaceSparse(char ns, IntBuffer indices, FloatBuffer values) {
+        if (indices.remaining() != values.remaining()) {
+            throw new IllegalArgumentException("indices and values must have the same number of remaining elements.");
+        }
+        if (indices.isDirect() && values.isDirect()) {
+            checkNativeOrder(indices.order());
+            checkNativeOrder(values.order());
+            addToNamespaceSparseBuffer(ns, indices, indices.position(), values, values.position(), values.remaining());
+        } else {
+            int[] indicesCopy = new int[indices.remaining()];
+            indices.duplicate().get(indicesCopy);
+            float[] valuesCopy = new float[values.remaining()];
+            values.duplicate().get(valuesCopy);
+            addToNamespaceSparseFloats(ns, indicesCopy, valuesCopy);
+        }
+    }
+
+    private static void checkNativeOrder(ByteOrder order) {
+        if (order != ByteOrder.nativeOrder()) {
+            throw new IllegalArgumentException("Direct buffers must use the native byte order, " + ByteOrder.nativeOrder() + ".");
+        }
+    }
+
+    /**
+     * Adds the sparse feature values of several namespaces at once, see
+     * {@link #addToNamespaces(char[], int[], int[], double[])}.
+     */
+    private native void addToNamespacesSparse(char[] namespaces, int[] offsets, int[] indices, double[] values);
+
+    /**
+     * Adds the sparse feature values of several namespaces with a single native call. The features are passed in
+     * compressed sparse row layout: the features of {@code namespaces[i]} are {@code indices[j]} and
+     * {@code values[j]} for {@code offsets[i] <= j < offsets[i + 1]}. The same namespace may appear several times.
+     * 
+     * @param ns the first character of each namespace.
+     * @param offsets {@code ns.length + 1} non-decreasing offsets into {@code indices} and {@code values}.
+     * @param indices the indices of each corresponding feature value.
+     * @param values the feature values.
+     */
+    public void addToNamespaces(char[] ns, int[] offsets, int[] indices, double[] values) {
+        if (offsets.length != ns.length + 1) {
+            throw new IllegalArgumentException("offsets must have one more element than namespaces, found "
+                    + offsets.length + " offsets for " + ns.length + " namespaces.");
+        }
+        if (indices.length != values.length) {
+            throw new IllegalArgumentException("indices and values must have the same length.");
+        }
+        if (offsets[0] < 0 || offsets[ns.length] > indices.length) {
+            throw new IllegalArgumentException("offsets must lie between 0 and " + indices.length + ".");
+        }
+        for (int i = 0; i < ns.length; i++) {
+            if (offsets[i + 1] < offsets[i]) {
+                throw new IllegalArgumentException("offsets must be non-decreasing.");
+            }
+            if (ns[i] > 255) {
+                throw new IllegalArgumentException("namespaces must be single byte characters, found " + ns[i] + ".");
+            }
+        }
+        addToNamespacesSparse(ns, offsets, indices, values);
+    }
+
     /**
      * Set the simple label.
      * @param weight weight of this example.
@@ -50,8 +186,79 @@ public class VowpalWabbitExample implements Closeable {
      */
     public native void setLabel(float weight, float label);
 
-    // https://github.com/VowpalWabbit/vowpal_wabbit/blob/master/cs/cli/vw_label.h
-    // TODO: support others too (e.g. multiclass)
+    private native void setMulticlass(float weight, int label);
+
+    private native void setCostSensitive(int[] classes, float[] costs);
+
+    private native void setContextualBandit(int action, float cost, float probability);
+
+    /**
+     * Set the multiclass label, e.g. for --oaa.
+     * @param weight weight of this example.
+     * @param label the class, starting at 1.
+     * @throws IllegalStateException if the associated VW instance does not use multiclass labels.
+     */
+    public void setMulticlassLabel(float weight, int label) {
+        if (label < 1) {
+            throw new IllegalArgumentException("Multiclass labels start at 1, got " + label + ".");
+        }
+        setMulticlass(weight, label);
+    }
+
+    /**
+     * Set the multiclass label using a weight of 1.
+     * @param label the class, starting at 1.
+     * @throws IllegalStateException if the associated VW instance does not use multiclass labels.
+     */
+    public void setMulticlassLabel(int label) {
+        setMulticlassLabel(1f, label);
+    }
+
+    /**
+     * Set the cost-sensitive label, e.g. for --csoaa. Equivalent to the text label
+     * <code>classes[0]:costs[0] classes[1]:costs[1] ...</code>.
+     * @param classes the classes, starting at 1.
+     * @param costs the cost of each class.
+     * @throws IllegalStateException if the associated VW instance does not use cost-sensitive labels.
+     */
+    public void setCostSensitiveLabel(int[] classes, float[] costs) {
+        if (classes.length != costs.length) {
+            throw new IllegalArgumentException(
+                    "Got " + classes.length + " classes but " + costs.length + " costs.");
+        }
+        for (int c : classes) {
+            if (c < 1) {
+                throw new IllegalArgumentException("Cost-sensitive classes start at 1, got " + c + ".");
+            }
+        }
+        setCostSensitive(classes, costs);
+    }
+
+    /**
+     * Set the contextual bandit label, e.g. for --cb. Equivalent to the text label
+     * <code>action:cost:probability</code>.
+     * @param action the action that was taken, starting at 1. Ignored by --cb_adf, where the labeled example
+     *               is the action.
+     * @param cost the observed cost of the action.
+     * @param probability the probability with which the action was taken.
+     * @throws IllegalStateException if the associated VW instance does not use contextual bandit labels.
+     */
+    public void setContextualBanditLabel(int action, float cost, float probability) {
+        if (Float.isNaN(cost)) {
+            throw new IllegalArgumentException("cost must not be NaN.");
+        }
+        if (!(probability >= 0f && probability <= 1f)) {
+            throw new IllegalArgumentException("probability must be in [0, 1], got " + probability + ".");
+        }
+        setContextualBandit(action, cost, probability);
+    }
+
+    /**
+     * Marks this example as the shared example of a multiline contextual bandit
+     * example, e.g. for --cb_adf. Equivalent to the text label <code>shared</code>.
+     * @throws IllegalStateException if the associated VW instance does not use contextual bandit labels.
+     */
+    public native void setSharedLabel();
 
     /**
      * Updates the associated VW model using this example. 
@@ -70,18 +277,62 @@ public class VowpalWabbitExample implements Closeable {
      */
     public native Object predict();
 
+    /**
+     * Predicts the current example without boxing the prediction, e.g. for the default squared loss.
+     * @return the scalar prediction.
+     * @throws IllegalStateException if the associated VW instance does not predict scalars.
+     */
+    public native float predictScalar();
+
+    private native void predictScalarAndConfidence(float[] out);
+
+    /**
+     * Predicts the current example without boxing the prediction, requires --confidence.
+     * @param out receives the prediction at index 0 and the confidence at index 1.
+     * @throws IllegalStateException if the associated VW instance does not predict scalars.
+     */
+    public void predictScalarWithConfidence(float[] out) {
+        if (out.length < 2) {
+            throw new IllegalArgumentException("out must have room for the prediction and the confidence.");
+        }
+        predictScalarAndConfidence(out);
+    }
+
+    /**
+     * Predicts the current example without boxing the prediction, for reductions with the prob prediction type.
+     * Note: --link=logistic produces a scalar prediction, use {@link #predictScalar()} for it.
+     * @return the probability.
+     * @throws IllegalStateException if the associated VW instance does not predict probabilities.
+     */
+    public native float predictProb();
+
+    /**
+     * Predicts the current example without boxing the prediction, e.g. for --oaa.
+     * @return the predicted class, starting at 1.
+     * @throws IllegalStateException if the associated VW instance does not predict a class.
+     */
+    public native int predictMulticlass();
+
     /**
      * Pointer to the native VowpalWabbitExampleWrapper data structure.
      */
     private long nativePointer;
+
+    private final VowpalWabbitNative vw;
+
+    private final NativeCleaner.Cleanable cleanable;
         
     /**
      * Initializes the native VowpalWabbitExampleWrapper data structure.
-     * @param vwNativePointer the associated VW instance.
+     * @param vw the associated VW instance.
      * @param isEmpty true if this should be initialized as new empty (=new-line) example.
      */
-    VowpalWabbitExample(long vwNativePointer, boolean isEmpty) {
-        this.nativePointer = initialize(vwNativePointer, isEmpty);
+    VowpalWabbitExample(VowpalWabbitNative vw, boolean isEmpty) {
+        this.nativePointer = initialize(vw.getNativePointer(), isEmpty);
+        this.vw = vw;
+        Finish finish = new Finish(this.nativePointer, vw);
+        vw.addExample(finish);
+        this.cleanable = NativeCleaner.register(this, finish, "VowpalWabbitExample");
     }
 
     /**
@@ -92,14 +343,55 @@ public class VowpalWabbitExample implements Closeable {
         setLabel(1f, label);
     }
 
+    /**
+     * @return the VW instance this example was created by.
+     */
+    VowpalWabbitNative getVowpalWabbitNative() {
+        return this.vw;
+    }
+
+    /**
+     * @return true if the native resources have been freed.
+     */
+    boolean isClosed() {
+        return this.nativePointer == 0;
+    }
+
     /**
      * Frees the native resources
      */
     @Override
     final public void close() {
         if (this.nativePointer != 0) {
-            finish();
+            this.cleanable.clean();
             this.nativePointer = 0;
         }
     }
+
+    /**
+     * Frees the native example. Must not reference the {@code VowpalWabbitExample} instance, but keeps the associated
+     * VW instance alive as freeing the example requires it. Runs when the example is closed or collected, or when the
+     * VW instance is closed first, whichever happens first.
+     */
+    private static final class Finish implements Runnable {
+        private final long nativePointer;
+        private VowpalWabbitNative vw;
+
+        Finish(long nativePointer, VowpalWabbitNative vw) {
+            this.nativePointer = nativePointer;
+            this.vw = vw;
+        }
+
+        /**
+         * Synchronized so that closing the VW instance waits for the reaper to finish freeing the example.
+         */
+        @Override
+        public synchronized void run() {
+            if (this.vw != null) {
+                finish(this.nativePointer);
+                this.vw.removeExample(this);
+                this.vw = null;
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,134 @@
+package org.vowpalwabbit.spark;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A pool of reusable examples. Creating an example allocates its native data
+ * structure and closing it frees it again, under many threads processing short
+ * lived examples the native allocator becomes a hotspot. Released examples are
+ * cleared and handed out again, their feature storage keeps its capacity and
+ * only grows, so processing rows in a steady state rarely allocates native
+ * memory. VW still shrinks the feature storage to the current row once every
+ * 1024 times an example is cleared, it grows back on the next larger row.
+ * 
+ * <p>
+ * Each thread has its own stack of idle examples, so acquiring and releasing
+ * doesn't contend with other threads. At most {@code maxIdlePerThread}
+ * examples are kept per thread, examples released beyond that are closed.
+ * Examples kept for threads which have terminated are freed when the pool is
+ * closed.
+ * </p>
+ * 
+ * <p>
+ * Use {@link VowpalWabbitNative#createExamplePool(int)} to create a pool. The
+ * pool must be closed before the VW instance.
+ * </p>
+ */
+public final class VowpalWabbitExamplePool implements Closeable {
+    private final VowpalWabbitNative vw;
+
+    private final int maxIdlePerThread;
+
+    /**
+     * The idle examples of each thread. A stack is only used by its thread and by
+     * {@link #close()}.
+     */
+    private final Set<ArrayDeque<VowpalWabbitExample>> stacks = Collections
+            .newSetFromMap(new ConcurrentHashMap<ArrayDeque<VowpalWabbitExample>, Boolean>());
+
+    private final ThreadLocal<ArrayDeque<VowpalWabbitExample>> idle =
+            new ThreadLocal<ArrayDeque<VowpalWabbitExample>>() {
+                @Override
+                protected ArrayDeque<VowpalWabbitExample> initialValue() {
+                    ArrayDeque<VowpalWabbitExample> stack = new ArrayDeque<VowpalWabbitExample>(maxIdlePerThread);
+                    stacks.add(stack);
+                    return stack;
+                }
+            };
+
+    private volatile boolean closed;
+
+    VowpalWabbitExamplePool(VowpalWabbitNative vw, int maxIdlePerThread) {
+        if (maxIdlePerThread < 1) {
+            throw new IllegalArgumentException("maxIdlePerThread must be positive, got " + maxIdlePerThread + ".");
+        }
+        this.vw = vw;
+        this.maxIdlePerThread = maxIdlePerThread;
+    }
+
+    /**
+     * Takes an idle example of the calling thread or creates a new one. The
+     * example is empty and has the default label. It should be handed back using
+     * {@link #release(VowpalWabbitExample)}.
+     * 
+     * @return an example created by the VW instance of this pool.
+     */
+    public VowpalWabbitExample acquire() {
+        if (this.closed) {
+            throw new IllegalStateException("Already closed.");
+        }
+        ArrayDeque<VowpalWabbitExample> stack = this.idle.get();
+        VowpalWabbitExample example;
+        synchronized (stack) {
+            example = stack.pollFirst();
+        }
+        return example != null ? example : this.vw.createExample();
+    }
+
+    /**
+     * Clears {@code example} and keeps it for the calling thread, or closes it if
+     * the thread already keeps {@code maxIdlePerThread} examples. The example
+     * must not be used after it has been released.
+     * 
+     * @param example an example created by the VW instance of this pool.
+     */
+    public void release(VowpalWabbitExample example) {
+        if (example.getVowpalWabbitNative() != this.vw) {
+            throw new IllegalArgumentException("The example was not created by the VW instance of this pool.");
+        }
+        if (example.isClosed()) {
+            throw new IllegalArgumentException("The example is already closed.");
+        }
+        example.clear();
+
+        ArrayDeque<VowpalWabbitExample> stack = this.idle.get();
+        synchronized (stack) {
+            if (!this.closed && stack.size() < this.maxIdlePerThread) {
+                stack.addFirst(example);
+                return;
+            }
+        }
+        example.close();
+    }
+
+    /**
+     * @return the number of idle examples kept for the calling thread.
+     */
+    public int idleCount() {
+        ArrayDeque<VowpalWabbitExample> stack = this.idle.get();
+        synchronized (stack) {
+            return stack.size();
+        }
+    }
+
+    /**
+     * Frees the idle examples of all threads. Examples which are still acquired
+     * are closed when they are released.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        for (ArrayDeque<VowpalWabbitExample> stack : this.stacks) {
+            synchronized (stack) {
+                for (VowpalWabbitExample example : stack) {
+                    example.close();
+                }
+                stack.clear();
+            }
+        }
+    }
+}
@@ -1,7 +1,5 @@
 package org.vowpalwabbit.spark;
 
-import java.nio.charset.StandardCharsets;
-
 /**
  * Java port of VW-style hashing.
  * 
@@ -21,9 +19,109 @@ public class VowpalWabbitMurmur {
     return h;
   }
 
+  private static int mixBlock(int h1, int k1) {
+    k1 *= 0xcc9e2d51;
+    k1 = rotl32(k1, 15);
+    k1 *= 0x1b873593;
+
+    h1 ^= k1;
+    h1 = rotl32(h1, 13);
+    return h1 * 5 + 0xe6546b64;
+  }
+
   public static int hash(String s, int seed) {
-    byte[] d = s.getBytes(StandardCharsets.UTF_8);
-    return hash(d, d.length, seed);
+    return hash((CharSequence) s, seed);
+  }
+
+  /**
+   * Hashes the UTF-8 encoding of {@code s} without materializing it. Produces
+   * the same hash as hashing {@code s.toString().getBytes(StandardCharsets.UTF_8)},
+   * including the '?' substituted for unpaired surrogates.
+   */
+  public static int hash(CharSequence s, int seed) {
+    return hash(s, 0, s.length(), seed);
+  }
+
+  /**
+   * Hashes the UTF-8 encoding of the characters {@code [start, end)} of
+   * {@code s}, without copying them out. Same as
+   * {@code hash(s.subSequence(start, end), seed)}.
+   */
+  public static int hash(CharSequence s, int start, int end, int seed) {
+    int h1 = seed;
+    int k1 = 0;
+    int shift = 0;
+    int len = 0;
+
+    for (int i = start; i < end; i++) {
+      char c = s.charAt(i);
+
+      // the UTF-8 bytes of the current code point, first byte in the lowest bits
+      int utf8;
+      int count;
+      if (c < 0x80) {
+        // fast path for ASCII
+        k1 |= c << shift;
+        shift += 8;
+        len++;
+        if (shift == 32) {
+          h1 = mixBlock(h1, k1);
+          k1 = 0;
+          shift = 0;
+        }
+        continue;
+      } else if (c < 0x800) {
+        utf8 = (0xC0 | (c >> 6)) | (0x80 | (c & 0x3F)) << 8;
+        count = 2;
+      } else if (!Character.isSurrogate(c)) {
+        utf8 = (0xE0 | (c >> 12)) | (0x80 | ((c >> 6) & 0x3F)) << 8 | (0x80 | (c & 0x3F)) << 16;
+        count = 3;
+      } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(s.charAt(i + 1))) {
+        int cp = Character.toCodePoint(c, s.charAt(++i));
+        utf8 = (0xF0 | (cp >> 18)) | (0x80 | ((cp >> 12) & 0x3F)) << 8 | (0x80 | ((cp >> 6) & 0x3F)) << 16
+            | (0x80 | (cp & 0x3F)) << 24;
+        count = 4;
+      } else {
+        // unpaired surrogate, replaced the same way as String.getBytes does
+        utf8 = '?';
+        count = 1;
+      }
+
+      len += count;
+      for (; count > 0; count--) {
+        k1 |= (utf8 & 0xFF) << shift;
+        utf8 >>>= 8;
+        shift += 8;
+        if (shift == 32) {
+          h1 = mixBlock(h1, k1);
+          k1 = 0;
+          shift = 0;
+        }
+      }
+    }
+
+    if (shift > 0) {
+      k1 *= 0xcc9e2d51;
+      k1 = rotl32(k1, 15);
+      k1 *= 0x1b873593;
+      h1 ^= k1;
+    }
+    h1 ^= len;
+    return fmix(h1);
+  }
+
+  /**
+   * Hashes each of {@code names}, {@code out[i]} receives the hash of
+   * {@code names[i]}.
+   */
+  public static void hashAll(CharSequence[] names, int seed, int[] out) {
+    if (out.length < names.length) {
+      throw new IllegalArgumentException(
+          "out has " + out.length + " elements but there are " + names.length + " names.");
+    }
+    for (int i = 0; i < names.length; i++) {
+      out[i] = hash(names[i], seed);
+    }
   }
 
   public static int hash(byte[] data, int len, int seed) {
@@ -35,6 +133,32 @@ public class VowpalWabbitMurmur {
     return VowpalWabbitNative.hash(data, offset, len, seed);
   }
 
+  /**
+   * Hashes many byte sequences with a single call to the native
+   * implementation. Sequence i is stored in
+   * {@code data[offsets[i], offsets[i + 1])} and its hash is written to
+   * {@code out[i]}.
+   */
+  public static void hashNative(byte[] data, int[] offsets, int seed, int[] out) {
+    if (offsets.length == 0) {
+      return;
+    }
+    if (out.length < offsets.length - 1) {
+      throw new IllegalArgumentException(
+          "out has " + out.length + " elements but there are " + (offsets.length - 1) + " sequences.");
+    }
+    if (offsets[0] < 0 || offsets[offsets.length - 1] > data.length) {
+      throw new IllegalArgumentException("offsets must be within data.");
+    }
+    for (int i = 1; i < offsets.length; i++) {
+      if (offsets[i] < offsets[i - 1]) {
+        throw new IllegalArgumentException("offsets must not decrease, offsets[" + i + "] = " + offsets[i] + ".");
+      }
+    }
+    // don't have native code here to avoid native library load if not needed
+    VowpalWabbitNative.hashBatch(data, offsets, seed, out);
+  }
+
   public static int hash(byte[] data, int offset, int len, int seed) {
     int nblocks = len / 4;
     int h1 = seed;
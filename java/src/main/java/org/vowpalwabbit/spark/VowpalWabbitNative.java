@@ -1,13 +1,32 @@
 package org.vowpalwabbit.spark;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import vowpalWabbit.NativeCleaner;
+import vowpalWabbit.NativeMemory;
+import vowpalWabbit.NativeMemoryReporter;
+import vowpalWabbit.NativeMemoryStats;
 
 /**
  * Main wrapper for VowpalWabbit native implementation.
  * 
+ * <p>
+ * If an instance is garbage collected without being closed the native memory is freed by the
+ * {@link NativeCleaner} once all of its examples are freed, and the leak is counted there.
+ * </p>
+ * 
+ * <p>
+ * Closing an instance also frees the examples created by it that have not
+ * been closed yet, they must not be used afterwards.
+ * </p>
+ * 
  * @author Markus Cozowicz
  */
-public class VowpalWabbitNative implements Closeable {
+public class VowpalWabbitNative implements Closeable, NativeMemoryReporter {
     static {
         // load the native libraries
         Native.load();
@@ -56,6 +75,14 @@ public class VowpalWabbitNative implements Closeable {
 
     public native VowpalWabbitPerformanceStatistics getPerformanceStatistics();
 
+    /**
+     * Computes the native memory used by the vw data structure.
+     * 
+     * @param nativePointer pointer to vw data structure defined in global_data.h.
+     * @return the native memory used.
+     */
+    private static native NativeMemoryStats nativeMemoryStats(long nativePointer);
+
     /**
      * Signals the end of the current pass over the data.
      */
@@ -63,8 +90,10 @@ public class VowpalWabbitNative implements Closeable {
 
     /**
      * Free's the vw data structure.
+     * 
+     * @param nativePointer pointer to vw data structure defined in global_data.h.
      */
-    private native void finish();
+    private static native void finish(long nativePointer);
 
     /**
      * Invokes the native implementation of Murmur hash. Exposed through
@@ -72,11 +101,67 @@ public class VowpalWabbitNative implements Closeable {
      */
     static native int hash(byte[] data, int offset, int len, int seed);
 
+    /**
+     * Invokes the native implementation of Murmur hash on many byte sequences.
+     * Exposed through VowpalWabbitMurmur.
+     */
+    static native void hashBatch(byte[] data, int[] offsets, int seed, int[] out);
+
+    /**
+     * Learns from all {@code examples} in a single native call.
+     * 
+     * @param nativePointer pointer to vw data structure defined in global_data.h.
+     * @param examples      examples created by this instance.
+     */
+    private static native void learnBatch(long nativePointer, VowpalWabbitExample[] examples);
+
+    /**
+     * Predicts all {@code examples} in a single native call.
+     * 
+     * @param nativePointer pointer to vw data structure defined in global_data.h.
+     * @param examples      examples created by this instance.
+     * @param out           receives the prediction of {@code examples[i]} at index i.
+     */
+    private static native void predictScalarsBatch(long nativePointer, VowpalWabbitExample[] examples, float[] out);
+
+    /**
+     * Learns from a multiline example.
+     * 
+     * @param nativePointer pointer to vw data structure defined in global_data.h.
+     * @param examples      the lines of the multiline example.
+     */
+    private static native void multilineLearn(long nativePointer, VowpalWabbitExample[] examples);
+
+    /**
+     * Predicts a multiline example.
+     * 
+     * @param nativePointer pointer to vw data structure defined in global_data.h.
+     * @param examples      the lines of the multiline example.
+     * @return the prediction.
+     */
+    private static native Object multilinePredict(long nativePointer, VowpalWabbitExample[] examples);
+
     /**
      * Pointer to vw data structure defined in global_data.h
      */
     private long nativePointer;
 
+    private NativeCleaner.Cleanable cleanable;
+
+    /**
+     * The native memory used when last computed on the thread using this
+     * instance, see {@link #updateNativeMemoryStats()}.
+     */
+    private volatile NativeMemoryStats nativeMemoryStats;
+
+    /**
+     * Frees the examples created by this instance that have not been freed yet.
+     * The native examples refer to the vw data structure and have to be freed
+     * before it.
+     */
+    private final Set<Runnable> exampleFinishers = Collections
+            .newSetFromMap(new ConcurrentHashMap<Runnable, Boolean>());
+
     /**
      * Initializes the native VW data structures.
      * 
@@ -84,6 +169,7 @@ public class VowpalWabbitNative implements Closeable {
      */
     public VowpalWabbitNative(String args) {
         this.nativePointer = initialize(args);
+        register();
     }
 
     /**
@@ -99,6 +185,31 @@ public class VowpalWabbitNative implements Closeable {
      */
     public VowpalWabbitNative(String args, byte[] model) {
         this.nativePointer = initializeFromModel(args, model);
+        register();
+    }
+
+    private void register() {
+        this.nativeMemoryStats = nativeMemoryStats(this.nativePointer);
+        this.cleanable = NativeCleaner.register(this, new Finish(this.nativePointer), "VowpalWabbitNative");
+        NativeMemory.register(this);
+    }
+
+    /**
+     * @return pointer to vw data structure defined in global_data.h.
+     */
+    long getNativePointer() {
+        return this.nativePointer;
+    }
+
+    /**
+     * Tracks the native example freed by {@code finisher} until it is freed.
+     */
+    void addExample(Runnable finisher) {
+        this.exampleFinishers.add(finisher);
+    }
+
+    void removeExample(Runnable finisher) {
+        this.exampleFinishers.remove(finisher);
     }
 
     /**
@@ -106,8 +217,11 @@ public class VowpalWabbitNative implements Closeable {
      * 
      * @return new {@code VowpalWabbitExample} object.
      */
-    public VowpalWabbitExample createExample() {
-        return new VowpalWabbitExample(this.nativePointer, false);
+    public synchronized VowpalWabbitExample createExample() {
+        if (this.nativePointer == 0) {
+            throw new IllegalStateException("Already closed.");
+        }
+        return new VowpalWabbitExample(this, false);
     }
 
     /**
@@ -116,18 +230,170 @@ public class VowpalWabbitNative implements Closeable {
      * 
      * @return new {@code VowpalWabbitExample} object.
      */
-    public VowpalWabbitExample createEmptyExample() {
-        return new VowpalWabbitExample(this.nativePointer, true);
+    public synchronized VowpalWabbitExample createEmptyExample() {
+        if (this.nativePointer == 0) {
+            throw new IllegalStateException("Already closed.");
+        }
+        return new VowpalWabbitExample(this, true);
+    }
+
+    /**
+     * Learns from a mini-batch of examples, in order. Equivalent to calling
+     * {@link VowpalWabbitExample#learn()} on each example but crosses the JNI
+     * boundary only once.
+     * 
+     * <p>
+     * Note: The predictions made while learning are not returned, use
+     * {@link VowpalWabbitExample#getPrediction()} on the individual examples.
+     * </p>
+     * 
+     * @param examples examples created by this instance.
+     * @throws IllegalArgumentException if an example is null, closed or was
+     *                                  created by another instance. The examples
+     *                                  before it have been learned from.
+     */
+    public void learn(VowpalWabbitExample[] examples) {
+        if (this.nativePointer == 0) {
+            throw new IllegalStateException("Already closed.");
+        }
+        learnBatch(this.nativePointer, examples);
+    }
+
+    /**
+     * Predicts a mini-batch of examples in a single native call. Only supported
+     * by reductions with a scalar or probability prediction.
+     * 
+     * @param examples examples created by this instance.
+     * @param out      receives the prediction of {@code examples[i]} at index i.
+     *                 Must be at least as long as {@code examples}.
+     * @throws IllegalArgumentException if {@code out} is too short or an example
+     *                                  is null, closed or was created by another
+     *                                  instance.
+     * @throws IllegalStateException    if the reduction does not predict scalars.
+     */
+    public void predictScalars(VowpalWabbitExample[] examples, float[] out) {
+        if (this.nativePointer == 0) {
+            throw new IllegalStateException("Already closed.");
+        }
+        if (out.length < examples.length) {
+            throw new IllegalArgumentException(
+                    "out has " + out.length + " elements but there are " + examples.length + " examples.");
+        }
+        predictScalarsBatch(this.nativePointer, examples, out);
+    }
+
+    /**
+     * Learns from a multiline example, e.g. for --cb_adf. The shared example, if
+     * any, comes first followed by one example per action. A trailing empty
+     * example as created by {@link #createEmptyExample()} is accepted but not
+     * required.
+     * 
+     * <p>
+     * Note: The prediction made while learning is stored in the first example,
+     * see {@link VowpalWabbitExample#getPrediction()}.
+     * </p>
+     * 
+     * @param examples examples created by this instance.
+     * @throws IllegalArgumentException if an example is null, closed or was
+     *                                  created by another instance.
+     */
+    public void learnMultiline(VowpalWabbitExample[] examples) {
+        if (this.nativePointer == 0) {
+            throw new IllegalStateException("Already closed.");
+        }
+        multilineLearn(this.nativePointer, examples);
+    }
+
+    /**
+     * Predicts a multiline example, e.g. for --cb_adf. See
+     * {@link #learnMultiline(VowpalWabbitExample[])} for the layout.
+     * 
+     * @param examples examples created by this instance.
+     * @return the prediction, e.g. {@code ActionScores} for --cb_adf.
+     * @throws IllegalArgumentException if an example is null, closed or was
+     *                                  created by another instance.
+     */
+    public Object predictMultiline(VowpalWabbitExample[] examples) {
+        if (this.nativePointer == 0) {
+            throw new IllegalStateException("Already closed.");
+        }
+        return multilinePredict(this.nativePointer, examples);
+    }
+
+    /**
+     * Creates a pool of reusable examples associated with this instance. The pool
+     * must be closed before this instance.
+     * 
+     * @param maxIdlePerThread the number of released examples kept per thread.
+     * @return new {@code VowpalWabbitExamplePool} object.
+     */
+    public VowpalWabbitExamplePool createExamplePool(int maxIdlePerThread) {
+        return new VowpalWabbitExamplePool(this, maxIdlePerThread);
+    }
+
+    /**
+     * Recomputes the native memory reported by {@link #getNativeMemoryStats()}.
+     * 
+     * <p>
+     * Note: Computing it reads the parser buffers that learning and predicting
+     * reallocate, and the examples of this instance are used without locking.
+     * Call this method from the thread using this instance, between calls to
+     * learn or predict.
+     * </p>
+     */
+    public synchronized void updateNativeMemoryStats() {
+        if (this.nativePointer == 0) {
+            throw new IllegalStateException("Already closed.");
+        }
+        this.nativeMemoryStats = nativeMemoryStats(this.nativePointer);
     }
 
     /**
-     * Frees the native resources.
+     * Returns the native memory used by this instance when it was created or
+     * {@link #updateNativeMemoryStats()} was last called. Unlike computing it,
+     * this is safe from any thread, e.g. the JMX thread reading
+     * {@link NativeMemory}. Examples created by this instance are not included.
+     * 
+     * @return the native memory used.
      */
     @Override
-    final public void close() {
+    public NativeMemoryStats getNativeMemoryStats() {
+        if (this.nativePointer == 0) {
+            throw new IllegalStateException("Already closed.");
+        }
+        return this.nativeMemoryStats;
+    }
+
+    /**
+     * Frees the native resources, including the examples created by this
+     * instance that have not been closed yet.
+     */
+    @Override
+    final public synchronized void close() {
         if (this.nativePointer != 0) {
-            finish();
+            NativeMemory.unregister(this);
+            // the examples refer to the vw data structure, free them first
+            for (Runnable finisher : new ArrayList<Runnable>(this.exampleFinishers)) {
+                finisher.run();
+            }
+            this.cleanable.clean();
             this.nativePointer = 0;
         }
     }
+
+    /**
+     * Frees the vw data structure. Must not reference the {@code VowpalWabbitNative} instance.
+     */
+    private static final class Finish implements Runnable {
+        private final long nativePointer;
+
+        Finish(long nativePointer) {
+            this.nativePointer = nativePointer;
+        }
+
+        @Override
+        public void run() {
+            finish(this.nativePointer);
+        }
+    }
 }
\ No newline at end of file
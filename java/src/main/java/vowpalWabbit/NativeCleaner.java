@@ -0,0 +1,194 @@
+package vowpalWabbit;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * A safety net for native memory owned by Java objects.  Every object holding native memory registers an action
+ * which frees that memory.  The action is run exactly once, either when the owner is closed or, if the owner is
+ * garbage collected without being closed, by a background thread.  Owners that are collected without being closed are
+ * counted as leaks.
+ * </p>
+ *
+ * <p>
+ * Closing is still the only way to control <em>when</em> native memory is freed.  The garbage collector only sees
+ * the small Java objects and has no reason to hurry if the native side is large.
+ * </p>
+ *
+ * <p>
+ * To find the missing <code>close()</code>, the place where leaked objects were allocated can be recorded with
+ * <code>-Dvw.cleaner.allocationSites=true</code> or {@link #setRecordAllocationSites(boolean)}.  This captures a stack
+ * trace per registration, including every example created per row, so it is off by default.
+ * </p>
+ */
+public final class NativeCleaner {
+    /**
+     * The number of allocation sites of leaked objects kept by {@link #getLeakSites()}.
+     */
+    public static final int MAX_LEAK_SITES = 64;
+
+    private static volatile boolean recordAllocationSites = Boolean.getBoolean("vw.cleaner.allocationSites");
+
+    private static final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+
+    /**
+     * Phantom references are only enqueued while they are reachable themselves.
+     */
+    private static final Set<Registration> registrations =
+            Collections.newSetFromMap(new ConcurrentHashMap<Registration, Boolean>());
+
+    private static final AtomicLong leaks = new AtomicLong();
+    private static final Deque<Throwable> leakSites = new ArrayDeque<Throwable>(MAX_LEAK_SITES);
+
+    static {
+        final Thread reaper = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                while (true) {
+                    try {
+                        ((Registration) queue.remove()).leaked();
+                    }
+                    catch (InterruptedException ignored) {
+                        // The reaper lives as long as the JVM.
+                    }
+                }
+            }
+        }, "vw-native-cleaner");
+        reaper.setDaemon(true);
+        reaper.start();
+    }
+
+    /**
+     * Should not be directly instantiated.
+     */
+    private NativeCleaner() {}
+
+    /**
+     * Registers <code>action</code> to free the native memory of <code>owner</code>.  The action MUST NOT reference
+     * <code>owner</code>, otherwise the owner is never collected.  It may reference other objects that have to outlive
+     * the native memory, for example the model an example belongs to.
+     * @param owner the object holding the native memory.
+     * @param action frees the native memory.
+     * @param description describes the native memory in leak reports.
+     * @return a handle through which the owner frees its native memory when it is closed.
+     */
+    public static Cleanable register(final Object owner, final Runnable action, final String description) {
+        if (owner == null) {
+            throw new NullPointerException("owner must not be null.");
+        }
+        if (action == null) {
+            throw new NullPointerException("action must not be null.");
+        }
+        final Throwable site = recordAllocationSites ?
+                new Throwable(description + " allocated here was never closed.") :
+                null;
+        final Registration registration = new Registration(owner, action, site);
+        registrations.add(registration);
+        return registration;
+    }
+
+    /**
+     * Turns recording the allocation sites of objects registered from now on on or off.
+     * @param record true to capture a stack trace per registration for {@link #getLeakSites()}.
+     */
+    public static void setRecordAllocationSites(final boolean record) {
+        recordAllocationSites = record;
+    }
+
+    /**
+     * @return true if allocation sites are recorded, see {@link #setRecordAllocationSites(boolean)}.
+     */
+    public static boolean isRecordAllocationSites() {
+        return recordAllocationSites;
+    }
+
+    /**
+     * @return the number of objects that were garbage collected without being closed.
+     */
+    public static long getLeakCount() {
+        return leaks.get();
+    }
+
+    /**
+     * @return the allocation sites of the most recently leaked objects, oldest first.  At most
+     *         {@link #MAX_LEAK_SITES} are kept.  Empty if allocation sites are not recorded.
+     */
+    public static List<Throwable> getLeakSites() {
+        synchronized (leakSites) {
+            return new ArrayList<Throwable>(leakSites);
+        }
+    }
+
+    /**
+     * @return the number of registered objects whose native memory has not been freed yet.
+     */
+    public static int getLiveCount() {
+        return registrations.size();
+    }
+
+    private static void recordLeak(final Throwable site) {
+        leaks.incrementAndGet();
+        if (site != null) {
+            synchronized (leakSites) {
+                if (leakSites.size() == MAX_LEAK_SITES) {
+                    leakSites.removeFirst();
+                }
+                leakSites.addLast(site);
+            }
+        }
+    }
+
+    /**
+     * Frees the native memory of a registered object.
+     */
+    public interface Cleanable {
+        /**
+         * Runs the registered action unless it has already been run.  Exceptions thrown by the action are propagated.
+         */
+        void clean();
+    }
+
+    private static final class Registration extends PhantomReference<Object> implements Cleanable {
+        private final Runnable action;
+        private final Throwable site;
+        private final AtomicBoolean cleaned = new AtomicBoolean();
+
+        private Registration(final Object owner, final Runnable action, final Throwable site) {
+            super(owner, queue);
+            this.action = action;
+            this.site = site;
+        }
+
+        @Override
+        public void clean() {
+            if (cleaned.compareAndSet(false, true)) {
+                registrations.remove(this);
+                clear();
+                action.run();
+            }
+        }
+
+        private void leaked() {
+            if (cleaned.compareAndSet(false, true)) {
+                registrations.remove(this);
+                recordLeak(site);
+                try {
+                    action.run();
+                }
+                catch (Throwable ignored) {
+                    // Nobody is left to report this to and the reaper must keep running.
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package vowpalWabbit;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * Keeps track of the open VW instances in this JVM and adds up their native memory.  The totals are published through
+ * JMX as <code>vowpalWabbit:type=NativeMemory</code> (see {@link NativeMemoryMXBean}), so they can be monitored like
+ * the JVM's own memory pools.
+ * </p>
+ *
+ * <p>
+ * Monitoring tools read the JMX attributes one at a time.  The attributes are therefore computed from a snapshot of
+ * the totals which is reused for {@link #SNAPSHOT_MILLIS} milliseconds, so that a scrape queries every instance once
+ * and the attributes it reads are consistent with each other.
+ * </p>
+ *
+ * <p>
+ * Instances are only referenced weakly, an instance which is never closed stops being counted once it is garbage
+ * collected.
+ * </p>
+ */
+public final class NativeMemory {
+    public static final String OBJECT_NAME = "vowpalWabbit:type=NativeMemory";
+
+    /**
+     * How long the totals published over JMX are reused.
+     */
+    public static final long SNAPSHOT_MILLIS = 1000;
+
+    private static final Set<NativeMemoryReporter> instances =
+            Collections.newSetFromMap(new WeakHashMap<NativeMemoryReporter, Boolean>());
+
+    static {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), new ObjectName(OBJECT_NAME));
+        }
+        catch (JMException ignored) {
+            // Already published, for example by a copy of this class loaded by another class loader.
+        }
+    }
+
+    /**
+     * Should not be directly instantiated.
+     */
+    private NativeMemory() {}
+
+    /**
+     * Starts counting the native memory of <code>instance</code>.
+     * @param instance a newly created VW instance.
+     */
+    public static void register(final NativeMemoryReporter instance) {
+        synchronized (instances) {
+            instances.add(instance);
+        }
+    }
+
+    /**
+     * Stops counting the native memory of <code>instance</code>.  Must be called before the instance frees its
+     * native memory.
+     * @param instance a VW instance which is being closed.
+     */
+    public static void unregister(final NativeMemoryReporter instance) {
+        synchronized (instances) {
+            instances.remove(instance);
+        }
+    }
+
+    /**
+     * @return the number of open VW instances.
+     */
+    public static int getInstanceCount() {
+        synchronized (instances) {
+            return instances.size();
+        }
+    }
+
+    /**
+     * @return the native memory used by all open VW instances.
+     */
+    public static NativeMemoryStats getTotal() {
+        final List<NativeMemoryReporter> snapshot;
+        synchronized (instances) {
+            snapshot = new ArrayList<NativeMemoryReporter>(instances);
+        }
+        NativeMemoryStats total = NativeMemoryStats.EMPTY;
+        for (final NativeMemoryReporter instance : snapshot) {
+            try {
+                total = total.plus(instance.getNativeMemoryStats());
+            }
+            catch (IllegalStateException ignored) {
+                // Closed since the snapshot was taken.
+            }
+        }
+        return total;
+    }
+
+    private static final class Bean implements NativeMemoryMXBean {
+        private NativeMemoryStats snapshot;
+        private long snapshotNanos;
+
+        /**
+         * Computing the totals locks every instance, concurrent scrapes wait for a single computation.
+         */
+        private synchronized NativeMemoryStats getSnapshot() {
+            final long now = System.nanoTime();
+            if (snapshot == null || now - snapshotNanos >= TimeUnit.MILLISECONDS.toNanos(SNAPSHOT_MILLIS)) {
+                snapshot = getTotal();
+                snapshotNanos = now;
+            }
+            return snapshot;
+        }
+
+        @Override
+        public int getInstanceCount() {
+            return NativeMemory.getInstanceCount();
+        }
+
+        @Override
+        public long getWeightsBytes() {
+            return getSnapshot().getWeightsBytes();
+        }
+
+        @Override
+        public long getExamplePoolBytes() {
+            return getSnapshot().getExamplePoolBytes();
+        }
+
+        @Override
+        public long getParserBytes() {
+            return getSnapshot().getParserBytes();
+        }
+
+        @Override
+        public long getTotalBytes() {
+            return getSnapshot().getTotalBytes();
+        }
+
+        @Override
+        public long getLeakCount() {
+            return NativeCleaner.getLeakCount();
+        }
+    }
+}
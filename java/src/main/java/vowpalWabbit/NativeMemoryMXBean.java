@@ -0,0 +1,25 @@
+package vowpalWabbit;
+
+/**
+ * The native memory used by all open VW instances in this JVM.  Published as
+ * <code>vowpalWabbit:type=NativeMemory</code>.
+ */
+public interface NativeMemoryMXBean {
+    /**
+     * @return the number of open VW instances.
+     */
+    int getInstanceCount();
+
+    long getWeightsBytes();
+
+    long getExamplePoolBytes();
+
+    long getParserBytes();
+
+    long getTotalBytes();
+
+    /**
+     * @return the number of VW instances garbage collected without being closed, see {@link NativeCleaner}.
+     */
+    long getLeakCount();
+}
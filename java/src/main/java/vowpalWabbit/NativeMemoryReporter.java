@@ -0,0 +1,12 @@
+package vowpalWabbit;
+
+/**
+ * An object owning native memory which can report how much it uses.
+ */
+public interface NativeMemoryReporter {
+    /**
+     * @return the native memory currently used by this object.
+     * @throws IllegalStateException if this object has been closed.
+     */
+    NativeMemoryStats getNativeMemoryStats();
+}
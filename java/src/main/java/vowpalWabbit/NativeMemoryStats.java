@@ -0,0 +1,97 @@
+package vowpalWabbit;
+
+import java.io.Serializable;
+
+/**
+ * The native memory used by a VW instance in bytes, broken down by what it is used for.  The numbers are computed from
+ * the sizes of the native data structures and don't include allocator overhead.
+ */
+public final class NativeMemoryStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Stats of an instance that uses no native memory.
+     */
+    public static final NativeMemoryStats EMPTY = new NativeMemoryStats(0, 0, 0);
+
+    private final long weightsBytes;
+    private final long examplePoolBytes;
+    private final long parserBytes;
+
+    public NativeMemoryStats(final long weightsBytes, final long examplePoolBytes, final long parserBytes) {
+        this.weightsBytes = weightsBytes;
+        this.examplePoolBytes = examplePoolBytes;
+        this.parserBytes = parserBytes;
+    }
+
+    /**
+     * @return the size of the weight table, which is determined by <code>-b</code> and the number of weights per
+     *         feature used by the reductions.  Zero for instances which share the weights of another instance, so
+     *         that the weights are counted once when stats are added up.  Also zero with <code>--sparse_weights</code>,
+     *         sparse weights are allocated while learning and can't be measured safely while other threads learn.
+     */
+    public long getWeightsBytes() {
+        return weightsBytes;
+    }
+
+    /**
+     * @return the size of the examples allocated by the example pool.  This doesn't include the features stored in
+     *         the examples, which are released when the examples are reused.
+     */
+    public long getExamplePoolBytes() {
+        return examplePoolBytes;
+    }
+
+    /**
+     * @return the size of the buffers used by the parser.
+     */
+    public long getParserBytes() {
+        return parserBytes;
+    }
+
+    /**
+     * @return the sum of all categories.
+     */
+    public long getTotalBytes() {
+        return weightsBytes + examplePoolBytes + parserBytes;
+    }
+
+    /**
+     * @param other stats of another instance.
+     * @return the stats of both instances combined.
+     */
+    public NativeMemoryStats plus(final NativeMemoryStats other) {
+        return new NativeMemoryStats(weightsBytes + other.weightsBytes,
+                                     examplePoolBytes + other.examplePoolBytes,
+                                     parserBytes + other.parserBytes);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        NativeMemoryStats that = (NativeMemoryStats) o;
+
+        return weightsBytes == that.weightsBytes &&
+               examplePoolBytes == that.examplePoolBytes &&
+               parserBytes == that.parserBytes;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = (int) (weightsBytes ^ (weightsBytes >>> 32));
+        result = 31 * result + (int) (examplePoolBytes ^ (examplePoolBytes >>> 32));
+        result = 31 * result + (int) (parserBytes ^ (parserBytes >>> 32));
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "NativeMemoryStats{" +
+               "weightsBytes=" + weightsBytes +
+               ", examplePoolBytes=" + examplePoolBytes +
+               ", parserBytes=" + parserBytes +
+               '}';
+    }
+}
@@ -1,15 +1,73 @@
 package vowpalWabbit.learner;
 
 import vowpalWabbit.responses.ActionScores;
+import vowpalWabbit.responses.ActionScoresBuffer;
+
+import java.nio.ByteBuffer;
 
 public final class VWActionScoresLearner extends VWLearnerBase<ActionScores> {
     VWActionScoresLearner(final long nativePointer) {
         super(nativePointer);
     }
 
+    /**
+     * Learn from a multiline example and copy the resulting actions and scores into <code>out</code> rather than
+     * allocating an object per action.
+     * @param example an example from which to learn.
+     * @param out the holder to fill, its arrays are only replaced when the prediction doesn't fit.
+     * @return the number of actions copied into <code>out</code>.
+     */
+    public int learn(final String[] example, final ActionScoresBuffer out) {
+        return learnOrPredict(example, out, true);
+    }
+
+    /**
+     * Predict a multiline example without learning from it and copy the resulting actions and scores into
+     * <code>out</code> rather than allocating an object per action.
+     * @param example an example upon which the prediction is based.
+     * @param out the holder to fill, its arrays are only replaced when the prediction doesn't fit.
+     * @return the number of actions copied into <code>out</code>.
+     */
+    public int predict(final String[] example, final ActionScoresBuffer out) {
+        return learnOrPredict(example, out, false);
+    }
+
+    private int learnOrPredict(final String[] example, final ActionScoresBuffer out, final boolean learn) {
+        if (out == null) {
+            throw new NullPointerException("out must not be null.");
+        }
+        acquire();
+        try {
+            if (isOpen()) {
+                return predictMultilineIntoBuffer(example, out, learn, nativePointer);
+            }
+            throw new IllegalStateException("Already closed.");
+        }
+        finally {
+            release(learn);
+        }
+    }
+
+    private native int predictMultilineIntoBuffer(String[] example, ActionScoresBuffer out, boolean learn, long nativePointer);
+
     @Override
     protected native ActionScores predict(String example, boolean learn, long nativePointer);
 
     @Override
     protected native ActionScores predictMultiline(String[] example, boolean learn, long nativePointer);
+
+    @Override
+    protected native ActionScores[] predictBatch(String[] examples, boolean learn, long nativePointer);
+
+    @Override
+    protected native ActionScores predictPacked(String examples, boolean learn, long nativePointer);
+
+    @Override
+    protected native ActionScores predictPackedBuffer(ByteBuffer examples, int position, int length, boolean learn, long nativePointer);
+
+    @Override
+    protected native ActionScores predictBuffer(ByteBuffer example, int position, int length, boolean learn, long nativePointer);
+
+    @Override
+    protected native ActionScores predictMultilineBuffer(ByteBuffer example, int position, int[] offsets, boolean learn, long nativePointer);
 }
@@ -0,0 +1,412 @@
+package vowpalWabbit.learner;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Moves learning off the calling thread.  Examples are put on a bounded queue and a single dedicated learner thread
+ * drains the queue in batches, handing each batch to the wrapped learner with one lock acquisition and one native
+ * call (see {@link VWTypedLearner#learnBatch(String[])}).  Callers that don't need the updated prediction never wait
+ * on the learner's lock; callers that do can wait on the returned {@link CompletableFuture}.
+ * </p>
+ *
+ * <p>
+ * When the queue is full the {@link OverflowPolicy} decides what happens to new examples.  Examples which are not
+ * learned because of the policy complete their future exceptionally with a {@link RejectedExecutionException}.
+ * </p>
+ *
+ * <p>
+ * {@link #close()} stops accepting examples, waits until every queued example is learned and stops the learner
+ * thread.  It does <b>NOT</b> close the wrapped learner, which is still owned by the caller.
+ * </p>
+ *
+ * @param <T> The type of prediction returned by the wrapped learner.
+ */
+public final class VWAsyncLearner<T> implements Closeable {
+
+    /**
+     * What to do with an example that is submitted while the queue is full.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Wait until there is room on the queue.
+         */
+        BLOCK,
+
+        /**
+         * Reject the example if the queue is full.
+         */
+        DROP,
+
+        /**
+         * Once the queue is more than half full, admit examples with a probability that falls linearly from 1 to 0
+         * as the queue fills up.  This sheds load gradually instead of dropping every example once the queue is full.
+         */
+        SAMPLE
+    }
+
+    public static final int DEFAULT_CAPACITY = 10000;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+
+    private final BatchLearner<T> learner;
+    private final BlockingQueue<Pending<T>> queue;
+    private final int capacity;
+    private final int maxBatchSize;
+    private final OverflowPolicy policy;
+    private final Thread thread;
+    private volatile boolean closed;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong learned = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    private VWAsyncLearner(final BatchLearner<T> learner, final int capacity, final int maxBatchSize,
+                           final OverflowPolicy policy) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be positive, found " + capacity + ".");
+        }
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive, found " + maxBatchSize + ".");
+        }
+        if (policy == null) {
+            throw new NullPointerException("policy must not be null.");
+        }
+        this.learner = learner;
+        this.capacity = capacity;
+        this.maxBatchSize = maxBatchSize;
+        this.policy = policy;
+        queue = new ArrayBlockingQueue<Pending<T>>(capacity);
+        thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                drain();
+            }
+        }, "vw-async-learner-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public static <T> VWAsyncLearner<T> create(final VWTypedLearner<T> learner) {
+        return create(learner, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH_SIZE, OverflowPolicy.BLOCK);
+    }
+
+    public static <T> VWAsyncLearner<T> create(final VWTypedLearner<T> learner, final int capacity,
+                                               final int maxBatchSize, final OverflowPolicy policy) {
+        return new VWAsyncLearner<T>(new BatchLearner<T>() {
+            @Override
+            public List<T> learnBatch(final String[] examples) {
+                return Arrays.asList(learner.learnBatch(examples));
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public List<T> learnedPredictions(final VWBatchException e) {
+                return Arrays.asList((T[]) e.getPredictions()).subList(0, e.getFailedIndex());
+            }
+        }, capacity, maxBatchSize, policy);
+    }
+
+    public static VWAsyncLearner<Float> create(final VWScalarLearner learner) {
+        return create(learner, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH_SIZE, OverflowPolicy.BLOCK);
+    }
+
+    public static VWAsyncLearner<Float> create(final VWScalarLearner learner, final int capacity,
+                                               final int maxBatchSize, final OverflowPolicy policy) {
+        return new VWAsyncLearner<Float>(floatBatchLearner(learner), capacity, maxBatchSize, policy);
+    }
+
+    public static VWAsyncLearner<Float> create(final VWProbLearner learner) {
+        return create(learner, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH_SIZE, OverflowPolicy.BLOCK);
+    }
+
+    public static VWAsyncLearner<Float> create(final VWProbLearner learner, final int capacity,
+                                               final int maxBatchSize, final OverflowPolicy policy) {
+        return new VWAsyncLearner<Float>(floatBatchLearner(learner), capacity, maxBatchSize, policy);
+    }
+
+    public static VWAsyncLearner<Integer> create(final VWMulticlassLearner learner) {
+        return create(learner, DEFAULT_CAPACITY, DEFAULT_MAX_BATCH_SIZE, OverflowPolicy.BLOCK);
+    }
+
+    public static VWAsyncLearner<Integer> create(final VWMulticlassLearner learner, final int capacity,
+                                                 final int maxBatchSize, final OverflowPolicy policy) {
+        return new VWAsyncLearner<Integer>(new BatchLearner<Integer>() {
+            @Override
+            public List<Integer> learnBatch(final String[] examples) {
+                final int[] predictions = learner.learnBatch(examples);
+                return toList(predictions, predictions.length);
+            }
+
+            @Override
+            public List<Integer> learnedPredictions(final VWBatchException e) {
+                return toList((int[]) e.getPredictions(), e.getFailedIndex());
+            }
+        }, capacity, maxBatchSize, policy);
+    }
+
+    private static BatchLearner<Float> floatBatchLearner(final VWFloatLearner learner) {
+        return new BatchLearner<Float>() {
+            @Override
+            public List<Float> learnBatch(final String[] examples) {
+                final float[] predictions = learner.learnBatch(examples);
+                return toList(predictions, predictions.length);
+            }
+
+            @Override
+            public List<Float> learnedPredictions(final VWBatchException e) {
+                return toList((float[]) e.getPredictions(), e.getFailedIndex());
+            }
+        };
+    }
+
+    private static List<Integer> toList(final int[] predictions, final int length) {
+        final List<Integer> result = new ArrayList<Integer>(length);
+        for (int i = 0; i < length; ++i) {
+            result.add(predictions[i]);
+        }
+        return result;
+    }
+
+    private static List<Float> toList(final float[] predictions, final int length) {
+        final List<Float> result = new ArrayList<Float>(length);
+        for (int i = 0; i < length; ++i) {
+            result.add(predictions[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Queues <code>example</code> to be learned by the learner thread.
+     * @param example an example from which to learn.
+     * @return a future which completes with the prediction made after the model is updated with <code>example</code>,
+     *         or completes exceptionally if the example was rejected by the overflow policy or learning failed.
+     * @throws IllegalStateException if this learner has been closed.
+     */
+    public CompletableFuture<T> learn(final String example) {
+        if (closed) {
+            throw new IllegalStateException("Already closed.");
+        }
+        submitted.incrementAndGet();
+        final Pending<T> pending = new Pending<T>(example);
+        if (!enqueue(pending)) {
+            rejected.incrementAndGet();
+            pending.future.completeExceptionally(new RejectedExecutionException(
+                    "Example rejected by the " + policy + " overflow policy, queue depth " + queue.size() + "."));
+            return pending.future;
+        }
+        recordQueueDepth();
+
+        // close may have finished draining after the check above.  Whoever removes the example completes it.
+        if (closed && queue.remove(pending)) {
+            rejected.incrementAndGet();
+            pending.future.completeExceptionally(new RejectedExecutionException("Already closed."));
+        }
+        return pending.future;
+    }
+
+    private boolean enqueue(final Pending<T> pending) {
+        switch (policy) {
+            case BLOCK:
+                try {
+                    queue.put(pending);
+                    return true;
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            case SAMPLE:
+                final int depth = queue.size();
+                final int half = capacity / 2;
+                if (depth > half && ThreadLocalRandom.current().nextInt(capacity - half) >= capacity - depth) {
+                    return false;
+                }
+                return queue.offer(pending);
+            default:
+                return queue.offer(pending);
+        }
+    }
+
+    private void recordQueueDepth() {
+        final int depth = queue.size();
+        int max = maxQueueDepth.get();
+        while (depth > max && !maxQueueDepth.compareAndSet(max, depth)) {
+            max = maxQueueDepth.get();
+        }
+    }
+
+    private void drain() {
+        final List<Pending<T>> batch = new ArrayList<Pending<T>>(maxBatchSize);
+        while (!closed || !queue.isEmpty()) {
+            try {
+                final Pending<T> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            }
+            catch (InterruptedException e) {
+                // Only close may stop the learner thread, and it waits for the queue to be drained.
+                continue;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+            for (int start = 0; start < batch.size(); ) {
+                start += learn(batch.subList(start, batch.size()));
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Learns the examples of <code>batch</code> up to and including the first one that fails.  The examples after a
+     * failing example are left to the next call, so that one bad example doesn't fail its whole batch.
+     * @return the number of examples whose future was completed.
+     */
+    private int learn(final List<Pending<T>> batch) {
+        final String[] examples = new String[batch.size()];
+        for (int i = 0; i < examples.length; ++i) {
+            examples[i] = batch.get(i).example;
+        }
+        batches.incrementAndGet();
+        final List<T> predictions;
+        try {
+            predictions = learner.learnBatch(examples);
+        }
+        catch (VWBatchException e) {
+            // the examples before the failing one have been learned
+            final int failedIndex = e.getFailedIndex();
+            complete(batch, learner.learnedPredictions(e), failedIndex);
+            failed.incrementAndGet();
+            batch.get(failedIndex).future.completeExceptionally(e.getCause());
+            return failedIndex + 1;
+        }
+        catch (Throwable t) {
+            // the batch failed before any example was learned, for example because the learner was closed
+            failed.addAndGet(examples.length);
+            for (final Pending<T> pending : batch) {
+                pending.future.completeExceptionally(t);
+            }
+            return examples.length;
+        }
+        complete(batch, predictions, examples.length);
+        return examples.length;
+    }
+
+    private void complete(final List<Pending<T>> batch, final List<T> predictions, final int count) {
+        learned.addAndGet(count);
+        for (int i = 0; i < count; ++i) {
+            batch.get(i).future.complete(predictions.get(i));
+        }
+    }
+
+    /**
+     * @return the number of examples waiting to be learned.
+     */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return the largest queue depth observed since this learner was created.
+     */
+    public int getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    /**
+     * @return the maximum number of examples which can wait to be learned.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of examples passed to {@link #learn(String)}.
+     */
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    /**
+     * @return the number of examples learned successfully.
+     */
+    public long getLearnedCount() {
+        return learned.get();
+    }
+
+    /**
+     * @return the number of examples that failed in the wrapped learner.
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * @return the number of examples rejected by the overflow policy or because this learner was closed.
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * @return the number of batches handed to the wrapped learner.
+     */
+    public long getBatchCount() {
+        return batches.get();
+    }
+
+    /**
+     * Stops accepting examples and waits until all queued examples are learned.  The wrapped learner is not closed.
+     * Calling this method multiple times has no effect after the first call returns.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join();
+            }
+            catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private interface BatchLearner<T> {
+        List<T> learnBatch(String[] examples);
+
+        /**
+         * @return the predictions of the examples learned before the batch failed.
+         */
+        List<T> learnedPredictions(VWBatchException e);
+    }
+
+    private static final class Pending<T> {
+        private final String example;
+        private final CompletableFuture<T> future = new CompletableFuture<T>();
+
+        private Pending(final String example) {
+            this.example = example;
+        }
+    }
+}
@@ -2,10 +2,17 @@ package vowpalWabbit.learner;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.concurrent.Callable;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import vowpalWabbit.NativeCleaner;
+import vowpalWabbit.NativeMemory;
+import vowpalWabbit.NativeMemoryStats;
+
 /**
  * The base class for VW predictors.  This class is responsible for:
  *
@@ -15,6 +22,9 @@ import java.util.concurrent.locks.ReentrantLock;
  * <li>Bookkeeping, such as keeping the <em>C</em> memory pointer.</li>
  * </ol>
  *
+ * If a predictor is garbage collected without being closed its <em>C</em> memory is freed by the
+ * {@link NativeCleaner} and the leak is counted there.
+ *
  *
  */
 abstract class VWBase implements VWLearner {
@@ -27,10 +37,15 @@ abstract class VWBase implements VWLearner {
      */
     final Lock lock;
     protected final long nativePointer;
+    private final CloseInstance closeInstance;
+    private final NativeCleaner.Cleanable cleanable;
+
+    private volatile VWMetrics metrics;
 
-    // It would appear that performing multiple passes from the JNI layer is not thread safe even across multiple models.
-    // Because of this we need a GLOBAL lock to do mulitiple passes.
-    private final static Lock globalLock = new ReentrantLock();
+    // The timing of the call in progress, only accessed while holding the lock.
+    private VWMetrics callMetrics;
+    private long callLockWait;
+    private long callStart;
 
     /**
      * Create a new VW instance that is ready to either create predictions or learn based on examples.
@@ -45,6 +60,17 @@ abstract class VWBase implements VWLearner {
         isOpen = true;
         lock = new ReentrantLock();
         this.nativePointer = nativePointer;
+        closeInstance = new CloseInstance(nativePointer);
+        cleanable = NativeCleaner.register(this, closeInstance, getClass().getSimpleName());
+        NativeMemory.register(this);
+    }
+
+    /**
+     * Keeps <code>model</code> open until this instance is closed, even if <code>model</code> is garbage collected
+     * first.  Used by instances that reference the weights of <code>model</code>.
+     */
+    final void dependsOn(final VWBase model) {
+        closeInstance.dependency = model;
     }
 
     /**
@@ -73,6 +99,52 @@ abstract class VWBase implements VWLearner {
         return isOpen;
     }
 
+    @Override
+    public void setMetrics(final VWMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public VWMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Acquires the lock for a learn or predict call.  If metrics are enabled the time spent waiting for the lock is
+     * measured and the call is timed until {@link #release(boolean)}.
+     */
+    final void acquire() {
+        final VWMetrics m = metrics;
+        if (m == null) {
+            lock.lock();
+            return;
+        }
+        final long requested = System.nanoTime();
+        lock.lock();
+        callStart = System.nanoTime();
+        callLockWait = callStart - requested;
+        callMetrics = m;
+    }
+
+    /**
+     * Releases the lock acquired by {@link #acquire()} and records the call if it was timed.
+     * @param learn whether the call updated the model.
+     */
+    final void release(final boolean learn) {
+        final VWMetrics m = callMetrics;
+        if (m != null) {
+            callMetrics = null;
+            try {
+                m.record(learn, callLockWait, System.nanoTime() - callStart);
+            }
+            finally {
+                lock.unlock();
+            }
+            return;
+        }
+        lock.unlock();
+    }
+
     /**
      * Save the model in the VW instance.
      */
@@ -90,6 +162,69 @@ abstract class VWBase implements VWLearner {
         }
     }
 
+    @Override
+    public NativeMemoryStats getNativeMemoryStats() {
+        lock.lock();
+        try {
+            if (isOpen()) {
+                return VWLearners.getNativeMemoryStats(nativePointer);
+            } else {
+                throw new IllegalStateException("Already closed.");
+            }
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Examples stored in a {@link ByteBuffer} are parsed straight out of the buffer's memory, which is only
+     * addressable from the native code if the buffer is direct.
+     * @param example a buffer containing a UTF-8 encoded example.
+     */
+    static void checkDirect(final ByteBuffer example) {
+        if (!example.isDirect()) {
+            throw new IllegalArgumentException("Examples must be stored in a direct ByteBuffer.");
+        }
+    }
+
+    /**
+     * Verifies that <code>offsets</code> describes at least one line and that every line lies within the remaining
+     * bytes of <code>examples</code>.
+     * @param examples a buffer containing the UTF-8 encoded lines of a multiline example.
+     * @param offsets line boundaries, relative to the position of <code>examples</code>.
+     */
+    static void checkOffsets(final ByteBuffer examples, final int[] offsets) {
+        checkDirect(examples);
+        if (offsets.length < 2) {
+            throw new IllegalArgumentException("offsets must describe at least one line.");
+        }
+        if (offsets[0] < 0 || offsets[offsets.length - 1] > examples.remaining()) {
+            throw new IllegalArgumentException("offsets must lie between 0 and the number of remaining bytes, " +
+                                               examples.remaining() + ".");
+        }
+        for (int i = 1; i < offsets.length; ++i) {
+            if (offsets[i] < offsets[i - 1]) {
+                throw new IllegalArgumentException("offsets must be non-decreasing.");
+            }
+        }
+    }
+
+    /**
+     * Predictions are written straight into the memory of an output buffer, so it must be direct and use the native
+     * byte order.
+     * @param out a buffer to which predictions are written.
+     * @param order the byte order of <code>out</code>.
+     */
+    static void checkOutput(final Buffer out, final ByteOrder order) {
+        if (!out.isDirect()) {
+            throw new IllegalArgumentException("Output must be a direct buffer.");
+        }
+        if (order != ByteOrder.nativeOrder()) {
+            throw new IllegalArgumentException("Output must use the native byte order, " + ByteOrder.nativeOrder() + ".");
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -129,14 +264,13 @@ abstract class VWBase implements VWLearner {
                 final boolean attemptingToClose = isOpen;
                 if (isOpen) {
                     isOpen = false;
-                    VWBase.globalLock.lock();
-                    try {
-                        VWLearners.performRemainingPasses(nativePointer);
-                    }
-                    finally {
-                        globalLock.unlock();
-                    }
-                    VWLearners.closeInstance(nativePointer);
+                    // All of the state used by the remaining passes is owned by this instance so models can finish
+                    // their passes in parallel.  Note that --cache without a data file defaults to a cache file
+                    // named .cache in the working directory, so models training concurrently need distinct
+                    // --cache_file arguments.
+                    VWLearners.performRemainingPasses(nativePointer);
+                    NativeMemory.unregister(VWBase.this);
+                    cleanable.clean();
                 }
                 return attemptingToClose;
             }
@@ -145,4 +279,23 @@ abstract class VWBase implements VWLearner {
             }
         }
     }
+
+    /**
+     * Frees the <em>C</em> memory.  This must not reference the VWBase instance, otherwise the instance could never
+     * be garbage collected.
+     */
+    private static final class CloseInstance implements Runnable {
+        private final long nativePointer;
+        private volatile VWBase dependency;
+
+        private CloseInstance(final long nativePointer) {
+            this.nativePointer = nativePointer;
+        }
+
+        @Override
+        public void run() {
+            VWLearners.closeInstance(nativePointer);
+            dependency = null;
+        }
+    }
 }
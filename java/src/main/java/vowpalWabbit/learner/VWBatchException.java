@@ -0,0 +1,46 @@
+package vowpalWabbit.learner;
+
+/**
+ * <p>
+ * Thrown by the batch methods of the learners, such as {@link VWTypedLearner#learnBatch(String[])}, when an example of
+ * the batch fails.  A batch is processed in order and stops at the first failure: the examples before
+ * {@link #getFailedIndex()} have been learned or predicted, the example at that index and all examples after it have
+ * not.  The exception raised by the failing example is the cause of this exception.
+ * </p>
+ *
+ * <p>
+ * Callers that retry a failed batch should only resubmit the examples from {@link #getFailedIndex()} on, otherwise the
+ * examples before it are learned twice.
+ * </p>
+ */
+public final class VWBatchException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private final int failedIndex;
+    private final transient Object predictions;
+
+    /**
+     * Created by the native code.
+     */
+    VWBatchException(final int failedIndex, final Object predictions, final Throwable cause) {
+        super("Example " + failedIndex + " of the batch failed: " + cause, cause);
+        this.failedIndex = failedIndex;
+        this.predictions = predictions;
+    }
+
+    /**
+     * @return the index of the example that failed, which is also the number of examples processed before it.
+     */
+    public int getFailedIndex() {
+        return failedIndex;
+    }
+
+    /**
+     * @return the predictions of the batch, in the type returned by the batch method (for example a
+     *         <code>float[]</code> for {@link VWScalarLearner#learnBatch(String[])}).  Only the first
+     *         {@link #getFailedIndex()} elements are set.
+     */
+    public Object getPredictions() {
+        return predictions;
+    }
+}
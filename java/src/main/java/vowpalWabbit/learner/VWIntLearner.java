@@ -1,5 +1,7 @@
 package vowpalWabbit.learner;
 
+import java.nio.ByteBuffer;
+
 /**
  * @author deak
  */
@@ -16,7 +18,7 @@ abstract class VWIntLearner extends VWBase implements VWLearner {
      * @return an <em>UNBOXED</em> prediction.
      */
     private int learnOrPredict(final String example, final boolean learn) {
-        lock.lock();
+        acquire();
         try {
             if (isOpen()) {
                 return predict(example, learn, nativePointer);
@@ -24,7 +26,7 @@ abstract class VWIntLearner extends VWBase implements VWLearner {
             throw new IllegalStateException("Already closed.");
         }
         finally {
-            lock.unlock();
+            release(learn);
         }
     }
 
@@ -36,7 +38,7 @@ abstract class VWIntLearner extends VWBase implements VWLearner {
      * @return an <em>UNBOXED</em> prediction.
      */
     private int learnOrPredict(final String[] example, final boolean learn) {
-        lock.lock();
+        acquire();
         try {
             if (isOpen()) {
                 return predictMultiline(example, learn, nativePointer);
@@ -44,7 +46,108 @@ abstract class VWIntLearner extends VWBase implements VWLearner {
             throw new IllegalStateException("Already closed.");
         }
         finally {
-            lock.unlock();
+            release(learn);
+        }
+    }
+
+    /**
+     * <code>learnOrPredict</code> parses the example straight out of the memory of a direct buffer.
+     * @param example a direct buffer containing a UTF-8 encoded example between its position and limit
+     * @param learn whether to call the learn or predict VW functions.
+     * @return an <em>UNBOXED</em> prediction.
+     */
+    private int learnOrPredict(final ByteBuffer example, final boolean learn) {
+        checkDirect(example);
+        acquire();
+        try {
+            if (isOpen()) {
+                return predictBuffer(example, example.position(), example.remaining(), learn, nativePointer);
+            }
+            throw new IllegalStateException("Already closed.");
+        }
+        finally {
+            release(learn);
+        }
+    }
+
+    /**
+     * <code>learnOrPredict</code> parses a multiline example straight out of the memory of a direct buffer.
+     * @param example a direct buffer containing the UTF-8 encoded lines of a multiline example
+     * @param offsets the line boundaries, relative to the position of <code>example</code>
+     * @param learn whether to call the learn or predict VW functions.
+     * @return an <em>UNBOXED</em> prediction.
+     */
+    private int learnOrPredict(final ByteBuffer example, final int[] offsets, final boolean learn) {
+        checkOffsets(example, offsets);
+        acquire();
+        try {
+            if (isOpen()) {
+                return predictMultilineBuffer(example, example.position(), offsets, learn, nativePointer);
+            }
+            throw new IllegalStateException("Already closed.");
+        }
+        finally {
+            release(learn);
+        }
+    }
+
+    /**
+     * <code>learnOrPredictPacked</code> splits a newline delimited multiline example in the native code.
+     * @param examples the newline delimited lines of a multiline example
+     * @param learn whether to call the learn or predict VW functions.
+     * @return an <em>UNBOXED</em> prediction.
+     */
+    private int learnOrPredictPacked(final String examples, final boolean learn) {
+        acquire();
+        try {
+            if (isOpen()) {
+                return predictPacked(examples, learn, nativePointer);
+            }
+            throw new IllegalStateException("Already closed.");
+        }
+        finally {
+            release(learn);
+        }
+    }
+
+    /**
+     * <code>learnOrPredictPacked</code> splits and parses a newline delimited multiline example straight out of
+     * the memory of a direct buffer.
+     * @param examples a direct buffer containing the newline delimited lines of a multiline example
+     * @param learn whether to call the learn or predict VW functions.
+     * @return an <em>UNBOXED</em> prediction.
+     */
+    private int learnOrPredictPacked(final ByteBuffer examples, final boolean learn) {
+        checkDirect(examples);
+        acquire();
+        try {
+            if (isOpen()) {
+                return predictPackedBuffer(examples, examples.position(), examples.remaining(), learn, nativePointer);
+            }
+            throw new IllegalStateException("Already closed.");
+        }
+        finally {
+            release(learn);
+        }
+    }
+
+    /**
+     * <code>learnOrPredictBatch</code> runs a batch of single line examples through one native call while the
+     * lock is held once for the whole batch.
+     * @param examples single line examples
+     * @param learn whether to call the learn or predict VW functions.
+     * @return the <em>UNBOXED</em> predictions, one per example.
+     */
+    private int[] learnOrPredictBatch(final String[] examples, final boolean learn) {
+        acquire();
+        try {
+            if (isOpen()) {
+                return predictBatch(examples, learn, nativePointer);
+            }
+            throw new IllegalStateException("Already closed.");
+        }
+        finally {
+            release(learn);
         }
     }
 
@@ -86,6 +189,123 @@ abstract class VWIntLearner extends VWBase implements VWLearner {
      */
     public int learn(final String[] example) { return learnOrPredict(example, true); }
 
+    /**
+     * Runs prediction on the UTF-8 encoded example stored between the position and limit of a <em>direct</em>
+     * buffer and returns the prediction output.  The example is parsed without being decoded into a String.
+     *
+     * @param example a direct buffer containing a single vw example
+     * @return A prediction
+     */
+    public int predict(final ByteBuffer example) {
+        return learnOrPredict(example, false);
+    }
+
+    /**
+     * Runs learning on the UTF-8 encoded example stored between the position and limit of a <em>direct</em>
+     * buffer and returns the prediction output.  The example is parsed without being decoded into a String.
+     *
+     * @param example a direct buffer containing a single vw example
+     * @return A prediction
+     */
+    public int learn(final ByteBuffer example) {
+        return learnOrPredict(example, true);
+    }
+
+    /**
+     * Runs prediction on a multiline example stored in a <em>direct</em> buffer and returns the prediction output.
+     * See {@link VWTypedLearner#learn(ByteBuffer, int[])} for the layout of <code>offsets</code>.
+     *
+     * @param example a direct buffer containing the lines of a multiline vw example
+     * @param offsets the line boundaries, relative to the position of <code>example</code>
+     * @return A prediction
+     */
+    public int predict(final ByteBuffer example, final int[] offsets) {
+        return learnOrPredict(example, offsets, false);
+    }
+
+    /**
+     * Runs learning on a multiline example stored in a <em>direct</em> buffer and returns the prediction output.
+     * See {@link VWTypedLearner#learn(ByteBuffer, int[])} for the layout of <code>offsets</code>.
+     *
+     * @param example a direct buffer containing the lines of a multiline vw example
+     * @param offsets the line boundaries, relative to the position of <code>example</code>
+     * @return A prediction
+     */
+    public int learn(final ByteBuffer example, final int[] offsets) {
+        return learnOrPredict(example, offsets, true);
+    }
+
+    /**
+     * Runs prediction on a multiline example packed into one newline delimited string and returns the prediction
+     * output.  Empty lines are ignored.
+     *
+     * @param examples the newline delimited lines of a multiline vw example
+     * @return A prediction
+     */
+    public int predictPacked(final String examples) {
+        return learnOrPredictPacked(examples, false);
+    }
+
+    /**
+     * Runs learning on a multiline example packed into one newline delimited string and returns the prediction
+     * output.  Empty lines are ignored.
+     *
+     * @param examples the newline delimited lines of a multiline vw example
+     * @return A prediction
+     */
+    public int learnPacked(final String examples) {
+        return learnOrPredictPacked(examples, true);
+    }
+
+    /**
+     * Runs prediction on a multiline example packed into the newline delimited UTF-8 bytes between the position and
+     * limit of a <em>direct</em> buffer and returns the prediction output.  Empty lines are ignored.
+     *
+     * @param examples a direct buffer containing the lines of a multiline vw example
+     * @return A prediction
+     */
+    public int predictPacked(final ByteBuffer examples) {
+        return learnOrPredictPacked(examples, false);
+    }
+
+    /**
+     * Runs learning on a multiline example packed into the newline delimited UTF-8 bytes between the position and
+     * limit of a <em>direct</em> buffer and returns the prediction output.  Empty lines are ignored.
+     *
+     * @param examples a direct buffer containing the lines of a multiline vw example
+     * @return A prediction
+     */
+    public int learnPacked(final ByteBuffer examples) {
+        return learnOrPredictPacked(examples, true);
+    }
+
+    /**
+     * Runs prediction on each of the single line <code>examples</code> and returns the prediction outputs.
+     *
+     * @param examples single line vw example strings
+     * @return The predictions, one per example
+     * @throws VWBatchException if an example fails, the examples before it have been processed.
+     */
+    public int[] predictBatch(final String[] examples) {
+        return learnOrPredictBatch(examples, false);
+    }
+
+    /**
+     * Runs learning on each of the single line <code>examples</code>, in order, and returns the prediction outputs.
+     *
+     * @param examples single line vw example strings
+     * @return The predictions, one per example
+     * @throws VWBatchException if an example fails, the examples before it have been processed.
+     */
+    public int[] learnBatch(final String[] examples) {
+        return learnOrPredictBatch(examples, true);
+    }
+
     protected abstract int predict(String example, boolean learn, long nativePointer);
     protected abstract int predictMultiline(String[] example, boolean learn, long nativePointer);
+    protected abstract int[] predictBatch(String[] examples, boolean learn, long nativePointer);
+    protected abstract int predictPacked(String examples, boolean learn, long nativePointer);
+    protected abstract int predictPackedBuffer(ByteBuffer examples, int position, int length, boolean learn, long nativePointer);
+    protected abstract int predictBuffer(ByteBuffer example, int position, int length, boolean learn, long nativePointer);
+    protected abstract int predictMultilineBuffer(ByteBuffer example, int position, int[] offsets, boolean learn, long nativePointer);
 }
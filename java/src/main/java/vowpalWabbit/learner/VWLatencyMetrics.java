@@ -0,0 +1,68 @@
+package vowpalWabbit.learner;
+
+/**
+ * Keeps separate {@link VWLatencyHistogram}s of the lock wait and native time of learn and predict calls.
+ * <pre>
+ * {@code
+ * VWLatencyMetrics metrics = new VWLatencyMetrics();
+ * learner.setMetrics(metrics);
+ * ...
+ * long p99 = metrics.getPredictLockWait().getValueAtPercentile(99);
+ * }
+ * </pre>
+ * One instance can be shared by several learners to get their combined latencies.
+ */
+public final class VWLatencyMetrics implements VWMetrics {
+    private final VWLatencyHistogram learnLockWait = new VWLatencyHistogram();
+    private final VWLatencyHistogram learnNative = new VWLatencyHistogram();
+    private final VWLatencyHistogram predictLockWait = new VWLatencyHistogram();
+    private final VWLatencyHistogram predictNative = new VWLatencyHistogram();
+
+    @Override
+    public void record(final boolean learn, final long lockWaitNanos, final long nativeNanos) {
+        if (learn) {
+            learnLockWait.record(lockWaitNanos);
+            learnNative.record(nativeNanos);
+        }
+        else {
+            predictLockWait.record(lockWaitNanos);
+            predictNative.record(nativeNanos);
+        }
+    }
+
+    public VWLatencyHistogram getLearnLockWait() {
+        return learnLockWait;
+    }
+
+    public VWLatencyHistogram getLearnNative() {
+        return learnNative;
+    }
+
+    public VWLatencyHistogram getPredictLockWait() {
+        return predictLockWait;
+    }
+
+    public VWLatencyHistogram getPredictNative() {
+        return predictNative;
+    }
+
+    /**
+     * Discards all recorded values.
+     */
+    public void reset() {
+        learnLockWait.reset();
+        learnNative.reset();
+        predictLockWait.reset();
+        predictNative.reset();
+    }
+
+    @Override
+    public String toString() {
+        return "VWLatencyMetrics{" +
+                "learnLockWait=" + learnLockWait +
+                ", learnNative=" + learnNative +
+                ", predictLockWait=" + predictLockWait +
+                ", predictNative=" + predictNative +
+                '}';
+    }
+}
@@ -4,12 +4,17 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import vowpalWabbit.NativeMemoryReporter;
+import vowpalWabbit.NativeMemoryStats;
 
 /**
  * This is the super type of all different typed VW learners.  This type exists to ensure that the
  * {@link VWLearners#create(String)} method has a super type.
  */
-public interface VWLearner extends Closeable {
+public interface VWLearner extends Closeable, NativeMemoryReporter {
 
     /**
      * This will close the underlying VW model after performing any
@@ -47,5 +52,55 @@ public interface VWLearner extends Closeable {
      */
     Callable<Boolean> closer();
 
+    /**
+     * Runs the {@link #closer()} on <code>executor</code>.  Independent models may be closed in parallel, which
+     * matters when each of them has to perform its remaining passes.
+     * @param executor the executor on which the model is closed.
+     * @return a future which completes with the result of the closer, or exceptionally if closing failed.
+     */
+    default CompletableFuture<Boolean> closeAsync(final Executor executor) {
+        final Callable<Boolean> closer = closer();
+        final CompletableFuture<Boolean> result = new CompletableFuture<Boolean>();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    result.complete(closer.call());
+                }
+                catch (Throwable t) {
+                    result.completeExceptionally(t);
+                }
+            }
+        });
+        return result;
+    }
+
     void saveModel(File filename);
+
+    /**
+     * Reports the lock wait and native time of every subsequent learn and predict call to <code>metrics</code>.
+     * Calls are not timed by default; when no metrics are set timing costs a single branch per call.
+     * @param metrics the metrics receiving the timings, or <code>null</code> to stop timing calls.
+     * @throws UnsupportedOperationException if this learner can't time its calls, which is the default for
+     *         implementations other than the native learners.
+     */
+    default void setMetrics(VWMetrics metrics) {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support metrics.");
+    }
+
+    /**
+     * @return the metrics set by {@link #setMetrics(VWMetrics)}, or <code>null</code> if calls are not timed.
+     */
+    default VWMetrics getMetrics() {
+        return null;
+    }
+
+    /**
+     * @return the native memory owned by this learner.  Implementations that don't own native memory, such as
+     *         wrappers of another learner, report {@link NativeMemoryStats#EMPTY} by default.
+     */
+    @Override
+    default NativeMemoryStats getNativeMemoryStats() {
+        return NativeMemoryStats.EMPTY;
+    }
 }
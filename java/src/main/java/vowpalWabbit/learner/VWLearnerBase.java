@@ -1,5 +1,7 @@
 package vowpalWabbit.learner;
 
+import java.nio.ByteBuffer;
+
 /**
  * This abstract base class allows the authors of new model wrappers to just write
  * java code like the following:
@@ -40,12 +42,72 @@ abstract class VWLearnerBase<T> extends VWBase implements VWTypedLearner<T> {
         return learnOrPredict(example, false);
     }
 
+    @Override
+    public final T learn(ByteBuffer example) {
+        return learnOrPredict(example, true);
+    }
+
+    @Override
+    public final T predict(ByteBuffer example) {
+        return learnOrPredict(example, false);
+    }
+
+    @Override
+    public final T learn(ByteBuffer example, int[] offsets) {
+        return learnOrPredict(example, offsets, true);
+    }
+
+    @Override
+    public final T predict(ByteBuffer example, int[] offsets) {
+        return learnOrPredict(example, offsets, false);
+    }
+
+    @Override
+    public final T learnPacked(String examples) {
+        return learnOrPredictPacked(examples, true);
+    }
+
+    @Override
+    public final T predictPacked(String examples) {
+        return learnOrPredictPacked(examples, false);
+    }
+
+    @Override
+    public final T learnPacked(ByteBuffer examples) {
+        return learnOrPredictPacked(examples, true);
+    }
+
+    @Override
+    public final T predictPacked(ByteBuffer examples) {
+        return learnOrPredictPacked(examples, false);
+    }
+
+    @Override
+    public final T[] learnBatch(String[] examples) {
+        return learnOrPredictBatch(examples, true);
+    }
+
+    @Override
+    public final T[] predictBatch(String[] examples) {
+        return learnOrPredictBatch(examples, false);
+    }
+
     protected abstract T predict(String example, boolean learn, long nativePointer);
 
     protected abstract T predictMultiline(String[] example, boolean learn, long nativePointer);
 
+    protected abstract T[] predictBatch(String[] examples, boolean learn, long nativePointer);
+
+    protected abstract T predictPacked(String examples, boolean learn, long nativePointer);
+
+    protected abstract T predictPackedBuffer(ByteBuffer examples, int position, int length, boolean learn, long nativePointer);
+
+    protected abstract T predictBuffer(ByteBuffer example, int position, int length, boolean learn, long nativePointer);
+
+    protected abstract T predictMultilineBuffer(ByteBuffer example, int position, int[] offsets, boolean learn, long nativePointer);
+
     private T learnOrPredict(final String example, final boolean learn) {
-        lock.lock();
+        acquire();
         try {
             if (isOpen()) {
                 return predict(example, learn, nativePointer);
@@ -53,12 +115,12 @@ abstract class VWLearnerBase<T> extends VWBase implements VWTypedLearner<T> {
             throw new IllegalStateException("Already closed.");
         }
         finally {
-            lock.unlock();
+            release(learn);
         }
     }
 
     private T learnOrPredict(final String[] example, final boolean learn) {
-        lock.lock();
+        acquire();
         try {
             if (isOpen()) {
                 return predictMultiline(example, learn, nativePointer);
@@ -66,7 +128,75 @@ abstract class VWLearnerBase<T> extends VWBase implements VWTypedLearner<T> {
             throw new IllegalStateException("Already closed.");
         }
         finally {
-            lock.unlock();
+            release(learn);
+        }
+    }
+
+    private T learnOrPredict(final ByteBuffer example, final boolean learn) {
+        checkDirect(example);
+        acquire();
+        try {
+            if (isOpen()) {
+                return predictBuffer(example, example.position(), example.remaining(), learn, nativePointer);
+            }
+            throw new IllegalStateException("Already closed.");
+        }
+        finally {
+            release(learn);
+        }
+    }
+
+    private T learnOrPredict(final ByteBuffer example, final int[] offsets, final boolean learn) {
+        checkOffsets(example, offsets);
+        acquire();
+        try {
+            if (isOpen()) {
+                return predictMultilineBuffer(example, example.position(), offsets, learn, nativePointer);
+            }
+            throw new IllegalStateException("Already closed.");
+        }
+        finally {
+            release(learn);
+        }
+    }
+
+    private T learnOrPredictPacked(final String examples, final boolean learn) {
+        acquire();
+        try {
+            if (isOpen()) {
+                return predictPacked(examples, learn, nativePointer);
+            }
+            throw new IllegalStateException("Already closed.");
+        }
+        finally {
+            release(learn);
+        }
+    }
+
+    private T learnOrPredictPacked(final ByteBuffer examples, final boolean learn) {
+        checkDirect(examples);
+        acquire();
+        try {
+            if (isOpen()) {
+                return predictPackedBuffer(examples, examples.position(), examples.remaining(), learn, nativePointer);
+            }
+            throw new IllegalStateException("Already closed.");
+        }
+        finally {
+            release(learn);
+        }
+    }
+
+    private T[] learnOrPredictBatch(final String[] examples, final boolean learn) {
+        acquire();
+        try {
+            if (isOpen()) {
+                return predictBatch(examples, learn, nativePointer);
+            }
+            throw new IllegalStateException("Already closed.");
+        }
+        finally {
+            release(learn);
         }
     }
 }
@@ -1,5 +1,11 @@
 package vowpalWabbit.learner;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import vowpalWabbit.NativeMemoryStats;
+
 /**
  * This is the only entrance point to create a VWLearner.  It is the responsibility of the user to supply the type they want
  * given the VW command.  If that type is incorrect a {@link java.lang.ClassCastException} is thrown.  Refer to
@@ -26,10 +32,11 @@ final public class VWLearners {
      * }
      * </pre>
      *
-     * NOTE: It is very important to note that if this method results in a {@link java.lang.ClassCastException} then there
-     * WILL be a memory leak as the exception occurs in the calling method not this method due to type erasures.  It is therefore
-     * imperative that if the caller of this method is unsure of the type returned that it should specify <code>T</code>
-     * as {@link VWBase} and do the casting on it's side so that closing the method can be guaranteed.
+     * NOTE: If this method results in a {@link java.lang.ClassCastException} the learner can't be closed as the exception
+     * occurs in the calling method not this method due to type erasures.  Its memory is only freed once the learner is
+     * garbage collected (see {@link vowpalWabbit.NativeCleaner}).  It is therefore recommended that if the caller of this
+     * method is unsure of the type returned that it should specify <code>T</code> as {@link VWLearner} and do the casting
+     * on it's side so that closing the method can be guaranteed.
      * @param command The VW initialization command.
      * @param <T> The type of learner expected.  Note that this type implicitly specifies the output type of the learner.
      * @return A VW Learner
@@ -39,6 +46,49 @@ final public class VWLearners {
         if(command.indexOf("--no_stdin") == -1)
             command += " --no_stdin";
         long nativePointer = initialize(command);
+        return wrap(nativePointer, command);
+    }
+
+    /**
+     * Create a pool of <code>numReplicas</code> predict-only learners which share the weights of a single model
+     * loaded using <code>command</code>.  See {@link VWPredictorPool} for more information.
+     * <pre>
+     * {@code
+     *     VWPredictorPool<VWScalarLearner> pool = VWLearners.createPredictorPool("--quiet -t -i model.vw", 8);
+     * }
+     * </pre>
+     * @param command The VW initialization command.  This should load an existing model.
+     * @param numReplicas The number of replicas, typically the number of cores used for predictions.
+     * @param <T> The type of learner expected.  Note that this type implicitly specifies the output type of the learner.
+     * @return A pool of VW Learners sharing one weight table.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends VWLearner> VWPredictorPool<T> createPredictorPool(String command, int numReplicas) {
+        if (numReplicas < 1)
+            throw new IllegalArgumentException("The number of replicas must be positive but was " + numReplicas);
+
+        final VWBase base = create(command);
+        final List<T> replicas = new ArrayList<T>(numReplicas);
+        try {
+            for (int i = 0; i < numReplicas; ++i) {
+                final VWBase replica = wrap(seedModel(base.nativePointer, "-t"), command);
+                replica.dependsOn(base);
+                replicas.add((T) replica);
+            }
+        }
+        catch (RuntimeException e) {
+            // Replicas reference the weights of the base model so they must be closed first.
+            for (T replica : replicas) {
+                closeQuietly(replica);
+            }
+            closeQuietly(base);
+            throw e;
+        }
+        return new VWPredictorPool<T>(base, replicas);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T extends VWLearner> T wrap(long nativePointer, String command) {
         VWReturnType returnType = getReturnType(nativePointer);
 
         switch (returnType) {
@@ -57,9 +107,24 @@ final public class VWLearners {
         }
     }
 
+    private static void closeQuietly(VWLearner learner) {
+        try {
+            learner.close();
+        }
+        catch (IOException ignored) {
+            // The original exception is more relevant to the caller.
+        }
+    }
+
     private static native long initialize(String command);
     private static native VWReturnType getReturnType(long nativePointer);
 
+    /**
+     * Creates a new VW instance using the same arguments as the one at <code>nativePointer</code> plus
+     * <code>extraArgs</code>, referencing (not copying) its weights.
+     */
+    private static native long seedModel(long nativePointer, String extraArgs);
+
     // Closing needs to be done here when initialization fails and by VWBase
     static native void closeInstance(long nativePointer);
 
@@ -67,4 +132,6 @@ final public class VWLearners {
     static native void performRemainingPasses(long nativePointer);
 
     static native void saveModel(long nativePointer, String filename);
+
+    static native NativeMemoryStats getNativeMemoryStats(long nativePointer);
 }
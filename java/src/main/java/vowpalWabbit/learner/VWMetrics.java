@@ -0,0 +1,24 @@
+package vowpalWabbit.learner;
+
+/**
+ * <p>
+ * Receives the timing of every learn and predict call of a learner, see {@link VWLearner#setMetrics(VWMetrics)}.
+ * Implement this interface to forward the timings to a telemetry system, or use {@link VWLatencyMetrics} which keeps
+ * latency histograms.
+ * </p>
+ *
+ * <p>
+ * {@link #record(boolean, long, long)} is called on the calling thread while the learner's lock is still held, so
+ * implementations must be thread safe and fast.
+ * </p>
+ */
+public interface VWMetrics {
+    /**
+     * Records one call.
+     * @param learn whether the call updated the model.
+     * @param lockWaitNanos the time spent waiting for the learner's lock, in nanoseconds.
+     * @param nativeNanos the time spent in the call once the lock was held, which is the parsing, learning or
+     *                    predicting and the conversion of the prediction, in nanoseconds.
+     */
+    void record(boolean learn, long lockWaitNanos, long nativeNanos);
+}
@@ -0,0 +1,206 @@
+package vowpalWabbit.learner;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * <p>
+ * Holds the learner currently used for serving and allows it to be replaced while other threads are using it.
+ * Callers {@link #acquire()} a {@link Lease} for the duration of their calls rather than keeping a reference to the
+ * learner.  {@link #swap(VWLearner)} atomically installs a new learner; leases acquired afterwards see the new
+ * learner, while leases acquired before keep using the old one.  The old learner is closed only once the last of
+ * those leases is closed, so a model refresh causes neither a pause nor an "Already closed." error.
+ * </p>
+ *
+ * <pre>
+ * {@code
+ * VWModelHolder<VWScalarLearner> holder = new VWModelHolder<VWScalarLearner>(VWLearners.<VWScalarLearner>create(cmd));
+ *
+ * // request threads
+ * VWModelHolder.Lease<VWScalarLearner> lease = holder.acquire();
+ * try {
+ *     return lease.get().predict(example);
+ * }
+ * finally {
+ *     lease.close();
+ * }
+ *
+ * // refresh thread
+ * holder.swap(VWLearners.<VWScalarLearner>create("--quiet -t -i " + newModel));
+ * }
+ * </pre>
+ *
+ * @param <T> The type of learner held.
+ */
+public final class VWModelHolder<T extends VWLearner> implements Closeable {
+    private final AtomicReference<Generation<T>> current;
+    private final Executor retirementExecutor;
+    private volatile boolean closed;
+
+    /**
+     * Creates a holder which closes retired learners on the thread that closes their last lease.
+     * @param learner the initial learner, which is owned by the holder from now on.
+     */
+    public VWModelHolder(final T learner) {
+        this(learner, new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                command.run();
+            }
+        });
+    }
+
+    /**
+     * Creates a holder which closes retired learners on <code>retirementExecutor</code>.  Closing a learner may take
+     * a long time (e.g. if it has to save the model), this keeps that work off the serving threads.
+     * @param learner the initial learner, which is owned by the holder from now on.
+     * @param retirementExecutor the executor on which retired learners are closed.
+     */
+    public VWModelHolder(final T learner, final Executor retirementExecutor) {
+        if (learner == null) {
+            throw new NullPointerException("learner must not be null.");
+        }
+        if (retirementExecutor == null) {
+            throw new NullPointerException("retirementExecutor must not be null.");
+        }
+        this.retirementExecutor = retirementExecutor;
+        current = new AtomicReference<Generation<T>>(new Generation<T>(learner, retirementExecutor));
+    }
+
+    /**
+     * Leases the current learner.  The learner is guaranteed to stay open until the lease is closed, even if it is
+     * swapped out in the meantime.
+     * @return a lease which MUST be closed once the caller is done with the learner.
+     * @throws IllegalStateException if the holder has been closed.
+     */
+    public Lease<T> acquire() {
+        while (true) {
+            if (closed) {
+                throw new IllegalStateException("Already closed.");
+            }
+            final Generation<T> generation = current.get();
+            // Fails only if the generation was swapped out and drained between the two lines, retry with the new one.
+            if (generation.retain()) {
+                return new Lease<T>(generation);
+            }
+        }
+    }
+
+    /**
+     * Installs <code>learner</code> as the current learner and retires the previous one.  The previous learner is
+     * closed once all of its outstanding leases are closed.
+     * @param learner the new learner, which is owned by the holder from now on.
+     * @return a future which completes with the result of closing the previous learner.
+     * @throws IllegalStateException if the holder has been closed.
+     */
+    public synchronized CompletableFuture<Boolean> swap(final T learner) {
+        if (learner == null) {
+            throw new NullPointerException("learner must not be null.");
+        }
+        if (closed) {
+            throw new IllegalStateException("Already closed.");
+        }
+        final Generation<T> previous = current.getAndSet(new Generation<T>(learner, retirementExecutor));
+        previous.release();
+        return previous.retired;
+    }
+
+    /**
+     * Retires the current learner.  It is closed once all of its outstanding leases are closed.  No leases can be
+     * acquired after this is called.
+     */
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            current.get().release();
+        }
+    }
+
+    /**
+     * @return a future which completes once the current learner has been retired and closed.
+     */
+    public CompletableFuture<Boolean> closeFuture() {
+        return current.get().retired;
+    }
+
+    /**
+     * Gives access to a learner until it is closed.  Leases are not thread safe and should be closed by the thread
+     * that acquired them.
+     * @param <T> The type of learner leased.
+     */
+    public static final class Lease<T extends VWLearner> implements Closeable {
+        private final Generation<T> generation;
+        private boolean closed;
+
+        private Lease(final Generation<T> generation) {
+            this.generation = generation;
+        }
+
+        /**
+         * @return the leased learner, which MUST NOT be used after the lease is closed.
+         */
+        public T get() {
+            if (closed) {
+                throw new IllegalStateException("Lease already closed.");
+            }
+            return generation.learner;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                generation.release();
+            }
+        }
+    }
+
+    /**
+     * A learner with a reference count.  The holder owns one reference for as long as the learner is current and
+     * every lease owns one.  The learner is closed when the count drops to zero.
+     */
+    private static final class Generation<T extends VWLearner> {
+        private final T learner;
+        private final Executor retirementExecutor;
+        private final AtomicInteger references = new AtomicInteger(1);
+        private final CompletableFuture<Boolean> retired = new CompletableFuture<Boolean>();
+
+        private Generation(final T learner, final Executor retirementExecutor) {
+            this.learner = learner;
+            this.retirementExecutor = retirementExecutor;
+        }
+
+        private boolean retain() {
+            while (true) {
+                final int count = references.get();
+                if (count == 0) {
+                    return false;
+                }
+                if (references.compareAndSet(count, count + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private void release() {
+            if (references.decrementAndGet() == 0) {
+                learner.closeAsync(retirementExecutor).whenComplete(new BiConsumer<Boolean, Throwable>() {
+                    @Override
+                    public void accept(final Boolean result, final Throwable failure) {
+                        if (failure != null) {
+                            retired.completeExceptionally(failure);
+                        }
+                        else {
+                            retired.complete(result);
+                        }
+                    }
+                });
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package vowpalWabbit.learner;
 
+import java.nio.ByteBuffer;
+
 /**
  * @author deak
  */
@@ -13,4 +15,19 @@ final public class VWMulticlassLearner extends VWIntLearner {
 
     @Override
     protected native int predictMultiline(String[] example, boolean learn, long nativePointer);
+
+    @Override
+    protected native int[] predictBatch(String[] examples, boolean learn, long nativePointer);
+
+    @Override
+    protected native int predictPacked(String examples, boolean learn, long nativePointer);
+
+    @Override
+    protected native int predictPackedBuffer(ByteBuffer examples, int position, int length, boolean learn, long nativePointer);
+
+    @Override
+    protected native int predictBuffer(ByteBuffer example, int position, int length, boolean learn, long nativePointer);
+
+    @Override
+    protected native int predictMultilineBuffer(ByteBuffer example, int position, int[] offsets, boolean learn, long nativePointer);
 }
@@ -2,14 +2,112 @@ package vowpalWabbit.learner;
 
 import vowpalWabbit.responses.Multilabels;
 
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+
 public final class VWMultilabelsLearner extends VWLearnerBase<Multilabels> {
     VWMultilabelsLearner(final long nativePointer) {
         super(nativePointer);
     }
 
+    /**
+     * Learn from the example and copy the predicted labels into <code>out</code> instead of allocating a new result.
+     * If <code>out</code> is too small only the first <code>out.length</code> labels are copied.
+     * @param example an example from which to learn.
+     * @param out the array to which the labels are copied.
+     * @return the number of predicted labels, which may be larger than <code>out.length</code>.
+     */
+    public int learn(final String example, final int[] out) {
+        return learnOrPredict(example, out, true);
+    }
+
+    /**
+     * Predict the example without learning from it and copy the predicted labels into <code>out</code> instead of
+     * allocating a new result.  If <code>out</code> is too small only the first <code>out.length</code> labels
+     * are copied.
+     * @param example an example upon which the prediction is based.
+     * @param out the array to which the labels are copied.
+     * @return the number of predicted labels, which may be larger than <code>out.length</code>.
+     */
+    public int predict(final String example, final int[] out) {
+        return learnOrPredict(example, out, false);
+    }
+
+    /**
+     * Learn from the example and write the predicted labels to <code>out</code>, starting at its position.  At
+     * most <code>out.remaining()</code> labels are written and the position of <code>out</code> isn't modified.
+     * @param example an example from which to learn.
+     * @param out a direct buffer in the native byte order to which the labels are written.
+     * @return the number of predicted labels, which may be larger than <code>out.remaining()</code>.
+     */
+    public int learn(final String example, final IntBuffer out) {
+        return learnOrPredict(example, out, true);
+    }
+
+    /**
+     * Predict the example without learning from it and write the predicted labels to <code>out</code>, starting
+     * at its position.  At most <code>out.remaining()</code> labels are written and the position of
+     * <code>out</code> isn't modified.
+     * @param example an example upon which the prediction is based.
+     * @param out a direct buffer in the native byte order to which the labels are written.
+     * @return the number of predicted labels, which may be larger than <code>out.remaining()</code>.
+     */
+    public int predict(final String example, final IntBuffer out) {
+        return learnOrPredict(example, out, false);
+    }
+
+    private int learnOrPredict(final String example, final int[] out, final boolean learn) {
+        if (out == null) {
+            throw new NullPointerException("out must not be null.");
+        }
+        acquire();
+        try {
+            if (isOpen()) {
+                return predictIntoArray(example, out, learn, nativePointer);
+            }
+            throw new IllegalStateException("Already closed.");
+        }
+        finally {
+            release(learn);
+        }
+    }
+
+    private int learnOrPredict(final String example, final IntBuffer out, final boolean learn) {
+        checkOutput(out, out.order());
+        acquire();
+        try {
+            if (isOpen()) {
+                return predictIntoBuffer(example, out, out.position(), out.remaining(), learn, nativePointer);
+            }
+            throw new IllegalStateException("Already closed.");
+        }
+        finally {
+            release(learn);
+        }
+    }
+
+    private native int predictIntoArray(String example, int[] out, boolean learn, long nativePointer);
+
+    private native int predictIntoBuffer(String example, IntBuffer out, int position, int length, boolean learn, long nativePointer);
+
     @Override
     protected native Multilabels predict(String example, boolean learn, long nativePointer);
 
     @Override
     protected native Multilabels predictMultiline(String[] example, boolean learn, long nativePointer);
+
+    @Override
+    protected native Multilabels[] predictBatch(String[] examples, boolean learn, long nativePointer);
+
+    @Override
+    protected native Multilabels predictPacked(String examples, boolean learn, long nativePointer);
+
+    @Override
+    protected native Multilabels predictPackedBuffer(ByteBuffer examples, int position, int length, boolean learn, long nativePointer);
+
+    @Override
+    protected native Multilabels predictBuffer(ByteBuffer example, int position, int length, boolean learn, long nativePointer);
+
+    @Override
+    protected native Multilabels predictMultilineBuffer(ByteBuffer example, int position, int[] offsets, boolean learn, long nativePointer);
 }
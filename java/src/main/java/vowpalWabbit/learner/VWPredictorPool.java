@@ -0,0 +1,122 @@
+package vowpalWabbit.learner;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * A fixed size pool of predict-only VW replicas which all share the weights of a single VW model.  Each
+ * {@link VWLearner} serializes its callers on its own lock, so one learner can only ever use one core.  Rather than
+ * loading the model N times (multiplying the memory used by the weights by N), the replicas in this pool are created
+ * with the native <code>VW::seed_vw_model</code> which references the weight table of the base model instead of
+ * copying it.  Each replica gets its own copy of the base model's shared data (example counters, loss and the range
+ * of labels seen, which predictions are clipped to), so replicas predicting at the same time don't write to the same
+ * memory.  The copy is taken when the pool is created, labels predicted by one replica don't affect the others.
+ * </p>
+ *
+ * <p>
+ * Callers {@link #acquire()} a replica, make any number of predictions with it and then {@link #release(VWLearner)}
+ * it.  While a replica is acquired no other caller is handed the same replica, so there is no contention on the
+ * replica's lock and N threads can predict on N cores at the same time.
+ * </p>
+ *
+ * <p>
+ * <b>NOTE</b>: Replicas are created with <code>-t</code> and MUST only be used for predictions as they do not own
+ * the weights they are reading.  Because the replicas are initialized with the same arguments as the base model,
+ * the command should not write anything on close (e.g. <code>-f</code> or <code>-p</code>).  A typical command is
+ * <code>--quiet -t -i model.vw</code>.
+ * </p>
+ *
+ * <p>
+ * Use {@link VWLearners#createPredictorPool(String, int)} to create a pool.
+ * </p>
+ *
+ * @param <T> The type of learner in the pool.
+ */
+public final class VWPredictorPool<T extends VWLearner> implements Closeable {
+    private final VWLearner base;
+    private final List<T> replicas;
+    private final BlockingQueue<T> idle;
+
+    VWPredictorPool(final VWLearner base, final List<T> replicas) {
+        this.base = base;
+        this.replicas = Collections.unmodifiableList(new ArrayList<T>(replicas));
+        this.idle = new ArrayBlockingQueue<T>(replicas.size(), false, replicas);
+    }
+
+    /**
+     * Waits until a replica is available and removes it from the pool.  The replica MUST be handed back using
+     * {@link #release(VWLearner)}.
+     * @return a replica which is not used by any other caller.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public T acquire() throws InterruptedException {
+        return idle.take();
+    }
+
+    /**
+     * Waits up to <code>timeout</code> until a replica is available and removes it from the pool.
+     * @param timeout how long to wait before giving up.
+     * @param unit the unit of <code>timeout</code>.
+     * @return a replica which is not used by any other caller or <code>null</code> if none became available.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public T acquire(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return idle.poll(timeout, unit);
+    }
+
+    /**
+     * Hands a replica previously returned by {@link #acquire()} back to the pool.
+     * @param replica the replica to return.
+     */
+    public void release(final T replica) {
+        if (!replicas.contains(replica)) {
+            throw new IllegalArgumentException("The learner was not acquired from this pool.");
+        }
+        if (!idle.offer(replica)) {
+            throw new IllegalStateException("The learner was released more than once.");
+        }
+    }
+
+    /**
+     * @return the number of replicas in the pool.
+     */
+    public int size() {
+        return replicas.size();
+    }
+
+    /**
+     * @return the number of replicas not currently acquired.
+     */
+    public int available() {
+        return idle.size();
+    }
+
+    /**
+     * Closes all replicas followed by the base model that owns the shared weights.  Replicas which are still
+     * acquired are closed as well, after which they throw an {@link IllegalStateException} if used.
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (final T replica : replicas) {
+            try {
+                replica.close();
+            }
+            catch (IOException e) {
+                failure = e;
+            }
+        }
+        // The base model owns the weights, it must outlive all of its replicas.
+        base.close();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
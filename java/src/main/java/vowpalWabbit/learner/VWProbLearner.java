@@ -1,5 +1,7 @@
 package vowpalWabbit.learner;
 
+import java.nio.ByteBuffer;
+
 /**
  * @author deak
  */
@@ -14,5 +16,20 @@ final public class VWProbLearner extends VWFloatLearner {
     @Override
     protected native float predictMultiline(String[] example, boolean learn, long nativePointer);
 
+    @Override
+    protected native float[] predictBatch(String[] examples, boolean learn, long nativePointer);
+
     public static native String version();
+
+    @Override
+    protected native float predictPacked(String examples, boolean learn, long nativePointer);
+
+    @Override
+    protected native float predictPackedBuffer(ByteBuffer examples, int position, int length, boolean learn, long nativePointer);
+
+    @Override
+    protected native float predictBuffer(ByteBuffer example, int position, int length, boolean learn, long nativePointer);
+
+    @Override
+    protected native float predictMultilineBuffer(ByteBuffer example, int position, int[] offsets, boolean learn, long nativePointer);
 }
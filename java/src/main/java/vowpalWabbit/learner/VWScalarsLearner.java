@@ -1,5 +1,8 @@
 package vowpalWabbit.learner;
 
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+
 /**
  * @author deak
  */
@@ -8,9 +11,104 @@ final public class VWScalarsLearner extends VWLearnerBase<float[]> {
         super(nativePointer);
     }
 
+    /**
+     * Learn from the example and copy the predicted values into <code>out</code> instead of allocating a new result.
+     * If <code>out</code> is too small only the first <code>out.length</code> values are copied.
+     * @param example an example from which to learn.
+     * @param out the array to which the values are copied.
+     * @return the number of predicted values, which may be larger than <code>out.length</code>.
+     */
+    public int learn(final String example, final float[] out) {
+        return learnOrPredict(example, out, true);
+    }
+
+    /**
+     * Predict the example without learning from it and copy the predicted values into <code>out</code> instead of
+     * allocating a new result.  If <code>out</code> is too small only the first <code>out.length</code> values
+     * are copied.
+     * @param example an example upon which the prediction is based.
+     * @param out the array to which the values are copied.
+     * @return the number of predicted values, which may be larger than <code>out.length</code>.
+     */
+    public int predict(final String example, final float[] out) {
+        return learnOrPredict(example, out, false);
+    }
+
+    /**
+     * Learn from the example and write the predicted values to <code>out</code>, starting at its position.  At
+     * most <code>out.remaining()</code> values are written and the position of <code>out</code> isn't modified.
+     * @param example an example from which to learn.
+     * @param out a direct buffer in the native byte order to which the values are written.
+     * @return the number of predicted values, which may be larger than <code>out.remaining()</code>.
+     */
+    public int learn(final String example, final FloatBuffer out) {
+        return learnOrPredict(example, out, true);
+    }
+
+    /**
+     * Predict the example without learning from it and write the predicted values to <code>out</code>, starting
+     * at its position.  At most <code>out.remaining()</code> values are written and the position of
+     * <code>out</code> isn't modified.
+     * @param example an example upon which the prediction is based.
+     * @param out a direct buffer in the native byte order to which the values are written.
+     * @return the number of predicted values, which may be larger than <code>out.remaining()</code>.
+     */
+    public int predict(final String example, final FloatBuffer out) {
+        return learnOrPredict(example, out, false);
+    }
+
+    private int learnOrPredict(final String example, final float[] out, final boolean learn) {
+        if (out == null) {
+            throw new NullPointerException("out must not be null.");
+        }
+        acquire();
+        try {
+            if (isOpen()) {
+                return predictIntoArray(example, out, learn, nativePointer);
+            }
+            throw new IllegalStateException("Already closed.");
+        }
+        finally {
+            release(learn);
+        }
+    }
+
+    private int learnOrPredict(final String example, final FloatBuffer out, final boolean learn) {
+        checkOutput(out, out.order());
+        acquire();
+        try {
+            if (isOpen()) {
+                return predictIntoBuffer(example, out, out.position(), out.remaining(), learn, nativePointer);
+            }
+            throw new IllegalStateException("Already closed.");
+        }
+        finally {
+            release(learn);
+        }
+    }
+
+    private native int predictIntoArray(String example, float[] out, boolean learn, long nativePointer);
+
+    private native int predictIntoBuffer(String example, FloatBuffer out, int position, int length, boolean learn, long nativePointer);
+
     @Override
     protected native float[] predict(String example, boolean learn, long nativePointer);
 
     @Override
     protected native float[] predictMultiline(String[] example, boolean learn, long nativePointer);
+
+    @Override
+    protected native float[][] predictBatch(String[] examples, boolean learn, long nativePointer);
+
+    @Override
+    protected native float[] predictPacked(String examples, boolean learn, long nativePointer);
+
+    @Override
+    protected native float[] predictPackedBuffer(ByteBuffer examples, int position, int length, boolean learn, long nativePointer);
+
+    @Override
+    protected native float[] predictBuffer(ByteBuffer example, int position, int length, boolean learn, long nativePointer);
+
+    @Override
+    protected native float[] predictMultilineBuffer(ByteBuffer example, int position, int[] offsets, boolean learn, long nativePointer);
 }
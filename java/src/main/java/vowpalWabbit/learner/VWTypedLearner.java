@@ -1,5 +1,7 @@
 package vowpalWabbit.learner;
 
+import java.nio.ByteBuffer;
+
 /**
  * This is the main generic interface to which all VW predictors should adhere.  VW predictors
  * may provided <em>additional methods</em> when the cost of boxing a primitive to an object is
@@ -39,4 +41,101 @@ public interface VWTypedLearner<T> extends VWLearner {
      * @return a prediction.
      */
     T predict(String[] example);
+
+    /**
+     * Learn from the UTF-8 encoded example stored between the position and the limit of a <em>direct</em> buffer,
+     * then return the prediction given the example, after the internal learner is updated.  The example is parsed
+     * straight out of the buffer's memory without being decoded into a {@link String}.  The position of the buffer
+     * isn't modified.
+     * @param example a direct buffer containing an example from which to learn.
+     * @return a prediction after the model has been updated.
+     * @throws IllegalArgumentException if <code>example</code> isn't a direct buffer.
+     */
+    T learn(ByteBuffer example);
+
+    /**
+     * Prediction without learning from the UTF-8 encoded example stored between the position and the limit of a
+     * <em>direct</em> buffer.  The position of the buffer isn't modified.
+     * @param example a direct buffer containing an example upon which the prediction is based.
+     * @return a prediction.
+     * @throws IllegalArgumentException if <code>example</code> isn't a direct buffer.
+     */
+    T predict(ByteBuffer example);
+
+    /**
+     * Learn from a multiline example stored in a <em>direct</em> buffer then return the prediction given the
+     * example, after the internal learner is updated.  Line <code>i</code> of the example is stored in the bytes
+     * from <code>position + offsets[i]</code> (inclusive) to <code>position + offsets[i + 1]</code> (exclusive), so
+     * <code>offsets</code> contains one more element than there are lines.  The position of the buffer isn't modified.
+     * @param example a direct buffer containing the UTF-8 encoded lines of a multiline example.
+     * @param offsets the line boundaries, relative to the position of <code>example</code>.
+     * @return a prediction after the model has been updated.
+     * @throws IllegalArgumentException if <code>example</code> isn't a direct buffer or the offsets are invalid.
+     */
+    T learn(ByteBuffer example, int[] offsets);
+
+    /**
+     * Prediction from a multiline example stored in a <em>direct</em> buffer without learning from the example.
+     * See {@link #learn(ByteBuffer, int[])} for the layout of <code>offsets</code>.
+     * @param example a direct buffer containing the UTF-8 encoded lines of a multiline example.
+     * @param offsets the line boundaries, relative to the position of <code>example</code>.
+     * @return a prediction.
+     * @throws IllegalArgumentException if <code>example</code> isn't a direct buffer or the offsets are invalid.
+     */
+    T predict(ByteBuffer example, int[] offsets);
+
+    /**
+     * Learn from a multiline example packed into one newline delimited string then return the prediction given the
+     * example, after the internal learner is updated.  The lines are split by the native code, which avoids crossing
+     * the JNI boundary once per line.  Empty lines are ignored.
+     * @param examples the newline delimited lines of a multiline example from which to learn.
+     * @return a prediction after the model has been updated.
+     */
+    T learnPacked(String examples);
+
+    /**
+     * Prediction from a multiline example packed into one newline delimited string, without learning from it.
+     * Empty lines are ignored.
+     * @param examples the newline delimited lines of a multiline example upon which the prediction is based.
+     * @return a prediction.
+     */
+    T predictPacked(String examples);
+
+    /**
+     * Learn from a multiline example packed into the newline delimited UTF-8 bytes between the position and limit
+     * of a <em>direct</em> buffer, then return the prediction given the example, after the internal learner is
+     * updated.  Empty lines are ignored and the position of the buffer isn't modified.
+     * @param examples a direct buffer containing the lines of a multiline example from which to learn.
+     * @return a prediction after the model has been updated.
+     * @throws IllegalArgumentException if <code>examples</code> isn't a direct buffer.
+     */
+    T learnPacked(ByteBuffer examples);
+
+    /**
+     * Prediction from a multiline example packed into the newline delimited UTF-8 bytes between the position and
+     * limit of a <em>direct</em> buffer, without learning from it.  Empty lines are ignored and the position of the
+     * buffer isn't modified.
+     * @param examples a direct buffer containing the lines of a multiline example upon which the prediction is based.
+     * @return a prediction.
+     * @throws IllegalArgumentException if <code>examples</code> isn't a direct buffer.
+     */
+    T predictPacked(ByteBuffer examples);
+
+    /**
+     * Learn from each of a batch of single line examples, in order, and return the predictions made after each
+     * update.  The whole batch is processed under one lock acquisition and with a single call into the native code.
+     * @param examples single line examples from which to learn.
+     * @return the predictions, one per example, in the same order as <code>examples</code>.
+     * @throws VWBatchException if an example fails, the examples before it have been processed.
+     */
+    T[] learnBatch(String[] examples);
+
+    /**
+     * Prediction without learning for each of a batch of single line examples.  The whole batch is processed
+     * under one lock acquisition and with a single call into the native code.
+     * @param examples single line examples upon which the predictions are based.
+     * @return the predictions, one per example, in the same order as <code>examples</code>.
+     * @throws VWBatchException if an example fails, the examples before it have been processed.
+     */
+    T[] predictBatch(String[] examples);
 }
@@ -0,0 +1,94 @@
+package vowpalWabbit.responses;
+
+/**
+ * <p>
+ * A reusable, primitive holder for the actions and scores (or probabilities) of a single prediction.  Unlike
+ * {@link ActionScores} and {@link ActionProbs}, filling this holder doesn't create an object per action, so a caller
+ * that reuses one instance across predictions doesn't generate any garbage once the arrays are large enough.
+ * </p>
+ *
+ * <p>
+ * The arrays returned by {@link #getActions()} and {@link #getScores()} are the backing arrays.  Only the first
+ * {@link #length()} elements are valid, and the arrays are replaced with larger ones when a prediction doesn't fit.
+ * Instances are not thread safe.
+ * </p>
+ */
+public final class ActionScoresBuffer {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // These fields are written by the native code.
+    private int[] actions;
+    private float[] scores;
+    private int length;
+
+    public ActionScoresBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity the number of actions which can be stored before the arrays have to be replaced.
+     */
+    public ActionScoresBuffer(final int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be non-negative, found " + capacity + ".");
+        }
+        actions = new int[capacity];
+        scores = new float[capacity];
+    }
+
+    /**
+     * @return the number of actions in the last prediction.
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return the number of actions which can be stored before the arrays have to be replaced.
+     */
+    public int capacity() {
+        return actions.length;
+    }
+
+    public int getAction(final int i) {
+        checkIndex(i);
+        return actions[i];
+    }
+
+    public float getScore(final int i) {
+        checkIndex(i);
+        return scores[i];
+    }
+
+    /**
+     * @return the backing array of actions, only the first {@link #length()} elements are valid.
+     */
+    public int[] getActions() {
+        return actions;
+    }
+
+    /**
+     * @return the backing array of scores, only the first {@link #length()} elements are valid.
+     */
+    public float[] getScores() {
+        return scores;
+    }
+
+    private void checkIndex(final int i) {
+        if (i < 0 || i >= length) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Length: " + length);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ActionScoresBuffer{");
+        for (int i = 0; i < length; ++i) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(actions[i]).append(':').append(scores[i]);
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,81 @@
+package org.vowpalwabbit.spark;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+public class FeatureHashCacheTest {
+    private static final int BITS = 18;
+
+    private static int expected(int namespaceHash, String name) {
+        return VowpalWabbitMurmur.hash(name, namespaceHash) & ((1 << BITS) - 1);
+    }
+
+    @Test
+    public void testHitsReturnTheHashedIndex() {
+        FeatureHashCache cache = new FeatureHashCache(BITS, 1 << 16);
+        int ns = VowpalWabbitMurmur.hash("a", 0);
+
+        assertEquals(expected(ns, "x"), cache.getIndex(ns, "x"));
+        assertEquals(expected(ns, "x"), cache.getIndex(ns, new StringBuilder("x")));
+        assertEquals(expected(0, "x"), cache.getIndex(0, "x"));
+
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(2, cache.size());
+        assertEquals(1 / 3.0, cache.getHitRate(), 1e-9);
+
+        cache.resetStatistics();
+        assertEquals(0, cache.getHits());
+        assertEquals(0, cache.getHitRate(), 0);
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testMemoryBudget() {
+        for (long budget : new long[] { 200, 1000, 1 << 20, 12345678 }) {
+            FeatureHashCache cache = new FeatureHashCache(BITS, budget);
+            assertTrue(cache.getMemoryBytes() <= budget);
+            assertTrue(cache.getMemoryBytes() * 2 > budget);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBudgetTooSmall() {
+        new FeatureHashCache(BITS, 199);
+    }
+
+    @Test
+    public void testEvictionKeepsEntriesCorrect() {
+        FeatureHashCache cache = new FeatureHashCache(BITS, 4096);
+        Random random = new Random(0);
+
+        for (int i = 0; i < 100000; i++) {
+            String name = "f" + random.nextInt(2000);
+            int ns = random.nextInt(3);
+            assertEquals(name, expected(ns, name), cache.getIndex(ns, name));
+            assertTrue(cache.size() <= cache.capacity());
+        }
+
+        assertEquals(cache.capacity(), cache.size());
+        assertEquals(cache.getMisses() - cache.size(), cache.getEvictions());
+    }
+
+    @Test
+    public void testHotFeaturesSurviveOneOffFeatures() {
+        FeatureHashCache cache = new FeatureHashCache(BITS, 4096);
+        int hot = cache.capacity() / 4;
+
+        // every hot feature is seen again before the one-off features in between fill the cache
+        for (int i = 0; i < 100 * cache.capacity(); i++) {
+            cache.getIndex(0, "hot" + (i % hot));
+            cache.getIndex(0, "cold" + i);
+        }
+
+        cache.resetStatistics();
+        for (int i = 0; i < hot; i++)
+            cache.getIndex(0, "hot" + i);
+        assertEquals(1.0, cache.getHitRate(), 0);
+    }
+}
@@ -0,0 +1,284 @@
+package org.vowpalwabbit.spark;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+import java.nio.file.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Differential test of {@link VWFeatureBuilder} against the text parser: the
+ * data sets in test/train-sets are learned with the command line and through
+ * the builder, the models must be identical.
+ */
+public class VWFeatureBuilderIT {
+    private static final String TRAIN_SETS = "../test/train-sets/";
+
+    @Test
+    public void testDenseNumericFeatures() throws Exception {
+        assertMatchesCommandLine(TRAIN_SETS + "0001.dat", "");
+        assertMatchesCommandLine(TRAIN_SETS + "rcv1_small.dat", "");
+        assertMatchesCommandLine(TRAIN_SETS + "zero.dat", "");
+    }
+
+    @Test
+    public void testHashSeed() throws Exception {
+        assertMatchesCommandLine(TRAIN_SETS + "rcv1_small.dat", "--hash_seed 5");
+        assertMatchesCommandLine(TRAIN_SETS + "big-constant.dat", "--hash_seed 2493003127");
+    }
+
+    @Test
+    public void testHashAll() throws Exception {
+        assertMatchesCommandLine(TRAIN_SETS + "rcv1_small.dat", "--hash all");
+        assertMatchesCommandLine(TRAIN_SETS + "0080.dat", "--hash all --hash_seed 3");
+    }
+
+    @Test
+    public void testWeightsAndTags() throws Exception {
+        assertMatchesCommandLine(TRAIN_SETS + "0002.dat", "");
+        assertMatchesCommandLine(TRAIN_SETS + "0080.dat", "");
+    }
+
+    @Test
+    public void testAnonymousFeatures() throws Exception {
+        assertMatchesCommandLine(TRAIN_SETS + "audit.dat", "");
+        assertMatchesCommandLine(TRAIN_SETS + "frank.dat", "--hash_seed 7");
+    }
+
+    @Test
+    public void testInteractions() throws Exception {
+        assertMatchesCommandLine(TRAIN_SETS + "xxor.dat", "-q ab --cubic abc");
+        assertMatchesCommandLine(TRAIN_SETS + "poisson.dat", "--loss_function poisson -b 4");
+    }
+
+    @Test
+    public void testChainHash() throws Exception {
+        assertMatchesCommandLine(TRAIN_SETS + "chain_hash_text_test.dat", "--chain_hash");
+    }
+
+    @Test
+    public void testNamespaceValuesAndNames() throws Exception {
+        Files.write(Paths.get("target/testFeatureBuilder.txt"),
+                Arrays.asList("1 |a:2 x y:0.5 |b 17 |été x:-1 |😀 x", "-1 |a:0.5 x |1234 0001 :2 |a y z:0",
+                        "1 2 |c:-3e-1 abc:1e2 x |a 123 x"),
+                StandardCharsets.UTF_8);
+
+        assertMatchesCommandLine("target/testFeatureBuilder.txt", "");
+        assertMatchesCommandLine("target/testFeatureBuilder.txt", "--hash all --hash_seed 11");
+    }
+
+    @Test
+    public void testUnsupportedOptions() throws Exception {
+        VowpalWabbitNative vw = new VowpalWabbitNative("--quiet --affix +2a");
+
+        try {
+            new VWFeatureBuilder(vw.getArguments());
+            fail("--affix must be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("--affix is not supported by VWFeatureBuilder.", e.getMessage());
+        } finally {
+            vw.close();
+        }
+    }
+
+    /**
+     * Learns {@code data} with the command line and through
+     * {@link VWFeatureBuilder} and compares the resulting models.
+     */
+    private void assertMatchesCommandLine(String data, String args) throws Exception {
+        String vwBinary = Files.readAllLines(Paths.get(getClass().getResource("/vw-bin.txt").getPath())).get(0);
+
+        Runtime.getRuntime()
+                .exec(vwBinary + " --quiet " + args + " -f target/testFeatureBuilder-ref.model -d " + data)
+                .waitFor();
+        byte[] modelRef = Files.readAllBytes(Paths.get("target/testFeatureBuilder-ref.model"));
+
+        VowpalWabbitNative vw = new VowpalWabbitNative("--quiet " + args);
+        VowpalWabbitExample ex = vw.createExample();
+
+        try {
+            VWFeatureBuilder builder = new VWFeatureBuilder(vw.getArguments());
+
+            for (String line : Files.readAllLines(Paths.get(data), StandardCharsets.UTF_8)) {
+                parseLine(line, builder, ex);
+                ex.learn();
+                ex.clear();
+            }
+
+            vw.endPass();
+
+            assertArrayEquals(data + " " + args, modelRef, vw.getModel());
+        } finally {
+            ex.close();
+            vw.close();
+        }
+    }
+
+    /**
+     * Reads a line with a simple label, following substring_to_example() and
+     * TC_parser in parse_example.cc.
+     */
+    private static void parseLine(String line, VWFeatureBuilder builder, VowpalWabbitExample ex) {
+        int bar = line.indexOf('|');
+        int n = line.length();
+
+        // label, optional weight and tag
+        String labelSpace = bar < 0 ? line : line.substring(0, bar);
+        labelSpace = labelSpace.substring(labelSpace.indexOf('\t') + 1);
+        List<String> words = new ArrayList<>();
+        for (String word : labelSpace.split(" ")) {
+            if (!word.isEmpty())
+                words.add(word);
+        }
+        // the last word is a tag if it is directly followed by the bar or starts with a quote
+        if (!words.isEmpty() && (!labelSpace.endsWith(" ") || words.get(words.size() - 1).startsWith("'")))
+            words.remove(words.size() - 1);
+        if (!words.isEmpty())
+            ex.setLabel(words.size() > 1 ? floatOfString(words.get(1)) : 1f, floatOfString(words.get(0)));
+
+        int i = bar < 0 ? n : bar;
+        int[] end = new int[1];
+        while (i < n && line.charAt(i) == '|') {
+            i++;
+
+            // namespace
+            if (isFeatureEnd(line, i)) {
+                builder.namespace("");
+            } else {
+                int start = i;
+                i = readName(line, i);
+                String name = line.substring(start, i);
+                float value = 1f;
+                if (i < n && line.charAt(i) == ':') {
+                    value = parseFloat(line, ++i, n, end);
+                    i += end[0];
+                }
+                builder.namespace(name, value);
+            }
+
+            // features
+            while (i < n && (line.charAt(i) == ' ' || line.charAt(i) == '\t')) {
+                i++;
+                if (isFeatureEnd(line, i))
+                    continue;
+
+                int start = i;
+                i = readName(line, i);
+                String name = line.substring(start, i);
+
+                if (isFeatureEnd(line, i)) {
+                    builder.addFeature(name);
+                } else {
+                    // ':'
+                    float value = parseFloat(line, ++i, n, end);
+                    if (end[0] > 0) {
+                        i += end[0];
+                        builder.addFeature(name, value);
+                    } else {
+                        // a string value, the data sets only contain them with --chain_hash
+                        while (i < n && Character.isWhitespace(line.charAt(i)))
+                            i++;
+                        int valueStart = i;
+                        while (i < n && !Character.isWhitespace(line.charAt(i)))
+                            i++;
+                        builder.addFeature(name, line.substring(valueStart, i));
+                    }
+                }
+            }
+        }
+
+        builder.addTo(ex);
+    }
+
+    private static boolean isFeatureEnd(String line, int i) {
+        return i >= line.length() || line.charAt(i) == ' ' || line.charAt(i) == '\t' || line.charAt(i) == '|'
+                || line.charAt(i) == '\r';
+    }
+
+    private static int readName(String line, int i) {
+        while (!isFeatureEnd(line, i) && line.charAt(i) != ':')
+            i++;
+        return i;
+    }
+
+    private static float floatOfString(String s) {
+        int[] end = new int[1];
+        float f = parseFloat(s, 0, s.length(), end);
+        return end[0] == 0 || Float.isNaN(f) ? 0f : f;
+    }
+
+    private static char charAt(String s, int i) {
+        return i < s.length() ? s.charAt(i) : '\0';
+    }
+
+    /**
+     * Port of parseFloat() in parse_primitives.h, the values must be rounded
+     * exactly like the text parser does.
+     */
+    private static float parseFloat(String s, int start, int endLine, int[] end) {
+        int p = start;
+        end[0] = 0;
+
+        if (charAt(s, p) == '\0')
+            return 0;
+
+        int sign = 1;
+        while (charAt(s, p) == ' ' && p < endLine)
+            p++;
+        if (charAt(s, p) == '-') {
+            sign = -1;
+            p++;
+        }
+
+        float acc = 0;
+        while (charAt(s, p) >= '0' && charAt(s, p) <= '9' && p < endLine)
+            acc = acc * 10 + charAt(s, p++) - '0';
+
+        int numDec = 0;
+        if (charAt(s, p) == '.') {
+            while (charAt(s, ++p) >= '0' && charAt(s, p) <= '9' && p < endLine) {
+                if (numDec < 35) {
+                    acc = acc * 10 + (charAt(s, p) - '0');
+                    numDec++;
+                }
+            }
+        }
+
+        int expAcc = 0;
+        if ((charAt(s, p) == 'e' || charAt(s, p) == 'E') && p < endLine) {
+            p++;
+            int expSign = 1;
+            if (charAt(s, p) == '-' && p < endLine) {
+                expSign = -1;
+                p++;
+            }
+            while (charAt(s, p) >= '0' && charAt(s, p) <= '9' && p < endLine)
+                expAcc = expAcc * 10 + charAt(s, p++) - '0';
+            expAcc *= expSign;
+        }
+
+        if (charAt(s, p) == ' ' || charAt(s, p) == '\n' || charAt(s, p) == '\t' || p == endLine) {
+            acc *= (float) Math.pow(10, expAcc - numDec);
+            end[0] = p - start;
+            return sign * acc;
+        }
+
+        // strtof, the longest prefix which is a number
+        int first = start;
+        while (first < s.length() && Character.isWhitespace(s.charAt(first)))
+            first++;
+        int last = first;
+        while (last < s.length() && "+-.0123456789eE".indexOf(s.charAt(last)) >= 0)
+            last++;
+        for (; last > first; last--) {
+            try {
+                float f = Float.parseFloat(s.substring(first, last));
+                end[0] = last - start;
+                return f;
+            } catch (NumberFormatException e) {
+                // try a shorter prefix
+            }
+        }
+        return 0;
+    }
+}
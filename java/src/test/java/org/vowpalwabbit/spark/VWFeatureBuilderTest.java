@@ -0,0 +1,104 @@
+package org.vowpalwabbit.spark;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+
+public class VWFeatureBuilderTest {
+    private static VowpalWabbitArguments arguments(String args) {
+        return new VowpalWabbitArguments(18, 0, args, 0.5, 0.5);
+    }
+
+    @Test
+    public void testStringsHashNumbersToTheirValue() {
+        VWFeatureBuilder builder = new VWFeatureBuilder(18, 0, false, false);
+
+        assertEquals(1241, builder.hash("1234", 7));
+        assertEquals(1241, builder.hash(" 1234\t", 7));
+        assertEquals(8, builder.hash("0001", 7));
+        assertEquals(7, builder.hash("", 7));
+        assertEquals(VowpalWabbitMurmur.hash("12a", 7), builder.hash("12a", 7));
+        assertEquals(VowpalWabbitMurmur.hash("-1", 7), builder.hash("-1", 7));
+        assertEquals(VowpalWabbitMurmur.hash("a b", 7), builder.hash(" a b\n", 7));
+        assertEquals(VowpalWabbitMurmur.hash("été", 7), builder.hash(new StringBuilder("été"), 7));
+    }
+
+    @Test
+    public void testAllHashesEveryName() {
+        VWFeatureBuilder builder = new VWFeatureBuilder(18, 0, true, false);
+
+        assertEquals(VowpalWabbitMurmur.hash("1234", 7), builder.hash("1234", 7));
+        assertEquals(VowpalWabbitMurmur.hash(" a ", 7), builder.hash(" a ", 7));
+    }
+
+    @Test
+    public void testNamespaceHash() {
+        VWFeatureBuilder unseeded = new VWFeatureBuilder(18, 0, false, false);
+        VWFeatureBuilder seeded = new VWFeatureBuilder(18, 5, false, false);
+
+        assertEquals(0, unseeded.getNamespaceHash(""));
+        assertEquals(VowpalWabbitMurmur.hash("", 5), seeded.getNamespaceHash(""));
+        assertEquals(VowpalWabbitMurmur.hash("user", 5), seeded.getNamespaceHash("user"));
+        assertEquals(17, seeded.getNamespaceHash("12"));
+    }
+
+    @Test
+    public void testNamespaceIndexIsTheFirstUtf8Byte() {
+        assertEquals(' ', VWFeatureBuilder.getNamespaceIndex(""));
+
+        for (String namespace : new String[] { "user", "été", "ஜெய்", "😀", "\ud83d" }) {
+            char expected = (char) (namespace.getBytes(StandardCharsets.UTF_8)[0] & 0xFF);
+            assertEquals(namespace, expected, VWFeatureBuilder.getNamespaceIndex(namespace));
+        }
+    }
+
+    @Test
+    public void testFeatureIndex() {
+        VWFeatureBuilder builder = new VWFeatureBuilder(10, 0, false, true);
+        int ns = builder.getNamespaceHash("a");
+
+        assertEquals(VowpalWabbitMurmur.hash("x", ns) & 1023, builder.getFeatureIndex(ns, "x"));
+        assertEquals((3 + ns) & 1023, builder.getFeatureIndex(ns, "3"));
+        assertEquals(VowpalWabbitMurmur.hash("x", VowpalWabbitMurmur.hash("true", ns)) & 1023,
+                builder.getFeatureIndex(ns, "x", "true"));
+    }
+
+    @Test
+    public void testArguments() {
+        VWFeatureBuilder builder = new VWFeatureBuilder(arguments(" --hash all --chain_hash"));
+        assertEquals(VowpalWabbitMurmur.hash("1", 0), builder.hash("1", 0));
+
+        builder.namespace("a");
+        builder.addFeature("x", "y");
+
+        assertEquals(1, new VWFeatureBuilder(arguments(" --hash strings")).hash("1", 0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsRedefine() {
+        new VWFeatureBuilder(arguments(" --redefine a:=b"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsUnknownHash() {
+        new VWFeatureBuilder(arguments(" --hash foo"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAnonymousFeaturesHaveNoIndex() {
+        new VWFeatureBuilder(18, 0, false, false).getFeatureIndex(0, "");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testStringValuesRequireChainHash() {
+        VWFeatureBuilder builder = new VWFeatureBuilder(18, 0, false, false);
+        builder.namespace("a");
+        builder.addFeature("x", "y");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testFeaturesRequireNamespace() {
+        new VWFeatureBuilder(18, 0, false, false).addFeature("x");
+    }
+}
@@ -0,0 +1,113 @@
+package org.vowpalwabbit.spark;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public class VowpalWabbitExamplePoolIT {
+    @Test
+    public void testReleasedExamplesAreReusedAndCleared() throws Exception {
+        VowpalWabbitNative vw = new VowpalWabbitNative("--quiet");
+        VowpalWabbitExamplePool pool = vw.createExamplePool(2);
+
+        try {
+            VowpalWabbitExample fresh = pool.acquire();
+            float empty = fresh.predictScalar();
+            fresh.clear();
+
+            for (int i = 0; i < 10; i++) {
+                fresh.addToNamespaceDense('a', VowpalWabbitMurmur.hash("a", 0), new double[] { 1.0, 2.0, 3.0 });
+                fresh.setLabel(1);
+                fresh.learn();
+                fresh.clear();
+            }
+
+            fresh.addToNamespaceDense('a', VowpalWabbitMurmur.hash("a", 0), new double[] { 1.0, 2.0, 3.0 });
+            pool.release(fresh);
+            assertEquals(1, pool.idleCount());
+
+            VowpalWabbitExample reused = pool.acquire();
+            assertSame(fresh, reused);
+            assertEquals(0, pool.idleCount());
+            // the features added before the release are gone
+            assertEquals(empty, reused.predictScalar(), 1e-6);
+            pool.release(reused);
+        } finally {
+            pool.close();
+            vw.close();
+        }
+    }
+
+    @Test
+    public void testIdleExamplesAreBounded() throws Exception {
+        VowpalWabbitNative vw = new VowpalWabbitNative("--quiet");
+        VowpalWabbitExamplePool pool = vw.createExamplePool(2);
+
+        try {
+            VowpalWabbitExample[] examples = new VowpalWabbitExample[] { pool.acquire(), pool.acquire(),
+                    pool.acquire() };
+            for (VowpalWabbitExample ex : examples)
+                pool.release(ex);
+
+            assertEquals(2, pool.idleCount());
+            assertFalse(examples[0].isClosed());
+            assertFalse(examples[1].isClosed());
+            assertTrue(examples[2].isClosed());
+        } finally {
+            pool.close();
+            vw.close();
+        }
+    }
+
+    @Test
+    public void testThreadsDontShareExamples() throws Exception {
+        VowpalWabbitNative vw = new VowpalWabbitNative("--quiet");
+        final VowpalWabbitExamplePool pool = vw.createExamplePool(4);
+        final AtomicReference<VowpalWabbitExample> other = new AtomicReference<>();
+
+        try {
+            VowpalWabbitExample mine = pool.acquire();
+            pool.release(mine);
+
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    VowpalWabbitExample ex = pool.acquire();
+                    other.set(ex);
+                    pool.release(ex);
+                }
+            });
+            thread.start();
+            thread.join();
+
+            assertNotSame(mine, other.get());
+            assertSame(mine, pool.acquire());
+            pool.release(mine);
+
+            pool.close();
+            assertTrue(mine.isClosed());
+            assertTrue(other.get().isClosed());
+        } finally {
+            pool.close();
+            vw.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testForeignExampleIsRejected() throws Exception {
+        VowpalWabbitNative vw = new VowpalWabbitNative("--quiet");
+        VowpalWabbitNative other = new VowpalWabbitNative("--quiet");
+        VowpalWabbitExamplePool pool = vw.createExamplePool(1);
+        VowpalWabbitExample ex = other.createExample();
+
+        try {
+            pool.release(ex);
+        } finally {
+            ex.close();
+            pool.close();
+            other.close();
+            vw.close();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.vowpalwabbit.spark;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+public class VowpalWabbitMurmurTest {
+    private static int hashBytes(String s, int seed) {
+        byte[] d = s.getBytes(StandardCharsets.UTF_8);
+        return VowpalWabbitMurmur.hash(d, 0, d.length, seed);
+    }
+
+    @Test
+    public void testCharSequenceMatchesBytes() {
+        String[] names = new String[] { "", "a", "ab", "abc", "abcd", "abcde", "constant", "été",
+                "ஜெய்", "a😀b", "😀😁", "lone\ud83dhigh",
+                "lone\ude00low", "\ud83d" };
+
+        for (String name : names) {
+            for (int seed : new int[] { 0, 1, -1801964169 }) {
+                assertEquals(name, hashBytes(name, seed), VowpalWabbitMurmur.hash(name, seed));
+                assertEquals(name, hashBytes(name, seed),
+                        VowpalWabbitMurmur.hash(new StringBuilder(name), seed));
+                assertEquals(name, hashBytes(name, seed), VowpalWabbitMurmur.hash(CharBuffer.wrap(name), seed));
+            }
+        }
+    }
+
+    @Test
+    public void testRandomCharSequencesMatchBytes() {
+        Random random = new Random(0);
+        for (int i = 0; i < 10000; i++) {
+            char[] chars = new char[random.nextInt(20)];
+            for (int j = 0; j < chars.length; j++) {
+                // mostly ASCII with multi-byte characters and surrogates mixed in
+                switch (random.nextInt(4)) {
+                case 0:
+                    chars[j] = (char) random.nextInt(0x10000);
+                    break;
+                case 1:
+                    chars[j] = (char) (0xD800 + random.nextInt(0x800));
+                    break;
+                default:
+                    chars[j] = (char) random.nextInt(0x80);
+                }
+            }
+            String name = new String(chars);
+            assertEquals(name, hashBytes(name, i), VowpalWabbitMurmur.hash((CharSequence) name, i));
+        }
+    }
+
+    @Test
+    public void testRangeMatchesSubSequence() {
+        String s = " a😀bcdé ";
+        for (int start = 0; start <= s.length(); start++) {
+            for (int end = start; end <= s.length(); end++) {
+                String sub = s.substring(start, end);
+                assertEquals(sub, hashBytes(sub, 3), VowpalWabbitMurmur.hash(s, start, end, 3));
+            }
+        }
+    }
+
+    @Test
+    public void testHashAll() {
+        CharSequence[] names = new CharSequence[] { "a", "b", new StringBuilder("c") };
+        int[] out = new int[names.length + 1];
+        VowpalWabbitMurmur.hashAll(names, 7, out);
+
+        for (int i = 0; i < names.length; i++)
+            assertEquals(hashBytes(names[i].toString(), 7), out[i]);
+        assertEquals(0, out[names.length]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHashAllRejectsShortOut() {
+        VowpalWabbitMurmur.hashAll(new CharSequence[] { "a", "b" }, 0, new int[1]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHashNativeRejectsDecreasingOffsets() {
+        VowpalWabbitMurmur.hashNative(new byte[4], new int[] { 0, 3, 2 }, 0, new int[2]);
+    }
+}
@@ -3,11 +3,18 @@ package org.vowpalwabbit.spark;
 import org.junit.Test;
 import static org.junit.Assert.*;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
 import java.nio.file.*;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
 import org.vowpalwabbit.spark.prediction.*;
+import vowpalWabbit.NativeCleaner;
+import vowpalWabbit.NativeMemoryStats;
+import vowpalWabbit.responses.ActionScores;
 
 /**
  * command line invocation
@@ -31,6 +38,23 @@ public class VowpalWabbitNativeIT {
         assertEquals(h1, h1n);
     }
 
+    @Test
+    public void testBatchHashing() throws Exception {
+        String[] names = new String[] { "a", "", "ஜெய்", "constant" };
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        int[] offsets = new int[names.length + 1];
+        for (int i = 0; i < names.length; i++) {
+            data.write(names[i].getBytes(StandardCharsets.UTF_8));
+            offsets[i + 1] = data.size();
+        }
+
+        int[] out = new int[names.length];
+        VowpalWabbitMurmur.hashNative(data.toByteArray(), offsets, -1801964169, out);
+
+        for (int i = 0; i < names.length; i++)
+            assertEquals(VowpalWabbitMurmur.hash(names[i], -1801964169), out[i]);
+    }
+
     @Test
     public void testWrappedVsCommandLine() throws Exception {
         String vwBinary = Files.readAllLines(Paths.get(getClass().getResource("/vw-bin.txt").getPath())).get(0);
@@ -91,6 +115,496 @@ public class VowpalWabbitNativeIT {
         assertArrayEquals(model, modelRef);
     }
 
+    private interface LabelSetter {
+        void setLabel(VowpalWabbitExample ex, int i);
+    }
+
+    /**
+     * Learns the examples {@code labels[i] |a :1 :2 :3} with the command line and
+     * through {@link VowpalWabbitExample} and compares the resulting models.
+     */
+    private void assertLabelsMatchCommandLine(String name, String args, String[] labels, LabelSetter setter)
+            throws Exception {
+        String vwBinary = Files.readAllLines(Paths.get(getClass().getResource("/vw-bin.txt").getPath())).get(0);
+
+        List<String> lines = new ArrayList<>();
+        for (String label : labels)
+            lines.add(label + " |a :1 :2 :3");
+        Files.write(Paths.get("target/" + name + ".txt"), lines, StandardCharsets.UTF_8);
+
+        Runtime.getRuntime()
+                .exec(vwBinary + " --quiet " + args + " -f target/" + name + "-ref.model -d target/" + name + ".txt")
+                .waitFor();
+        byte[] modelRef = Files.readAllBytes(Paths.get("target/" + name + "-ref.model"));
+
+        VowpalWabbitNative vw = new VowpalWabbitNative("--quiet " + args);
+        VowpalWabbitExample ex = vw.createExample();
+
+        try {
+            for (int i = 0; i < labels.length; i++) {
+                ex.addToNamespaceDense('a', VowpalWabbitMurmur.hash("a", 0), new double[] { 1.0, 2.0, 3.0 });
+                setter.setLabel(ex, i);
+                ex.learn();
+                ex.clear();
+            }
+
+            vw.endPass();
+
+            assertArrayEquals(modelRef, vw.getModel());
+        } finally {
+            ex.close();
+            vw.close();
+        }
+    }
+
+    @Test
+    public void testMulticlassLabelVsCommandLine() throws Exception {
+        final int[] classes = new int[] { 1, 2, 3, 2, 1 };
+        final float[] weights = new float[] { 1f, 1f, 0.5f, 2f, 1f };
+
+        assertLabelsMatchCommandLine("testMulticlass", "--oaa 3",
+                new String[] { "1", "2", "3 0.5", "2 2", "1" }, new LabelSetter() {
+                    @Override
+                    public void setLabel(VowpalWabbitExample ex, int i) {
+                        ex.setMulticlassLabel(weights[i], classes[i]);
+                    }
+                });
+    }
+
+    @Test
+    public void testCostSensitiveLabelVsCommandLine() throws Exception {
+        final int[] classes = new int[] { 1, 2, 3 };
+        final float[][] costs = new float[][] { { 0f, 1f, 1f }, { 1f, 0f, 0.5f }, { 1f, 1f, 0f } };
+
+        assertLabelsMatchCommandLine("testCostSensitive", "--csoaa 3",
+                new String[] { "1:0 2:1 3:1", "1:1 2:0 3:0.5", "1:1 2:1 3:0" }, new LabelSetter() {
+                    @Override
+                    public void setLabel(VowpalWabbitExample ex, int i) {
+                        ex.setCostSensitiveLabel(classes, costs[i]);
+                    }
+                });
+    }
+
+    @Test
+    public void testContextualBanditLabelVsCommandLine() throws Exception {
+        final int[] actions = new int[] { 1, 2, 3, 1 };
+        final float[] costs = new float[] { 1f, 0f, 0.5f, 0f };
+        final float[] probabilities = new float[] { 0.5f, 0.25f, 0.25f, 0.5f };
+
+        assertLabelsMatchCommandLine("testContextualBandit", "--cb 3",
+                new String[] { "1:1:0.5", "2:0:0.25", "3:0.5:0.25", "1:0:0.5" }, new LabelSetter() {
+                    @Override
+                    public void setLabel(VowpalWabbitExample ex, int i) {
+                        ex.setContextualBanditLabel(actions[i], costs[i], probabilities[i]);
+                    }
+                });
+    }
+
+    /**
+     * Adds {@code shared |s :1} followed by {@code |a :1} for each action a.
+     */
+    private static void addMultilineFeatures(VowpalWabbitExample[] examples, char[] actions) {
+        examples[0].addToNamespaceDense('s', VowpalWabbitMurmur.hash("s", 0), new double[] { 1.0 });
+        examples[0].setSharedLabel();
+        for (int a = 0; a < actions.length; a++)
+            examples[a + 1].addToNamespaceDense(actions[a], VowpalWabbitMurmur.hash(String.valueOf(actions[a]), 0),
+                    new double[] { 1.0 });
+    }
+
+    @Test
+    public void testMultilineVsCommandLine() throws Exception {
+        String vwBinary = Files.readAllLines(Paths.get(getClass().getResource("/vw-bin.txt").getPath())).get(0);
+        char[] actions = new char[] { 'a', 'b', 'c' };
+        float[] costs = new float[] { 1f, 0f, 0.5f, 1f, 0f, 0f };
+
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < costs.length; i++) {
+            lines.add("shared |s :1");
+            for (int a = 0; a < actions.length; a++)
+                lines.add((a == i % actions.length ? "0:" + costs[i] + ":0.5 " : "") + "|" + actions[a] + " :1");
+            lines.add("");
+        }
+        Files.write(Paths.get("target/testMultiline.txt"), lines, StandardCharsets.UTF_8);
+
+        Runtime.getRuntime()
+                .exec(vwBinary + " --quiet --cb_adf -f target/testMultiline-ref.model -d target/testMultiline.txt")
+                .waitFor();
+        byte[] modelRef = Files.readAllBytes(Paths.get("target/testMultiline-ref.model"));
+
+        VowpalWabbitNative vw = new VowpalWabbitNative("--quiet --cb_adf");
+        VowpalWabbitExample[] examples = new VowpalWabbitExample[actions.length + 2];
+        for (int i = 0; i <= actions.length; i++)
+            examples[i] = vw.createExample();
+        examples[actions.length + 1] = vw.createEmptyExample();
+
+        try {
+            for (int i = 0; i < costs.length; i++) {
+                addMultilineFeatures(examples, actions);
+                examples[1 + i % actions.length].setContextualBanditLabel(0, costs[i], 0.5f);
+
+                vw.learnMultiline(examples);
+
+                for (int j = 0; j <= actions.length; j++)
+                    examples[j].clear();
+            }
+
+            vw.endPass();
+            assertArrayEquals(modelRef, vw.getModel());
+
+            // the trailing empty example is optional
+            addMultilineFeatures(examples, actions);
+            ActionScores withEmpty = (ActionScores) vw.predictMultiline(examples);
+            for (int j = 0; j <= actions.length; j++)
+                examples[j].clear();
+            addMultilineFeatures(examples, actions);
+            ActionScores withoutEmpty = (ActionScores) vw.predictMultiline(Arrays.copyOf(examples, actions.length + 1));
+
+            assertEquals(actions.length, withEmpty.getActionScores().length);
+            assertEquals(withEmpty, withoutEmpty);
+            // action b always had cost 0
+            assertEquals(1, withEmpty.getActionScores()[0].getAction());
+        } finally {
+            for (VowpalWabbitExample ex : examples)
+                ex.close();
+            vw.close();
+        }
+    }
+
+    @Test
+    public void testTypedPredictions() throws Exception {
+        VowpalWabbitNative vw = new VowpalWabbitNative("--quiet --confidence");
+        VowpalWabbitNative oaa = new VowpalWabbitNative("--quiet --oaa 3");
+        VowpalWabbitExample ex = vw.createExample();
+        VowpalWabbitExample oaaEx = oaa.createExample();
+
+        try {
+            for (int i = 0; i < 10; i++) {
+                ex.addToNamespaceDense('a', VowpalWabbitMurmur.hash("a", 0), new double[] { 1.0, 2.0, 3.0 });
+                ex.setLabel(i % 2);
+                ex.learn();
+                ex.clear();
+
+                oaaEx.addToNamespaceDense('a', VowpalWabbitMurmur.hash("a", 0), new double[] { 1.0, 2.0, 3.0 });
+                oaaEx.setMulticlassLabel(2);
+                oaaEx.learn();
+                oaaEx.clear();
+            }
+
+            ex.addToNamespaceDense('a', VowpalWabbitMurmur.hash("a", 0), new double[] { 1.0, 2.0, 3.0 });
+            ScalarPrediction boxed = (ScalarPrediction) ex.predict();
+            ex.clear();
+
+            ex.addToNamespaceDense('a', VowpalWabbitMurmur.hash("a", 0), new double[] { 1.0, 2.0, 3.0 });
+            assertEquals(boxed.getValue(), ex.predictScalar(), 0f);
+            ex.clear();
+
+            float[] out = new float[2];
+            ex.addToNamespaceDense('a', VowpalWabbitMurmur.hash("a", 0), new double[] { 1.0, 2.0, 3.0 });
+            ex.predictScalarWithConfidence(out);
+            assertEquals(boxed.getValue(), out[0], 0f);
+            assertEquals(boxed.getConfidence(), out[1], 0f);
+            ex.clear();
+
+            oaaEx.addToNamespaceDense('a', VowpalWabbitMurmur.hash("a", 0), new double[] { 1.0, 2.0, 3.0 });
+            assertEquals(2, oaaEx.predictMulticlass());
+        } finally {
+            ex.close();
+            oaaEx.close();
+            vw.close();
+            oaa.close();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testTypedPredictionMismatch() throws Exception {
+        VowpalWabbitNative vw = new VowpalWabbitNative("--quiet");
+        VowpalWabbitExample ex = vw.createExample();
+
+        try {
+            ex.predictMulticlass();
+        } finally {
+            ex.close();
+            vw.close();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLabelTypeMismatch() throws Exception {
+        VowpalWabbitNative vw = new VowpalWabbitNative("--quiet");
+        VowpalWabbitExample ex = vw.createExample();
+
+        try {
+            ex.setMulticlassLabel(1);
+        } finally {
+            ex.close();
+            vw.close();
+        }
+    }
+
+    @Test
+    public void testUnclosedExamplesAreFreedWithTheInstance() throws Exception {
+        long leaks = NativeCleaner.getLeakCount();
+
+        VowpalWabbitNative vw = new VowpalWabbitNative("--quiet");
+        VowpalWabbitExample closedLate = vw.createExample();
+        learnWithUnclosedExample(vw);
+        vw.close();
+
+        // both were freed by vw.close(), neither may touch the freed instance
+        closedLate.close();
+        for (int i = 0; i < 50 && NativeCleaner.getLeakCount() == leaks; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertEquals(leaks + 1, NativeCleaner.getLeakCount());
+    }
+
+    private static void learnWithUnclosedExample(VowpalWabbitNative vw) {
+        VowpalWabbitExample ex = vw.createExample();
+        ex.addToNamespaceDense('a', 0, new double[] { 1.0 });
+        ex.setLabel(1);
+        ex.learn();
+    }
+
+    @Test
+    public void testNativeMemoryStatsSnapshot() throws Exception {
+        VowpalWabbitNative vw = new VowpalWabbitNative("--quiet -b 10");
+        VowpalWabbitExample ex = vw.createExample();
+
+        try {
+            NativeMemoryStats created = vw.getNativeMemoryStats();
+            assertTrue(created.getWeightsBytes() >= (1 << 10) * 4);
+
+            ex.addToNamespaceDense('a', 0, new double[] { 1.0, 2.0 });
+            ex.setLabel(1);
+            ex.learn();
+
+            // the snapshot only changes on the thread using the instance
+            assertSame(created, vw.getNativeMemoryStats());
+            vw.updateNativeMemoryStats();
+            assertEquals(created.getWeightsBytes(), vw.getNativeMemoryStats().getWeightsBytes());
+        } finally {
+            ex.close();
+            vw.close();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCreateExampleAfterClose() throws Exception {
+        VowpalWabbitNative vw = new VowpalWabbitNative("--quiet");
+        vw.close();
+        vw.createExample();
+    }
+
+    @Test
+    public void testAddToNamespacesMatchesPerNamespace() throws Exception {
+        char[] namespaces = new char[] { 'a', 'b', 'a' };
+        int[] offsets = new int[] { 0, 2, 5, 6 };
+        int[] indices = new int[] { 1, 7, 2, 3, 4, 9 };
+        double[] values = new double[] { 1.0, 0.5, 2.0, 0.0, 1.5, 3.0 };
+
+        VowpalWabbitNative single = new VowpalWabbitNative("--quiet");
+        VowpalWabbitNative bulk = new VowpalWabbitNative("--quiet");
+        VowpalWabbitExample singleEx = single.createExample();
+        VowpalWabbitExample bulkEx = bulk.createExample();
+
+        try {
+            for (int i = 0; i < 10; i++) {
+                for (int n = 0; n < namespaces.length; n++) {
+                    singleEx.addToNamespaceSparse(namespaces[n],
+                            Arrays.copyOfRange(indices, offsets[n], offsets[n + 1]),
+                            Arrays.copyOfRange(values, offsets[n], offsets[n + 1]));
+                }
+                bulkEx.addToNamespaces(namespaces, offsets, indices, values);
+
+                singleEx.setLabel(i % 2);
+                bulkEx.setLabel(i % 2);
+                singleEx.learn();
+                bulkEx.learn();
+
+                assertEquals(((ScalarPrediction) singleEx.getPrediction()).getValue(),
+                        ((ScalarPrediction) bulkEx.getPrediction()).getValue(), 1e-6);
+
+                singleEx.clear();
+                bulkEx.clear();
+            }
+
+            assertArrayEquals(single.getModel(), bulk.getModel());
+        } finally {
+            singleEx.close();
+            bulkEx.close();
+            single.close();
+            bulk.close();
+        }
+    }
+
+    @Test
+    public void testFloatValuesMatchDoubleValues() throws Exception {
+        double[] doubles = new double[] { 1.0, 0.0, 2.5, 0.125 };
+        float[] floats = new float[] { 1.0f, 0.0f, 2.5f, 0.125f };
+        int[] indices = new int[] { 3, 5, 7, 11 };
+        FloatBuffer direct = ByteBuffer.allocateDirect(4 * (floats.length + 1)).order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+        direct.put(42f).put(floats).flip().position(1);
+
+        VowpalWabbitNative doubleVW = new VowpalWabbitNative("--quiet");
+        VowpalWabbitNative floatVW = new VowpalWabbitNative("--quiet");
+        VowpalWabbitNative bufferVW = new VowpalWabbitNative("--quiet");
+        VowpalWabbitExample doubleEx = doubleVW.createExample();
+        VowpalWabbitExample floatEx = floatVW.createExample();
+        VowpalWabbitExample bufferEx = bufferVW.createExample();
+
+        try {
+            for (int i = 0; i < 10; i++) {
+                doubleEx.addToNamespaceDense('a', 0, doubles);
+                doubleEx.addToNamespaceSparse('b', indices, doubles);
+                floatEx.addToNamespaceDense('a', 0, floats);
+                floatEx.addToNamespaceSparse('b', indices, floats);
+                bufferEx.addToNamespaceDense('a', 0, direct);
+                bufferEx.addToNamespaceSparse('b', indices, floats);
+
+                for (VowpalWabbitExample ex : new VowpalWabbitExample[] { doubleEx, floatEx, bufferEx }) {
+                    ex.setLabel(i % 2);
+                    ex.learn();
+                    ex.clear();
+                }
+            }
+
+            assertEquals(1, direct.position());
+            assertArrayEquals(doubleVW.getModel(), floatVW.getModel());
+            assertArrayEquals(doubleVW.getModel(), bufferVW.getModel());
+        } finally {
+            doubleEx.close();
+            floatEx.close();
+            bufferEx.close();
+            doubleVW.close();
+            floatVW.close();
+            bufferVW.close();
+        }
+    }
+
+    @Test
+    public void testDirectSparseBuffersMatchArrays() throws Exception {
+        int[] indices = new int[] { 3, 5, 7, 11 };
+        float[] values = new float[] { 1.0f, 0.0f, 2.5f, 0.125f };
+        IntBuffer directIndices = ByteBuffer.allocateDirect(4 * indices.length).order(ByteOrder.nativeOrder())
+                .asIntBuffer();
+        directIndices.put(indices).flip();
+        FloatBuffer directValues = ByteBuffer.allocateDirect(4 * values.length).order(ByteOrder.nativeOrder())
+                .asFloatBuffer();
+        directValues.put(values).flip();
+
+        VowpalWabbitNative arrayVW = new VowpalWabbitNative("--quiet");
+        VowpalWabbitNative directVW = new VowpalWabbitNative("--quiet");
+        VowpalWabbitNative heapVW = new VowpalWabbitNative("--quiet");
+        VowpalWabbitExample arrayEx = arrayVW.createExample();
+        VowpalWabbitExample directEx = directVW.createExample();
+        VowpalWabbitExample heapEx = heapVW.createExample();
+
+        try {
+            for (int i = 0; i < 10; i++) {
+                arrayEx.addToNamespaceSparse('b', indices, values);
+                directEx.addToNamespaceSparse('b', directIndices, directValues);
+                heapEx.addToNamespaceSparse('b', IntBuffer.wrap(indices), FloatBuffer.wrap(values));
+
+                for (VowpalWabbitExample ex : new VowpalWabbitExample[] { arrayEx, directEx, heapEx }) {
+                    ex.setLabel(i % 2);
+                    ex.learn();
+                    ex.clear();
+                }
+            }
+
+            assertEquals(0, directIndices.position());
+            assertEquals(0, directValues.position());
+            assertArrayEquals(arrayVW.getModel(), directVW.getModel());
+            assertArrayEquals(arrayVW.getModel(), heapVW.getModel());
+        } finally {
+            arrayEx.close();
+            directEx.close();
+            heapEx.close();
+            arrayVW.close();
+            directVW.close();
+            heapVW.close();
+        }
+    }
+
+    @Test
+    public void testBatchMatchesSingleExamples() throws Exception {
+        VowpalWabbitNative singleVW = new VowpalWabbitNative("--quiet");
+        VowpalWabbitNative batchVW = new VowpalWabbitNative("--quiet");
+        VowpalWabbitExample[] single = new VowpalWabbitExample[4];
+        VowpalWabbitExample[] batch = new VowpalWabbitExample[single.length];
+        for (int i = 0; i < single.length; i++) {
+            single[i] = singleVW.createExample();
+            batch[i] = batchVW.createExample();
+        }
+
+        try {
+            for (int pass = 0; pass < 5; pass++) {
+                for (int i = 0; i < single.length; i++) {
+                    for (VowpalWabbitExample ex : new VowpalWabbitExample[] { single[i], batch[i] }) {
+                        ex.addToNamespaceSparse('a', new int[] { i, i + 1 }, new double[] { 1.0, 0.5 });
+                        ex.setLabel(i % 2);
+                    }
+                    single[i].learn();
+                    single[i].clear();
+                }
+                batchVW.learn(batch);
+                for (VowpalWabbitExample ex : batch)
+                    ex.clear();
+            }
+
+            assertArrayEquals(singleVW.getModel(), batchVW.getModel());
+
+            float[] predictions = new float[batch.length + 1];
+            for (int i = 0; i < single.length; i++) {
+                single[i].addToNamespaceSparse('a', new int[] { i, i + 1 }, new double[] { 1.0, 0.5 });
+                batch[i].addToNamespaceSparse('a', new int[] { i, i + 1 }, new double[] { 1.0, 0.5 });
+            }
+            batchVW.predictScalars(batch, predictions);
+            for (int i = 0; i < single.length; i++) {
+                ScalarPrediction pred = (ScalarPrediction) single[i].predict();
+                assertEquals(pred.getValue(), predictions[i], 1e-6);
+            }
+            assertEquals(0f, predictions[batch.length], 0f);
+        } finally {
+            for (int i = 0; i < single.length; i++) {
+                single[i].close();
+                batch[i].close();
+            }
+            singleVW.close();
+            batchVW.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchRejectsForeignExamples() throws Exception {
+        VowpalWabbitNative vw = new VowpalWabbitNative("--quiet");
+        VowpalWabbitNative other = new VowpalWabbitNative("--quiet");
+        VowpalWabbitExample ex = other.createExample();
+
+        try {
+            vw.learn(new VowpalWabbitExample[] { ex });
+        } finally {
+            ex.close();
+            other.close();
+            vw.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddToNamespacesRejectsBadOffsets() throws Exception {
+        VowpalWabbitNative vw = new VowpalWabbitNative("--quiet");
+        VowpalWabbitExample ex = vw.createExample();
+
+        try {
+            ex.addToNamespaces(new char[] { 'a' }, new int[] { 0, 3 }, new int[] { 1, 2 }, new double[] { 1.0, 1.0 });
+        } finally {
+            ex.close();
+            vw.close();
+        }
+    }
+
     @Test
     public void testPrediction() throws Exception {
         byte[] model;
@@ -1,7 +1,9 @@
 package vowpalWabbit;
 
 import com.google.common.util.concurrent.*;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import vowpalWabbit.learner.VWLearners;
 import vowpalWabbit.learner.VWScalarLearner;
 
@@ -14,6 +16,8 @@ import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -118,6 +122,55 @@ public class ClosingTest  extends VWTestHelper {
         assertEquals(1, closeAttempts);
     }
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void parallelMultiPassCloseMatchesSequentialClose() throws Exception {
+        final int numModels = 16;
+        final String[] data = new String[]{"1 | a b", "-1 | b c", "1 | a d", "-1 | c d"};
+        final ExecutorService exSvc = Executors.newFixedThreadPool(numModels);
+
+        final List<String> parallelModels = new ArrayList<String>(numModels);
+        final List<CompletableFuture<Boolean>> closeFutures = new ArrayList<CompletableFuture<Boolean>>(numModels);
+        for (int i = 0; i < numModels; ++i) {
+            final String model = temporaryFolder.newFile().getAbsolutePath();
+            final VWScalarLearner vw = multiPassModel(model, data, i);
+            parallelModels.add(model);
+            closeFutures.add(vw.closeAsync(exSvc));
+        }
+        for (CompletableFuture<Boolean> closed : closeFutures) {
+            assertTrue(closed.get());
+        }
+        exSvc.shutdown();
+
+        for (int i = 0; i < numModels; ++i) {
+            final String model = temporaryFolder.newFile().getAbsolutePath();
+            multiPassModel(model, data, i).close();
+            final VWScalarLearner sequential = VWLearners.create("--quiet -t -i " + model);
+            final VWScalarLearner parallel = VWLearners.create("--quiet -t -i " + parallelModels.get(i));
+            for (String d : data) {
+                assertEquals(sequential.predict(d), parallel.predict(d), 1e-6f);
+            }
+            sequential.close();
+            parallel.close();
+        }
+    }
+
+    /**
+     * Creates a model with 1000 passes over <code>data</code>.  Each model gets its own cache file, the default
+     * cache file would be shared by all models in the working directory.
+     */
+    private VWScalarLearner multiPassModel(final String model, final String[] data, final int seed) throws IOException {
+        final File cache = new File(temporaryFolder.getRoot(), "cache-" + System.nanoTime());
+        final VWScalarLearner vw = VWLearners.create("--quiet --holdout_off --passes 1000 --random_seed " + seed +
+                " --cache_file " + cache.getAbsolutePath() + " -f " + model);
+        for (String d : data) {
+            vw.learn(d);
+        }
+        return vw;
+    }
+
     @Test
     public void testRegisteringClosingCallbackNoDelay() throws Exception {
         testClosingCallback(0);
@@ -0,0 +1,112 @@
+package vowpalWabbit;
+
+import org.junit.Test;
+import vowpalWabbit.learner.VWLearners;
+import vowpalWabbit.learner.VWMulticlassLearner;
+import vowpalWabbit.learner.VWScalarLearner;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class NativeCleanerTest extends VWTestHelper {
+    private static final int MAX_GC_ATTEMPTS = 50;
+
+    @Test
+    public void cleanRunsActionOnce() {
+        final AtomicInteger runs = new AtomicInteger();
+        final Object owner = new Object();
+        final NativeCleaner.Cleanable cleanable = NativeCleaner.register(owner, counter(runs), "test");
+        cleanable.clean();
+        cleanable.clean();
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    public void closedOwnerIsNotALeak() throws Exception {
+        final long leaks = NativeCleaner.getLeakCount();
+        final AtomicInteger runs = new AtomicInteger();
+        NativeCleaner.register(new Object(), counter(runs), "test").clean();
+        collectGarbage();
+        assertEquals(1, runs.get());
+        assertEquals(leaks, NativeCleaner.getLeakCount());
+    }
+
+    @Test
+    public void unclosedOwnerIsCleanedAndCounted() throws Exception {
+        final long leaks = NativeCleaner.getLeakCount();
+        final AtomicInteger runs = new AtomicInteger();
+        final boolean record = NativeCleaner.isRecordAllocationSites();
+        NativeCleaner.setRecordAllocationSites(true);
+        try {
+            NativeCleaner.register(new Object(), counter(runs), "leakyOwner");
+        }
+        finally {
+            NativeCleaner.setRecordAllocationSites(record);
+        }
+        for (int i = 0; i < MAX_GC_ATTEMPTS && runs.get() == 0; ++i) {
+            collectGarbage();
+        }
+        assertEquals(1, runs.get());
+        assertEquals(leaks + 1, NativeCleaner.getLeakCount());
+
+        final List<Throwable> sites = NativeCleaner.getLeakSites();
+        final Throwable site = sites.get(sites.size() - 1);
+        assertTrue(site.getMessage().startsWith("leakyOwner"));
+        assertEquals("unclosedOwnerIsCleanedAndCounted", site.getStackTrace()[1].getMethodName());
+    }
+
+    @Test
+    public void allocationSitesAreNotRecordedByDefault() throws Exception {
+        assertFalse(NativeCleaner.isRecordAllocationSites());
+        final long leaks = NativeCleaner.getLeakCount();
+        final int sites = NativeCleaner.getLeakSites().size();
+        final AtomicInteger runs = new AtomicInteger();
+        NativeCleaner.register(new Object(), counter(runs), "test");
+        for (int i = 0; i < MAX_GC_ATTEMPTS && runs.get() == 0; ++i) {
+            collectGarbage();
+        }
+        assertEquals(leaks + 1, NativeCleaner.getLeakCount());
+        assertEquals(sites, NativeCleaner.getLeakSites().size());
+    }
+
+    @Test
+    public void wrongLearnerTypeIsReclaimed() throws Exception {
+        final long leaks = NativeCleaner.getLeakCount();
+        try {
+            final VWMulticlassLearner wrongType = VWLearners.create("--quiet");
+            fail("Expected a ClassCastException but created " + wrongType);
+        }
+        catch (ClassCastException expected) {
+            // The learner can't be closed by the caller.
+        }
+        for (int i = 0; i < MAX_GC_ATTEMPTS && NativeCleaner.getLeakCount() == leaks; ++i) {
+            collectGarbage();
+        }
+        assertEquals(leaks + 1, NativeCleaner.getLeakCount());
+    }
+
+    @Test
+    public void closedLearnerIsNotRegistered() throws Exception {
+        final int live = NativeCleaner.getLiveCount();
+        final VWScalarLearner vw = VWLearners.create("--quiet");
+        assertEquals(live + 1, NativeCleaner.getLiveCount());
+        vw.close();
+        assertEquals(live, NativeCleaner.getLiveCount());
+    }
+
+    private static Runnable counter(final AtomicInteger runs) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                runs.incrementAndGet();
+            }
+        };
+    }
+
+    private static void collectGarbage() throws InterruptedException {
+        System.gc();
+        Thread.sleep(20);
+    }
+}
@@ -0,0 +1,99 @@
+package vowpalWabbit;
+
+import org.junit.Test;
+import vowpalWabbit.learner.VWLearners;
+import vowpalWabbit.learner.VWPredictorPool;
+import vowpalWabbit.learner.VWScalarLearner;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+public class NativeMemoryTest extends VWTestHelper {
+
+    @Test
+    public void weightsScaleWithBits() throws Exception {
+        final VWScalarLearner small = VWLearners.create("--quiet -b 10");
+        final VWScalarLearner large = VWLearners.create("--quiet -b 12");
+        final NativeMemoryStats smallStats = small.getNativeMemoryStats();
+        final NativeMemoryStats largeStats = large.getNativeMemoryStats();
+        small.close();
+        large.close();
+
+        assertTrue(smallStats.getWeightsBytes() >= (1 << 10) * 4);
+        assertEquals(4 * smallStats.getWeightsBytes(), largeStats.getWeightsBytes());
+        assertTrue(largeStats.getExamplePoolBytes() > 0);
+        assertEquals(largeStats.getWeightsBytes() + largeStats.getExamplePoolBytes() + largeStats.getParserBytes(),
+                     largeStats.getTotalBytes());
+    }
+
+    @Test
+    public void sparseWeightsAreNotCounted() throws Exception {
+        final VWScalarLearner vw = VWLearners.create("--quiet --sparse_weights");
+        vw.learn("1 | a b");
+        assertEquals(0, vw.getNativeMemoryStats().getWeightsBytes());
+        vw.close();
+    }
+
+    @Test
+    public void totalTracksOpenInstances() throws Exception {
+        final int instances = NativeMemory.getInstanceCount();
+        final long total = NativeMemory.getTotal().getWeightsBytes();
+        final VWScalarLearner vw = VWLearners.create("--quiet -b 16");
+        final long weights = vw.getNativeMemoryStats().getWeightsBytes();
+
+        assertEquals(instances + 1, NativeMemory.getInstanceCount());
+        assertEquals(total + weights, NativeMemory.getTotal().getWeightsBytes());
+        vw.close();
+        assertEquals(instances, NativeMemory.getInstanceCount());
+        assertEquals(total, NativeMemory.getTotal().getWeightsBytes());
+    }
+
+    @Test
+    public void sharedWeightsAreCountedOnce() throws Exception {
+        final String model = temporaryFolder.newFile().getAbsolutePath();
+        final VWScalarLearner trained = VWLearners.create("--quiet -b 14 -f " + model);
+        trained.learn("1 | a b");
+        trained.close();
+
+        final long total = NativeMemory.getTotal().getWeightsBytes();
+        final VWPredictorPool<VWScalarLearner> pool = VWLearners.createPredictorPool("--quiet -t -i " + model, 4);
+        final VWScalarLearner replica = pool.acquire();
+        assertEquals(0, replica.getNativeMemoryStats().getWeightsBytes());
+        pool.release(replica);
+
+        final VWScalarLearner single = VWLearners.create("--quiet -t -i " + model);
+        assertEquals(total + single.getNativeMemoryStats().getWeightsBytes(),
+                     NativeMemory.getTotal().getWeightsBytes());
+        single.close();
+        pool.close();
+    }
+
+    @Test
+    public void mbeanIsPublished() throws Exception {
+        final VWScalarLearner vw = VWLearners.create("--quiet -b 10");
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = new ObjectName(NativeMemory.OBJECT_NAME);
+        final long total = (Long) server.getAttribute(name, "TotalBytes");
+        assertTrue(total >= vw.getNativeMemoryStats().getTotalBytes());
+        // the attributes of a scrape are read from the same snapshot
+        final VWScalarLearner other = VWLearners.create("--quiet -b 12");
+        assertEquals(total, (long) (Long) server.getAttribute(name, "WeightsBytes") +
+                            (Long) server.getAttribute(name, "ExamplePoolBytes") +
+                            (Long) server.getAttribute(name, "ParserBytes"));
+        other.close();
+        assertEquals(NativeMemory.getInstanceCount(), server.getAttribute(name, "InstanceCount"));
+        vw.close();
+    }
+
+    @Test
+    public void closedLearnerThrows() throws Exception {
+        final VWScalarLearner vw = VWLearners.create("--quiet");
+        vw.close();
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage("Already closed.");
+        vw.getNativeMemoryStats();
+    }
+}
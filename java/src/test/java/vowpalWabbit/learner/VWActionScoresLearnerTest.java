@@ -4,11 +4,16 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import vowpalWabbit.VWTestHelper;
+import vowpalWabbit.responses.ActionScore;
 import vowpalWabbit.responses.ActionScores;
+import vowpalWabbit.responses.ActionScoresBuffer;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 
 /**
  * Created by jmorra on 10/2/15.
@@ -74,6 +79,93 @@ public class VWActionScoresLearnerTest extends VWTestHelper {
         testCBADF(true);
     }
 
+    @Test
+    public void testCBADFByteBuffer() throws IOException {
+        String[][] cbADFTrain = new String[][]{
+            new String[]{"| a:1 b:0.5","0:0.1:0.75 | a:0.5 b:1 c:2"},
+            new String[]{"shared | s_1 s_2","0:1.0:0.5 | a:1 b:1 c:1","| a:0.5 b:2 c:1"},
+            new String[]{"| a:1 b:0.5","0:0.1:0.75 | a:0.5 b:1 c:2"},
+            new String[]{"shared | s_1 s_2","0:1.0:0.5 | a:1 b:1 c:1","| a:0.5 b:2 c:1"}
+        };
+        VWActionScoresLearner bufferLearner = VWLearners.create("--quiet --cb_adf");
+        VWActionScoresLearner stringLearner = VWLearners.create("--quiet --cb_adf");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+        for (String[] example : cbADFTrain) {
+            buffer.clear();
+            int[] offsets = new int[example.length + 1];
+            for (int i = 0; i < example.length; ++i) {
+                buffer.put(example[i].getBytes(Charset.forName("UTF-8")));
+                // Only separate the first lines by newlines to exercise both terminated and unterminated lines.
+                if (i + 2 < example.length) {
+                    buffer.put((byte) '\n');
+                }
+                offsets[i + 1] = buffer.position();
+            }
+            buffer.flip();
+
+            assertEquals(stringLearner.learn(example), bufferLearner.learn(buffer, offsets));
+            assertEquals(stringLearner.predict(example), bufferLearner.predict(buffer, offsets));
+        }
+        bufferLearner.close();
+        stringLearner.close();
+    }
+
+    @Test
+    public void testCBADFActionScoresBuffer() throws IOException {
+        String[][] cbADFTrain = new String[][]{
+            new String[]{"| a:1 b:0.5","0:0.1:0.75 | a:0.5 b:1 c:2"},
+            new String[]{"shared | s_1 s_2","0:1.0:0.5 | a:1 b:1 c:1","| a:0.5 b:2 c:1","| a:2 b:0.5"},
+            new String[]{"| a:1 b:0.5","0:0.1:0.75 | a:0.5 b:1 c:2"}
+        };
+        VWActionScoresLearner bufferLearner = VWLearners.create("--quiet --cb_adf --rank_all");
+        VWActionScoresLearner objectLearner = VWLearners.create("--quiet --cb_adf --rank_all");
+        // Start out too small so that the arrays have to be replaced.
+        ActionScoresBuffer out = new ActionScoresBuffer(1);
+        for (String[] example : cbADFTrain) {
+            ActionScore[] expected = objectLearner.learn(example).getActionScores();
+            assertEquals(expected.length, bufferLearner.learn(example, out));
+            assertEquals(expected.length, out.length());
+            for (int i = 0; i < expected.length; ++i) {
+                assertEquals(expected[i].getAction(), out.getAction(i));
+                assertEquals(expected[i].getScore(), out.getScore(i), 0f);
+            }
+        }
+        assertEquals(3, out.capacity());
+        bufferLearner.close();
+        objectLearner.close();
+    }
+
+    @Test
+    public void testCBADFPacked() throws IOException {
+        String[][] cbADFTrain = new String[][]{
+            new String[]{"| a:1 b:0.5","0:0.1:0.75 | a:0.5 b:1 c:2"},
+            new String[]{"shared | s_1 s_2","0:1.0:0.5 | a:1 b:1 c:1","| a:0.5 b:2 c:1"},
+            new String[]{"| a:1 b:0.5","0:0.1:0.75 | a:0.5 b:1 c:2"}
+        };
+        VWActionScoresLearner arrayLearner = VWLearners.create("--quiet --cb_adf --rank_all");
+        VWActionScoresLearner stringLearner = VWLearners.create("--quiet --cb_adf --rank_all");
+        VWActionScoresLearner bufferLearner = VWLearners.create("--quiet --cb_adf --rank_all");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+        for (String[] example : cbADFTrain) {
+            StringBuilder packed = new StringBuilder();
+            for (String line : example) {
+                packed.append(line).append('\n');
+            }
+            buffer.clear();
+            // Leave off the final newline so that the last line isn't terminated.
+            buffer.put(packed.substring(0, packed.length() - 1).getBytes(Charset.forName("UTF-8")));
+            buffer.flip();
+
+            ActionScores expected = arrayLearner.learn(example);
+            assertEquals(expected, stringLearner.learnPacked(packed.toString()));
+            assertEquals(expected, bufferLearner.learnPacked(buffer));
+            assertEquals(0, buffer.position());
+        }
+        arrayLearner.close();
+        stringLearner.close();
+        bufferLearner.close();
+    }
+
     private void testCBADF(boolean withRank) throws IOException {
         String[][] cbADFTrain = new String[][]{
             new String[]{"| a:1 b:0.5","0:0.1:0.75 | a:0.5 b:1 c:2"},
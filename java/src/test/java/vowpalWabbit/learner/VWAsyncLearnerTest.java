@@ -0,0 +1,119 @@
+package vowpalWabbit.learner;
+
+import org.junit.Test;
+import vowpalWabbit.VWTestHelper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VWAsyncLearnerTest extends VWTestHelper {
+    private static String example(int i) {
+        return (i % 2 == 0 ? "-1" : "1") + " |f height:0." + (i % 10) + " weight:0." + (i % 7);
+    }
+
+    @Test
+    public void testMatchesSynchronousLearning() throws IOException, InterruptedException, ExecutionException {
+        VWScalarLearner syncLearner = VWLearners.create("--quiet --loss_function logistic");
+        VWScalarLearner asyncLearner = VWLearners.create("--quiet --loss_function logistic");
+        VWAsyncLearner<Float> async = VWAsyncLearner.create(asyncLearner, 100, 16, VWAsyncLearner.OverflowPolicy.BLOCK);
+
+        int n = 1000;
+        List<CompletableFuture<Float>> futures = new ArrayList<CompletableFuture<Float>>();
+        for (int i = 0; i < n; ++i) {
+            futures.add(async.learn(example(i)));
+        }
+        for (int i = 0; i < n; ++i) {
+            assertEquals(syncLearner.learn(example(i)), futures.get(i).get(), 1e-6f);
+        }
+        async.close();
+
+        assertEquals(n, async.getSubmittedCount());
+        assertEquals(n, async.getLearnedCount());
+        assertEquals(0, async.getRejectedCount());
+        assertEquals(0, async.getQueueDepth());
+        assertTrue(async.getMaxQueueDepth() <= async.getCapacity());
+        assertTrue(async.getBatchCount() <= n);
+
+        // The wrapped learner is still usable after the async learner is closed.
+        syncLearner.predict(example(0));
+        asyncLearner.predict(example(0));
+        syncLearner.close();
+        asyncLearner.close();
+    }
+
+    @Test
+    public void testFailingExampleOnlyFailsItsOwnFuture() throws IOException, InterruptedException {
+        VWMulticlassLearner syncLearner = VWLearners.create("--quiet --oaa 3");
+        VWMulticlassLearner asyncLearner = VWLearners.create("--quiet --oaa 3");
+        VWAsyncLearner<Integer> async = VWAsyncLearner.create(asyncLearner, 100, 16, VWAsyncLearner.OverflowPolicy.BLOCK);
+
+        // label 0 is rejected by the multiclass label parser
+        int n = 100;
+        int bad = 37;
+        List<CompletableFuture<Integer>> futures = new ArrayList<CompletableFuture<Integer>>();
+        for (int i = 0; i < n; ++i) {
+            futures.add(async.learn((i == bad ? 0 : 1 + i % 3) + " | a" + (i % 5)));
+        }
+        async.close();
+
+        for (int i = 0; i < n; ++i) {
+            try {
+                int prediction = futures.get(i).get();
+                assertTrue(i != bad);
+                assertEquals(syncLearner.learn((1 + i % 3) + " | a" + (i % 5)), prediction);
+            }
+            catch (ExecutionException e) {
+                assertEquals(bad, i);
+            }
+        }
+        assertEquals(n - 1, async.getLearnedCount());
+        assertEquals(1, async.getFailedCount());
+        syncLearner.close();
+        asyncLearner.close();
+    }
+
+    @Test
+    public void testDropPolicyAccountsForEveryExample() throws IOException, InterruptedException {
+        VWScalarLearner learner = VWLearners.create("--quiet");
+        VWAsyncLearner<Float> async = VWAsyncLearner.create(learner, 1, 1, VWAsyncLearner.OverflowPolicy.DROP);
+
+        int n = 10000;
+        List<CompletableFuture<Float>> futures = new ArrayList<CompletableFuture<Float>>();
+        for (int i = 0; i < n; ++i) {
+            futures.add(async.learn(example(i)));
+        }
+        async.close();
+
+        int rejected = 0;
+        for (CompletableFuture<Float> future : futures) {
+            try {
+                future.get();
+            }
+            catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof RejectedExecutionException);
+                ++rejected;
+            }
+        }
+        assertEquals(rejected, async.getRejectedCount());
+        assertEquals(n - rejected, async.getLearnedCount());
+        learner.close();
+    }
+
+    @Test
+    public void testLearnAfterClose() throws IOException {
+        VWScalarLearner learner = VWLearners.create("--quiet");
+        VWAsyncLearner<Float> async = VWAsyncLearner.create(learner);
+        async.close();
+        learner.close();
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage("Already closed.");
+        async.learn(example(0));
+    }
+}
@@ -0,0 +1,53 @@
+package vowpalWabbit.learner;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class VWLatencyHistogramTest {
+
+    @Test
+    public void bucketsCoverTheirValues() {
+        for (long value = 0; value < 100000; ++value) {
+            final int bucket = VWLatencyHistogram.bucket(value);
+            assertTrue(value <= VWLatencyHistogram.upperBound(bucket));
+            assertTrue(bucket == 0 || value > VWLatencyHistogram.upperBound(bucket - 1));
+        }
+        assertTrue(Long.MAX_VALUE <= VWLatencyHistogram.upperBound(VWLatencyHistogram.bucket(Long.MAX_VALUE)));
+    }
+
+    @Test
+    public void percentilesAreWithinBucketPrecision() {
+        final VWLatencyHistogram histogram = new VWLatencyHistogram();
+        for (long i = 1; i <= 10000; ++i) {
+            histogram.record(i * 1000);
+        }
+        assertEquals(10000, histogram.getCount());
+        assertEquals(10000000, histogram.getMax());
+        assertEquals(5000500, histogram.getMean(), 0.001);
+        assertWithin(5000000, histogram.getValueAtPercentile(50));
+        assertWithin(9900000, histogram.getValueAtPercentile(99));
+        assertEquals(10000000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void resetDiscardsValues() {
+        final VWLatencyHistogram histogram = new VWLatencyHistogram();
+        histogram.record(42);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void percentileOutOfRange() {
+        new VWLatencyHistogram().getValueAtPercentile(101);
+    }
+
+    private static void assertWithin(final long expected, final long actual) {
+        assertTrue("expected " + expected + " but found " + actual,
+                   actual >= expected && actual <= expected + expected / 16);
+    }
+}
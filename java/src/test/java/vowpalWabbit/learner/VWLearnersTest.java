@@ -14,11 +14,14 @@ import java.io.PrintWriter;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * Created by jmorra on 10/29/15.
@@ -35,6 +38,29 @@ public class VWLearnersTest extends VWTestHelper {
         VWScalarsLearner learner = VWLearners.create("--cb 4 --quiet");
     }
 
+    @Test
+    public void testDefaultMethodsOfOtherImplementations() throws Exception {
+        // A wrapper only has to implement the methods without a default.
+        VWLearner wrapper = new VWLearner() {
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public Callable<Boolean> closer() {
+                return null;
+            }
+
+            @Override
+            public void saveModel(File filename) {
+            }
+        };
+        assertNull(wrapper.getMetrics());
+        assertEquals(0, wrapper.getNativeMemoryStats().getTotalBytes());
+        thrown.expect(UnsupportedOperationException.class);
+        wrapper.setMetrics(new VWLatencyMetrics());
+    }
+
     @Test
     public void testBadVWArgs() {
         final String args = "--BAD_FEATURE___ounq24tjnasdf8h";
@@ -124,6 +150,87 @@ public class VWLearnersTest extends VWTestHelper {
         predict.close();
     }
 
+    @Test
+    public void testPredictorPoolConcurrency() throws IOException, InterruptedException {
+        final Map<String, Float> data = new TreeMap<String, Float>();
+
+        data.put("-1 | 2", -0.444651f);
+        data.put("-1 | 4", -0.448271f);
+        data.put("1 | 1", 0.175389f);
+        data.put("1 | 3", 0.174267f);
+
+        final String model = temporaryFolder.newFile().getAbsolutePath();
+        VWScalarLearner learn = VWLearners.create("--quiet --loss_function logistic -f " + model);
+        for (String d : data.keySet()) {
+            learn.learn(d);
+        }
+        learn.close();
+
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        final VWPredictorPool<VWScalarLearner> pool = VWLearners.createPredictorPool("--quiet -t -i " + model, numThreads);
+        assertEquals(numThreads, pool.size());
+
+        final AtomicInteger failures = new AtomicInteger();
+        ExecutorService threadPool = Executors.newFixedThreadPool(numThreads * 2);
+        for (int i=0; i<numThreads * 2; ++i) {
+            Runnable run = new Runnable() {
+                @Override
+                public void run() {
+                    for (int j=0; j<1e3; ++j) {
+                        try {
+                            VWScalarLearner predict = pool.acquire();
+                            try {
+                                for (Entry<String, Float> e : data.entrySet()) {
+                                    if (Math.abs(e.getValue() - predict.predict(e.getKey())) > 1e-6f) {
+                                        failures.incrementAndGet();
+                                    }
+                                }
+                            }
+                            finally {
+                                pool.release(predict);
+                            }
+                        }
+                        catch (InterruptedException e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }
+            };
+            threadPool.submit(run);
+        }
+        threadPool.shutdown();
+        threadPool.awaitTermination(1, TimeUnit.DAYS);
+        assertEquals(numThreads, pool.available());
+        pool.close();
+        assertEquals(0, failures.get());
+    }
+
+    @Test
+    public void testPredictorPoolReplicasHaveTheirOwnSharedData() throws IOException, InterruptedException {
+        final String model = temporaryFolder.newFile().getAbsolutePath();
+        VWScalarLearner learn = VWLearners.create("--quiet -f " + model);
+        for (int i=0; i<10; ++i) {
+            learn.learn("1 | a");
+            learn.learn("0 | b");
+        }
+        learn.close();
+
+        final VWPredictorPool<VWScalarLearner> pool = VWLearners.createPredictorPool("--quiet -t -i " + model, 2);
+        VWScalarLearner first = pool.acquire();
+        VWScalarLearner second = pool.acquire();
+        try {
+            // predictions are clipped to the range of the labels seen, which a labelled example extends
+            assertEquals(1, second.predict("| a:1000"), 1e-6f);
+            first.predict("100 | a");
+            assertEquals(1, second.predict("| a:1000"), 1e-6f);
+        }
+        finally {
+            pool.release(first);
+            pool.release(second);
+            pool.close();
+        }
+    }
+
     private long streamingLoadTest(int times) throws IOException {
         VWScalarsLearner m1 = VWLearners.create("--quiet");
         long start = System.currentTimeMillis();
@@ -0,0 +1,111 @@
+package vowpalWabbit.learner;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import vowpalWabbit.VWTestHelper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class VWModelHolderTest extends VWTestHelper {
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private String trainModel(String label) throws IOException {
+        String model = temporaryFolder.newFile().getAbsolutePath();
+        VWScalarLearner learner = VWLearners.create("--quiet -f " + model);
+        for (int i = 0; i < 10; ++i) {
+            learner.learn(label + " | a b c");
+        }
+        learner.close();
+        return model;
+    }
+
+    @Test
+    public void testSwapUnderLoad() throws IOException, InterruptedException {
+        final String[] models = new String[]{trainModel("1"), trainModel("-1")};
+        final VWModelHolder<VWScalarLearner> holder =
+            new VWModelHolder<VWScalarLearner>(VWLearners.<VWScalarLearner>create("--quiet -t -i " + models[0]));
+
+        final AtomicBoolean done = new AtomicBoolean();
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger calls = new AtomicInteger();
+        int numThreads = Runtime.getRuntime().availableProcessors();
+        ExecutorService threadPool = Executors.newFixedThreadPool(numThreads);
+        for (int i = 0; i < numThreads; ++i) {
+            threadPool.submit(new Runnable() {
+                @Override
+                public void run() {
+                    while (!done.get()) {
+                        try {
+                            VWModelHolder.Lease<VWScalarLearner> lease = holder.acquire();
+                            try {
+                                lease.get().predict("| a b c");
+                                calls.incrementAndGet();
+                            }
+                            finally {
+                                lease.close();
+                            }
+                        }
+                        catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                        }
+                    }
+                }
+            });
+        }
+
+        List<CompletableFuture<Boolean>> retired = new ArrayList<CompletableFuture<Boolean>>();
+        for (int i = 1; i <= 20; ++i) {
+            retired.add(holder.swap(VWLearners.<VWScalarLearner>create("--quiet -t -i " + models[i % 2])));
+            Thread.sleep(10);
+        }
+        done.set(true);
+        threadPool.shutdown();
+        threadPool.awaitTermination(1, TimeUnit.MINUTES);
+
+        assertEquals(0, failures.get());
+        assertTrue(calls.get() > 0);
+        for (CompletableFuture<Boolean> r : retired) {
+            assertTrue(r.isDone());
+        }
+        holder.close();
+        assertTrue(holder.closeFuture().isDone());
+    }
+
+    @Test
+    public void testLeaseKeepsRetiredLearnerOpen() throws IOException {
+        VWModelHolder<VWScalarLearner> holder =
+            new VWModelHolder<VWScalarLearner>(VWLearners.<VWScalarLearner>create("--quiet"));
+        VWModelHolder.Lease<VWScalarLearner> lease = holder.acquire();
+        CompletableFuture<Boolean> retired = holder.swap(VWLearners.<VWScalarLearner>create("--quiet"));
+
+        assertFalse(retired.isDone());
+        lease.get().predict("| a");
+        lease.close();
+        assertTrue(retired.isDone());
+        holder.close();
+    }
+
+    @Test
+    public void testAcquireAfterClose() {
+        VWModelHolder<VWScalarLearner> holder =
+            new VWModelHolder<VWScalarLearner>(VWLearners.<VWScalarLearner>create("--quiet"));
+        holder.close();
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage("Already closed.");
+        holder.acquire();
+    }
+}
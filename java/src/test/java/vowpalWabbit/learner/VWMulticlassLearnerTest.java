@@ -8,6 +8,8 @@ import vowpalWabbit.VWTestHelper;
 import java.io.IOException;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
 
 /**
  * Created by jmorra on 10/2/15.
@@ -50,9 +52,48 @@ public class VWMulticlassLearnerTest extends VWTestHelper {
         for (int i=0; i<testPreds.length; ++i) {
             testPreds[i] = vw.predict(test[i]);
         }
+        int[] batchTestPreds = vw.predictBatch(test);
         int[] expectedTestPreds = new int[]{4, 4};
         vw.close();
         assertArrayEquals(expectedTestPreds, testPreds);
+        assertArrayEquals(expectedTestPreds, batchTestPreds);
+    }
+
+    @Test
+    public void testContextualBanditsLearnBatch() throws IOException {
+        String[] train = new String[]{
+            "1:2:0.4 | a c",
+            "3:0.5:0.2 | b d",
+            "4:1.2:0.5 | a b c",
+            "2:1:0.3 | b c",
+            "3:1.5:0.7 | a d"
+        };
+        VWMulticlassLearner vw = VWLearners.create("--quiet --cb 4");
+        int[] trainPreds = vw.learnBatch(train);
+        vw.close();
+        assertArrayEquals(new int[]{1, 2, 2, 2, 2}, trainPreds);
+    }
+
+    @Test
+    public void testLearnBatchReportsFailedExample() throws IOException {
+        String[] train = new String[]{"1 | a", "2 | b", "0 | c", "3 | d"};
+        VWMulticlassLearner vw = VWLearners.create("--quiet --oaa 3");
+        VWMulticlassLearner ref = VWLearners.create("--quiet --oaa 3");
+        try {
+            vw.learnBatch(train);
+            fail("label 0 must fail the batch");
+        }
+        catch (VWBatchException e) {
+            assertEquals(2, e.getFailedIndex());
+            int[] predictions = (int[]) e.getPredictions();
+            assertEquals(train.length, predictions.length);
+            assertEquals(ref.learn(train[0]), predictions[0]);
+            assertEquals(ref.learn(train[1]), predictions[1]);
+        }
+        finally {
+            vw.close();
+            ref.close();
+        }
     }
 
     @Test
@@ -7,8 +7,12 @@ import vowpalWabbit.VWTestHelper;
 import vowpalWabbit.responses.Multilabels;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 
 /**
  * @author jmorra
@@ -62,8 +66,18 @@ public class VWMultilabelsLearnerTest extends VWTestHelper {
         for (int i=0; i<testPreds.length; ++i) {
             testPreds[i] = vw.predict(test[i]);
         }
+        Multilabels[] batchTestPreds = vw.predictBatch(test);
+        int[] labels = new int[4];
+        IntBuffer labelBuffer = ByteBuffer.allocateDirect(4 * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+        assertEquals(0, vw.predict(test[0], labels));
+        assertEquals(0, vw.predict(test[0], labelBuffer));
+        assertEquals(1, vw.predict(test[1], labels));
+        assertEquals(1, vw.predict(test[1], labelBuffer));
+        assertEquals(2, labels[0]);
+        assertEquals(2, labelBuffer.get(0));
         Multilabels[] expectedTestPreds = new Multilabels[]{new Multilabels(new int[]{}), new Multilabels(new int[]{2})};
         vw.close();
         assertArrayEquals(expectedTestPreds, testPreds);
+        assertArrayEquals(expectedTestPreds, batchTestPreds);
     }
 }
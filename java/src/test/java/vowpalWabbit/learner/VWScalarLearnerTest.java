@@ -7,7 +7,10 @@ import vowpalWabbit.VWTestHelper;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 
@@ -83,6 +86,95 @@ public class VWScalarLearnerTest extends VWTestHelper {
         assertEquals(expVwOutput, m.predict("| "), 0.0001);
     }
 
+    @Test
+    public void testBatchMatchesSingleExamples() throws IOException {
+        String[] examples = new String[]{
+                "| price:0.23 sqft:0.25 age:0.05 2006",
+                "| price:0.18 sqft:0.15 age:0.35 1976",
+                "| "
+        };
+        float[] batchPreds = houseScorer.predictBatch(examples);
+        float[] singlePreds = new float[examples.length];
+        for (int i=0; i<examples.length; ++i) {
+            singlePreds[i] = houseScorer.predict(examples[i]);
+        }
+        assertArrayEquals(singlePreds, batchPreds, 0.0001f);
+    }
+
+    @Test
+    public void testMetrics() throws IOException {
+        VWScalarLearner learner = VWLearners.create("--quiet");
+        VWLatencyMetrics metrics = new VWLatencyMetrics();
+        learner.setMetrics(metrics);
+        learner.learn("1 | a b");
+        learner.learn("-1 | b c");
+        learner.predict("| a c");
+        learner.setMetrics(null);
+        learner.predict("| a c");
+        learner.close();
+
+        assertEquals(2, metrics.getLearnLockWait().getCount());
+        assertEquals(2, metrics.getLearnNative().getCount());
+        assertEquals(1, metrics.getPredictLockWait().getCount());
+        assertEquals(1, metrics.getPredictNative().getCount());
+        assertNotEquals(0, metrics.getLearnNative().getMax());
+    }
+
+    @Test
+    public void testLearnBatch() throws IOException {
+        VWScalarLearner batchLearner = VWLearners.create("--quiet");
+        VWScalarLearner singleLearner = VWLearners.create("--quiet");
+        String[] examples = new String[]{
+                "0.1 |f height:0.23 weight:0.25 width:0.05",
+                "0.9 |f height:0.23 weight:0.25 width:0.05",
+                "0.5 |f height:0.53 weight:0.15 width:0.35"
+        };
+        float[] batchPreds = batchLearner.learnBatch(examples);
+        float[] singlePreds = new float[examples.length];
+        for (int i=0; i<examples.length; ++i) {
+            singlePreds[i] = singleLearner.learn(examples[i]);
+        }
+        batchLearner.close();
+        singleLearner.close();
+        assertArrayEquals(singlePreds, batchPreds, 0.0001f);
+    }
+
+    @Test
+    public void testByteBufferMatchesString() throws IOException {
+        VWScalarLearner bufferLearner = VWLearners.create("--quiet");
+        VWScalarLearner stringLearner = VWLearners.create("--quiet");
+        String[] examples = new String[]{
+                "0.1 |f height:0.23 weight:0.25 width:0.05\n",
+                "0.9 |f height:0.23 weight:0.25 width:0.05",
+                "0.5 |f height:0.53 weight:0.15 width:0.35"
+        };
+        // Place each example in the middle of a larger buffer so that parsing must honor the position and limit.
+        ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+        for (String example : examples) {
+            byte[] bytes = example.getBytes(Charset.forName("UTF-8"));
+            buffer.clear();
+            buffer.put("garbage".getBytes(Charset.forName("UTF-8")));
+            int start = buffer.position();
+            buffer.put(bytes);
+            buffer.put("123".getBytes(Charset.forName("UTF-8")));
+            buffer.position(start);
+            buffer.limit(start + bytes.length);
+
+            assertEquals(stringLearner.learn(example), bufferLearner.learn(buffer), 0.0001f);
+            assertEquals(start, buffer.position());
+            assertEquals(stringLearner.predict(example), bufferLearner.predict(buffer), 0.0001f);
+        }
+        bufferLearner.close();
+        stringLearner.close();
+    }
+
+    @Test
+    public void testHeapByteBuffer() throws IOException {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("direct ByteBuffer");
+        houseScorer.predict(ByteBuffer.wrap("| price:0.23".getBytes(Charset.forName("UTF-8"))));
+    }
+
     @Test
     public void twoModelTest() throws IOException {
         VWScalarLearner m1 = VWLearners.create("--quiet");
@@ -5,6 +5,9 @@ import org.junit.Test;
 import vowpalWabbit.VWTestHelper;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -48,6 +51,55 @@ public class VWScalarsLearnerTest extends VWTestHelper {
             assertArrayEquals(expected[i], pred[i], 0.00001f);
     }
 
+    @Test
+    public void probsIntoCallerSuppliedOutput() throws IOException {
+        String[] data = new String[]{
+                "1 | a",
+                "2 | a b",
+                "3 | c d e"
+        };
+
+        VWScalarsLearner expectedVW = VWLearners.create("--quiet --oaa 3 --loss_function=logistic --probabilities");
+        VWScalarsLearner arrayVW = VWLearners.create("--quiet --oaa 3 --loss_function=logistic --probabilities");
+        VWScalarsLearner bufferVW = VWLearners.create("--quiet --oaa 3 --loss_function=logistic --probabilities");
+        float[] array = new float[3];
+        FloatBuffer buffer = ByteBuffer.allocateDirect(4 * 4).order(ByteOrder.nativeOrder()).asFloatBuffer();
+        buffer.position(1);
+        float[] fromBuffer = new float[3];
+        for (String d : data) {
+            float[] expected = expectedVW.learn(d);
+            assertEquals(3, arrayVW.learn(d, array));
+            assertArrayEquals(expected, array, 0f);
+            assertEquals(3, bufferVW.learn(d, buffer));
+            assertEquals(1, buffer.position());
+            buffer.duplicate().get(fromBuffer);
+            assertArrayEquals(expected, fromBuffer, 0f);
+        }
+
+        // Too small an output only receives the first values but still reports how many there are.
+        float[] small = new float[2];
+        float[] expected = expectedVW.predict(data[0]);
+        assertEquals(3, arrayVW.predict(data[0], small));
+        assertArrayEquals(new float[]{expected[0], expected[1]}, small, 0f);
+
+        expectedVW.close();
+        arrayVW.close();
+        bufferVW.close();
+    }
+
+    @Test
+    public void heapOutputBuffer() throws IOException {
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("direct buffer");
+        VWScalarsLearner vw = VWLearners.create("--quiet --oaa 3 --probabilities");
+        try {
+            vw.predict("| a", FloatBuffer.allocate(3));
+        }
+        finally {
+            vw.close();
+        }
+    }
+
     @Before
     public void setupFiles() throws IOException {
         model = temporaryFolder.newFile().getAbsolutePath();
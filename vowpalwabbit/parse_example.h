@@ -21,6 +21,7 @@ namespace VW
 {
 example& get_unused_example(vw* all);
 void read_line(vw& all, example* ex, char * line);  // read example from the line.
+void read_line(vw& all, example* ex, VW::string_view line);  // read example from a line that isn't NUL terminated.
 void read_lines(vw* all, char* line, size_t len,
     v_array<example*>& examples);  // read examples from the new line separated strings.
 